@@ -0,0 +1,51 @@
+package com.reedelk.salesforce.benchmark;
+
+import com.reedelk.salesforce.internal.http.HttpAccessToken;
+import com.reedelk.salesforce.internal.http.HttpHeaders;
+import com.reedelk.salesforce.internal.http.HttpRecordGet;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpHeadersBenchmark {
+
+    private static final String OBJECT_PATH = "/services/data/v49.0/sobjects/Account/";
+
+    private static final String TOKEN_RESPONSE = "{" +
+            "\"access_token\":\"00D5e000000HEcP!AQ0AQPpJ5sW1a1O6rbu9m6oV4XnP0gBfxS0nXhR2n1nKPEnhQKvm0E2TF1qLq9Sx\"," +
+            "\"instance_url\":\"https://na57.salesforce.com\"," +
+            "\"id\":\"https://login.salesforce.com/id/00D5e000000HEcPEAW/0055e000001Bg2JAAS\"," +
+            "\"token_type\":\"Bearer\"," +
+            "\"issued_at\":\"1601983429136\"," +
+            "\"signature\":\"b1VQ0oWQ4ot2E2Ex3FySZ0BLKmUSLyq2F1xk6Zgb3Cw=\"}";
+
+    private HttpAccessToken token;
+    private HttpRecordGet request;
+
+    @Setup
+    public void setup() {
+        token = HttpAccessToken.from(new JSONObject(TOKEN_RESPONSE));
+        request = new HttpRecordGet(OBJECT_PATH, "001D000000INjVeIAL");
+    }
+
+    @Benchmark
+    public HttpRecordGet setAuthorization() {
+        // Same request re-authorized, as on the 401 refresh path.
+        HttpHeaders.setAuthorization(request, token);
+        return request;
+    }
+
+    @Benchmark
+    public HttpRecordGet setAuthorizationNewRequest() {
+        HttpRecordGet newRequest = new HttpRecordGet(OBJECT_PATH, "001D000000INjVeIAL");
+        HttpHeaders.setAuthorization(newRequest, token);
+        return newRequest;
+    }
+}
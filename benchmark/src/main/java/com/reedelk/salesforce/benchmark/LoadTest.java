@@ -0,0 +1,292 @@
+package com.reedelk.salesforce.benchmark;
+
+import com.reedelk.salesforce.component.HttpClientType;
+import com.reedelk.salesforce.component.RecordGet;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import com.reedelk.salesforce.internal.commons.JsonEntity;
+import com.reedelk.salesforce.internal.exception.RecordGetException;
+import com.reedelk.salesforce.internal.http.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// End-to-end throughput harness: many concurrent callers issue the same requests the components
+// build, through the same executor (token provider, rate limiter, retries, client pool), against
+// a local SalesforceStubServer. Reports throughput, latency percentiles, errors and allocation rate.
+//
+// Usage: LoadTest [--callers N] [--duration seconds] [--warmup seconds] [--mix get=60,query=20,...]
+//                 [--latency millis] [--fields N] [--records N] [--error-rate 0.0-1.0]
+//                 [--max-requests-per-second N] [--max-concurrent-requests N] [--compression true|false]
+//                 [--request-compression-threshold bytes] [--client HTTP_ASYNC_CLIENT_4|HTTP_CLIENT_5]
+//                 [--slow-rate 0.0-1.0] [--slow-latency millis] [--hedging-percentile N] [--hedging-max-rate N]
+//                 [--timeout millis] [--bulk-callers N] [--bulk-lane INTERACTIVE|BULK] [--bulk-max-connections N]
+//                 [--shared-io-reactor true|false]
+//
+// Bulk callers run the same mix next to the measured (interactive) callers, in the bulk lane by default.
+public class LoadTest {
+
+    private static final String OBJECT_NAME = "Account";
+    private static final String QUERY = HttpApiPath.encode("SELECT Id, Name FROM Account");
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        try (SalesforceStubServer server = SalesforceStubServer.builder()
+                .latencyMillis(options.latencyMillis)
+                .payloadFields(options.fields)
+                .queryRecords(options.records)
+                .queryPages(options.pages)
+                .errorRate(options.errorRate)
+                .slowRate(options.slowRate)
+                .slowLatencyMillis(options.slowLatencyMillis)
+                .serverThreads(Math.max(64, options.callers))
+                .build()) {
+
+            SalesforceConfiguration configuration = server.configuration("load-test");
+            configuration.setMaxRequestsPerSecond(options.maxRequestsPerSecond);
+            configuration.setMaxConcurrentRequests(options.maxConcurrentRequests);
+            configuration.setResponseCompression(options.compression);
+            configuration.setClient(options.client);
+            configuration.setHedgingPercentile(options.hedgingPercentile);
+            configuration.setHedgingMaxRate(options.hedgingMaxRate);
+            configuration.setBulkMaxConnections(options.bulkMaxConnections);
+            configuration.setSharedIOReactor(options.sharedIOReactor);
+
+            RecordGet user = new RecordGet();
+            HttpClientProvider.provide(configuration, user);
+            try {
+                System.out.printf("Stub server %s, %d callers, mix %s, latency %dms, error rate %.3f, compression %s, client %s%n",
+                        server.baseURL(), options.callers, options.mix, options.latencyMillis, options.errorRate, options.compression, options.client);
+
+                if (options.warmupSeconds > 0) {
+                    run(configuration, user, options, options.warmupSeconds);
+                }
+                Result result = run(configuration, user, options, options.durationSeconds);
+                result.print();
+            } finally {
+                HttpClientProvider.release(configuration, user);
+            }
+        }
+    }
+
+    private static Result run(SalesforceConfiguration configuration, RecordGet user, Options options, int seconds)
+            throws InterruptedException, ExecutionException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ExecutorService callers = Executors.newFixedThreadPool(options.callers + options.bulkCallers);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        HttpApiPath apiPath = HttpApiPath.of(configuration);
+        String objectPath = apiPath.object(OBJECT_NAME);
+        Map<String, Object> payload = SalesforceStubServer.Payloads.writePayload(options.fields);
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        AtomicLong bulkRequests = new AtomicLong();
+        for (int i = 0; i < options.bulkCallers; i++) {
+            callers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpBaseRequest request = options.nextRequest(apiPath, objectPath, payload);
+                    try {
+                        HttpAuthAwareRequestExecutor.execute(request, configuration, user, RecordGetException::new,
+                                null, options.bulkLane);
+                    } catch (Exception exception) {
+                        // Only the interactive callers are measured.
+                    }
+                    bulkRequests.incrementAndGet();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < options.callers; i++) {
+            futures.add(callers.submit(() -> {
+                long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpBaseRequest request = options.nextRequest(apiPath, objectPath, payload);
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpAuthAwareRequestExecutor.execute(request, configuration, user, RecordGetException::new,
+                                Deadline.of(configuration, options.timeoutMillis), TrafficLane.INTERACTIVE);
+                    } catch (Exception exception) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                    latencies[count++] = System.nanoTime() - requestStart;
+                }
+                long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = allocated;
+                return result;
+            }));
+        }
+
+        List<long[]> latencies = new ArrayList<>();
+        long allocated = 0;
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            allocated += result[result.length - 1];
+            latencies.add(Arrays.copyOf(result, result.length - 1));
+        }
+        long elapsed = System.nanoTime() - start;
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.MINUTES);
+        if (options.bulkCallers > 0) {
+            System.out.printf("Bulk requests: %d (%s lane)%n", bulkRequests.get(), options.bulkLane);
+        }
+        return new Result(latencies, errors.get(), allocated, elapsed);
+    }
+
+    static class Result {
+
+        private final long[] latencies;
+        private final long errors;
+        private final long allocatedBytes;
+        private final long elapsedNanos;
+
+        Result(List<long[]> perCaller, long errors, long allocatedBytes, long elapsedNanos) {
+            int total = 0;
+            for (long[] caller : perCaller) total += caller.length;
+            this.latencies = new long[total];
+            int offset = 0;
+            for (long[] caller : perCaller) {
+                System.arraycopy(caller, 0, latencies, offset, caller.length);
+                offset += caller.length;
+            }
+            Arrays.sort(latencies);
+            this.errors = errors;
+            this.allocatedBytes = allocatedBytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("Requests:      %d (%d errors)%n", latencies.length, errors);
+            System.out.printf("Throughput:    %.1f req/s%n", latencies.length / seconds);
+            System.out.printf("Latency (ms):  p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(1.0));
+            System.out.printf("Allocation:    %.1f MB/s, %.1f KB/req (caller threads)%n",
+                    allocatedBytes / seconds / (1024 * 1024),
+                    latencies.length == 0 ? 0.0 : (double) allocatedBytes / latencies.length / 1024);
+        }
+
+        private double percentile(double percentile) {
+            if (latencies.length == 0) return 0;
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    static class Options {
+
+        int callers = 64;
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        long latencyMillis = 20;
+        int fields = 20;
+        int records = 50;
+        int pages = 1;
+        double errorRate = 0;
+        double slowRate = 0;
+        long slowLatencyMillis = 1000;
+        Integer hedgingPercentile;
+        Integer hedgingMaxRate;
+        Integer timeoutMillis;
+        int bulkCallers = 0;
+        TrafficLane bulkLane = TrafficLane.BULK;
+        Integer bulkMaxConnections;
+        boolean sharedIOReactor;
+        boolean compression = true;
+        Integer requestCompressionThreshold;
+        Integer maxRequestsPerSecond;
+        Integer maxConcurrentRequests;
+        HttpClientType client = HttpClientType.HTTP_ASYNC_CLIENT_4;
+        String mix = "get=60,query=20,create=10,update=5,delete=3,describe=2";
+
+        private String[] operations;
+        private int[] cumulativeWeights;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--callers": options.callers = Integer.parseInt(value); break;
+                    case "--duration": options.durationSeconds = Integer.parseInt(value); break;
+                    case "--warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "--latency": options.latencyMillis = Long.parseLong(value); break;
+                    case "--fields": options.fields = Integer.parseInt(value); break;
+                    case "--records": options.records = Integer.parseInt(value); break;
+                    case "--pages": options.pages = Integer.parseInt(value); break;
+                    case "--error-rate": options.errorRate = Double.parseDouble(value); break;
+                    case "--slow-rate": options.slowRate = Double.parseDouble(value); break;
+                    case "--slow-latency": options.slowLatencyMillis = Long.parseLong(value); break;
+                    case "--hedging-percentile": options.hedgingPercentile = Integer.parseInt(value); break;
+                    case "--hedging-max-rate": options.hedgingMaxRate = Integer.parseInt(value); break;
+                    case "--bulk-callers": options.bulkCallers = Integer.parseInt(value); break;
+                    case "--bulk-lane": options.bulkLane = TrafficLane.valueOf(value); break;
+                    case "--bulk-max-connections": options.bulkMaxConnections = Integer.parseInt(value); break;
+                    case "--shared-io-reactor": options.sharedIOReactor = Boolean.parseBoolean(value); break;
+                    case "--timeout": options.timeoutMillis = Integer.parseInt(value); break;
+                    case "--max-requests-per-second": options.maxRequestsPerSecond = Integer.parseInt(value); break;
+                    case "--max-concurrent-requests": options.maxConcurrentRequests = Integer.parseInt(value); break;
+                    case "--compression": options.compression = Boolean.parseBoolean(value); break;
+                    case "--request-compression-threshold": options.requestCompressionThreshold = Integer.parseInt(value); break;
+                    case "--client": options.client = HttpClientType.valueOf(value); break;
+                    case "--mix": options.mix = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            options.parseMix();
+            return options;
+        }
+
+        private void parseMix() {
+            String[] entries = mix.split(",");
+            operations = new String[entries.length];
+            cumulativeWeights = new int[entries.length];
+            int total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] entry = entries[i].split("=");
+                operations[i] = entry[0].trim();
+                total += Integer.parseInt(entry[1].trim());
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        private static String window(ThreadLocalRandom random) {
+            return "?start=2020-10-01T00%3A00%3A00%2B00%3A00&end=2020-10-02T" +
+                    String.format("%02d", random.nextInt(24)) + "%3A00%3A00%2B00%3A00";
+        }
+
+        HttpBaseRequest nextRequest(HttpApiPath apiPath, String objectPath, Map<String, Object> payload) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = 0;
+            while (pick >= cumulativeWeights[index]) index++;
+
+            // Distinct ids, so that concurrent GETs are not coalesced into a single call.
+            String objectId = "001D" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            switch (operations[index]) {
+                case "get": return new HttpRecordGet(objectPath, objectId);
+                case "query": return new HttpSOQLQuery(apiPath.query(QUERY + "+LIMIT+" + random.nextInt(1000000)));
+                case "create": return new HttpRecordCreate(objectPath, entity(payload));
+                case "update": return new HttpRecordUpdate(objectPath, objectId, entity(payload));
+                case "delete": return new HttpRecordDelete(objectPath, objectId);
+                case "describe": return new HttpDescribe(apiPath.describe(OBJECT_NAME + random.nextInt(1000000)));
+                case "updated": return new HttpRecordsUpdated(apiPath.updated(OBJECT_NAME, window(random)));
+                case "deleted": return new HttpRecordsDeleted(apiPath.deleted(OBJECT_NAME, window(random)));
+                default: throw new IllegalArgumentException("Unknown operation: " + operations[index]);
+            }
+        }
+
+        private HttpRequestBody entity(Map<String, Object> payload) {
+            return JsonEntity.from(payload).compressAbove(requestCompressionThreshold);
+        }
+    }
+}
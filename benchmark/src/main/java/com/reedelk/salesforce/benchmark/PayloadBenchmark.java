@@ -0,0 +1,90 @@
+package com.reedelk.salesforce.benchmark;
+
+import com.reedelk.salesforce.component.RecordCreate;
+import com.reedelk.salesforce.internal.commons.JsonEntity;
+import com.reedelk.salesforce.internal.commons.Payload;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    // Number of fields of the record; each field value is 'fieldLength' characters long.
+    @Param({"10", "100", "1000"})
+    int fields;
+
+    @Param({"16", "1024"})
+    int fieldLength;
+
+    private Map<String, Object> mapPayload;
+    private String stringPayload;
+
+    @Setup
+    public void setup() {
+        mapPayload = Records.record(fields, fieldLength);
+        stringPayload = Records.json(fields, fieldLength);
+    }
+
+    @Benchmark
+    public String toJsonFromString() {
+        return Payload.toJson(RecordCreate.class, stringPayload);
+    }
+
+    @Benchmark
+    public String toJsonFromMap() {
+        return Payload.toJson(RecordCreate.class, mapPayload);
+    }
+
+    @Benchmark
+    public String toJsonFromMapWithJSONObject() {
+        // Baseline: the JSONObject tree the map payloads were serialized with.
+        return new JSONObject(mapPayload).toString();
+    }
+
+    @Benchmark
+    public JsonEntity toJsonEntityFromMap() {
+        return Payload.toJsonEntity(RecordCreate.class, mapPayload);
+    }
+
+    @Benchmark
+    public JsonEntity toJsonEntityFromString() {
+        return Payload.toJsonEntity(RecordCreate.class, stringPayload);
+    }
+
+    static class Records {
+
+        static Map<String, Object> record(int fields, int fieldLength) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            for (int i = 0; i < fields; i++) {
+                record.put("Field_" + i + "__c", value(i, fieldLength));
+            }
+            return record;
+        }
+
+        static String json(int fields, int fieldLength) {
+            StringBuilder json = new StringBuilder("{");
+            for (int i = 0; i < fields; i++) {
+                if (i > 0) json.append(',');
+                json.append("\"Field_").append(i).append("__c\":\"").append(value(i, fieldLength)).append('"');
+            }
+            return json.append('}').toString();
+        }
+
+        private static String value(int seed, int length) {
+            StringBuilder value = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                value.append((char) ('a' + (seed + i) % 26));
+            }
+            return value.toString();
+        }
+    }
+}
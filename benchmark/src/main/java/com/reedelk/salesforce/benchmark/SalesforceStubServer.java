@@ -0,0 +1,362 @@
+package com.reedelk.salesforce.benchmark;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Local emulation of the Salesforce OAuth token endpoint and of the REST API resources used by
+// the components (sobjects, query, describe, updated and deleted), so that benchmarks never reach a real org.
+// Latency, payload size and error rate are configurable; errors are returned as 503. A fraction of
+// the requests can be made slow, emulating the occasional slow pod behind the load balancer.
+public class SalesforceStubServer implements AutoCloseable {
+
+    private static final String TOKEN_PATH = "/services/oauth2/token";
+    private static final String API_PATH = "/services/data/v49.0/";
+    private static final String NEXT_RECORDS_PATH = API_PATH + "query/01gD0000002HU6KIAW-";
+
+    private static final String TOKEN_RESPONSE = "{" +
+            "\"access_token\":\"00D5e000000HEcP!AQ0AQPpJ5sW1a1O6rbu9m6oV4XnP0gBfxS0nXhR2n1nKPEnhQKvm0E2TF1qLq9Sx\"," +
+            "\"instance_url\":\"%s\"," +
+            "\"id\":\"https://login.salesforce.com/id/00D5e000000HEcPEAW/0055e000001Bg2JAAS\"," +
+            "\"token_type\":\"Bearer\"," +
+            "\"issued_at\":\"1601983429136\"," +
+            "\"signature\":\"b1VQ0oWQ4ot2E2Ex3FySZ0BLKmUSLyq2F1xk6Zgb3Cw=\"}";
+
+    private static final String ERROR_RESPONSE =
+            "[{\"message\":\"Server is temporarily unavailable\",\"errorCode\":\"SERVER_UNAVAILABLE\"}]";
+
+    private static final String CREATE_RESPONSE =
+            "{\"id\":\"001D000000IqhSLIAZ\",\"success\":true,\"errors\":[]}";
+
+    private static final int API_LIMIT = 15000;
+
+    // Records are created on the first date, except those returned by the queries looking for the last
+    // one, so that partitioned queries have a CreatedDate range to split.
+    private static final String FIRST_CREATED_DATE = "2020-01-01T00:00:00.000+0000";
+    private static final String LAST_CREATED_DATE = "2020-12-31T00:00:00.000+0000";
+    private static final String LAST_CREATED_DATE_QUERY = "ORDER BY CreatedDate DESC";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final double slowRate;
+    private final long slowLatencyMillis;
+    private final Body record;
+    private final Body query;
+    private final Body queryLast;
+    private final Body queryNext;
+    private final int queryPages;
+    private final Body describe;
+    private final Body updated;
+    private final Body deleted;
+    private final AtomicLong apiCalls = new AtomicLong();
+
+    static {
+        // Without it the stub server pays the Nagle/delayed ACK penalty (~40ms) on every response.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private SalesforceStubServer(Builder builder) throws IOException {
+        this.latencyMillis = builder.latencyMillis;
+        this.errorRate = builder.errorRate;
+        this.slowRate = builder.slowRate;
+        this.slowLatencyMillis = builder.slowLatencyMillis;
+        this.record = new Body(Payloads.record(builder.payloadFields));
+        this.query = new Body(Payloads.query(builder.payloadFields, builder.queryRecords));
+        this.queryPages = builder.queryPages;
+        this.queryNext = new Body(Payloads.query(builder.payloadFields, builder.queryRecords)
+                .replace("\"done\":true", "\"done\":false,\"nextRecordsUrl\":\"" + NEXT_RECORDS_PATH + "%d\""));
+        this.queryLast = new Body(Payloads.query(builder.payloadFields, builder.queryRecords)
+                .replace(FIRST_CREATED_DATE, LAST_CREATED_DATE));
+        this.describe = new Body(Payloads.describe(builder.payloadFields));
+        this.updated = new Body(Payloads.updated(builder.queryRecords));
+        this.deleted = new Body(Payloads.deleted(builder.queryRecords));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), builder.backlog);
+        executor = Executors.newFixedThreadPool(builder.serverThreads);
+        server.setExecutor(executor);
+        server.createContext(TOKEN_PATH, this::token);
+        server.createContext(API_PATH, this::api);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String baseURL() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public String authorizationURL() {
+        return baseURL() + TOKEN_PATH;
+    }
+
+    public long apiCalls() {
+        return apiCalls.get();
+    }
+
+    public SalesforceConfiguration configuration(String id) {
+        SalesforceConfiguration configuration = new SalesforceConfiguration();
+        configuration.setId(id);
+        configuration.setClientId("benchmarkClientId");
+        configuration.setClientSecret("benchmarkClientSecret");
+        configuration.setUsername("benchmark@reedelk.com");
+        configuration.setPassword("benchmark");
+        configuration.setAuthorizationURL(authorizationURL());
+        configuration.setBaseURL(baseURL());
+        return configuration;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        respond(exchange, 200, String.format(TOKEN_RESPONSE, baseURL()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void api(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        long calls = apiCalls.incrementAndGet();
+        exchange.getResponseHeaders().add("Sforce-Limit-Info", "api-usage=" + (calls % API_LIMIT) + "/" + API_LIMIT);
+
+        long delayMillis = slowRate > 0 && ThreadLocalRandom.current().nextDouble() < slowRate ?
+                slowLatencyMillis : latencyMillis;
+        if (delayMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            respond(exchange, 503, ERROR_RESPONSE.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith(NEXT_RECORDS_PATH)) {
+            int page = Integer.parseInt(path.substring(NEXT_RECORDS_PATH.length()));
+            respondPage(exchange, page);
+        } else if (path.startsWith(API_PATH + "query")) {
+            String soql = exchange.getRequestURI().getQuery();
+            if (soql != null && soql.replace('+', ' ').contains(LAST_CREATED_DATE_QUERY)) {
+                respond(exchange, queryLast);
+            } else {
+                respondPage(exchange, 1);
+            }
+        } else if (path.endsWith("/describe/")) {
+            respond(exchange, describe);
+        } else if (path.endsWith("/updated/")) {
+            respond(exchange, updated);
+        } else if (path.endsWith("/deleted/")) {
+            respond(exchange, deleted);
+        } else if ("POST".equals(method)) {
+            respond(exchange, 201, CREATE_RESPONSE.getBytes(StandardCharsets.UTF_8));
+        } else if ("PATCH".equals(method) || "DELETE".equals(method)) {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else {
+            respond(exchange, record);
+        }
+    }
+
+    // Pages before the last one link to the next one, like the query locators of Salesforce.
+    private void respondPage(HttpExchange exchange, int page) throws IOException {
+        if (page >= queryPages) {
+            respond(exchange, query);
+        } else {
+            String json = new String(queryNext.plain, StandardCharsets.UTF_8);
+            respond(exchange, new Body(json.replace("%d", String.valueOf(page + 1))));
+        }
+    }
+
+    // Gzip request bodies are decompressed, so that malformed ones fail the request.
+    private static void drain(HttpExchange exchange) throws IOException {
+        boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream requestBody = gzip ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            while (requestBody.read(buffer) != -1) {
+                // Discard the request body.
+            }
+        }
+    }
+
+    // Sends the gzip compressed body when the client accepts it.
+    private static void respond(HttpExchange exchange, Body body) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            respond(exchange, 200, body.gzip);
+        } else {
+            respond(exchange, 200, body.plain);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    public static class Builder {
+
+        private long latencyMillis = 0;
+        private double errorRate = 0;
+        private double slowRate = 0;
+        private long slowLatencyMillis = 1000;
+        private int payloadFields = 20;
+        private int queryRecords = 50;
+        private int queryPages = 1;
+        private int serverThreads = 64;
+        private int backlog = 1024;
+
+        public Builder latencyMillis(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder slowRate(double slowRate) {
+            this.slowRate = slowRate;
+            return this;
+        }
+
+        public Builder slowLatencyMillis(long slowLatencyMillis) {
+            this.slowLatencyMillis = slowLatencyMillis;
+            return this;
+        }
+
+        public Builder payloadFields(int payloadFields) {
+            this.payloadFields = payloadFields;
+            return this;
+        }
+
+        public Builder queryRecords(int queryRecords) {
+            this.queryRecords = queryRecords;
+            return this;
+        }
+
+        public Builder queryPages(int queryPages) {
+            this.queryPages = queryPages;
+            return this;
+        }
+
+        public Builder serverThreads(int serverThreads) {
+            this.serverThreads = serverThreads;
+            return this;
+        }
+
+        public SalesforceStubServer build() throws IOException {
+            return new SalesforceStubServer(this);
+        }
+    }
+
+    static class Body {
+
+        final byte[] plain;
+        final byte[] gzip;
+
+        Body(String json) throws IOException {
+            this.plain = json.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+                gzipStream.write(plain);
+            }
+            this.gzip = compressed.toByteArray();
+        }
+    }
+
+    static class Payloads {
+
+        static Map<String, Object> writePayload(int fields) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("Name", "Load test");
+            for (int i = 0; i < fields; i++) {
+                payload.put("Field_" + i + "__c", "Value of field " + i);
+            }
+            return payload;
+        }
+
+        static String record(int fields) {
+            StringBuilder json = new StringBuilder("{\"attributes\":{\"type\":\"Account\"," +
+                    "\"url\":\"/services/data/v49.0/sobjects/Account/001D000000INjVeIAL\"}," +
+                    "\"Id\":\"001D000000INjVeIAL\",\"SystemModstamp\":\"2020-10-06T11:23:49.000+0000\"," +
+                    "\"CreatedDate\":\"" + FIRST_CREATED_DATE + "\"");
+            for (int i = 0; i < fields; i++) {
+                json.append(",\"Field_").append(i).append("__c\":\"Value of field ").append(i).append('"');
+            }
+            return json.append('}').toString();
+        }
+
+        static String query(int fields, int records) {
+            StringBuilder json = new StringBuilder("{\"totalSize\":").append(records)
+                    .append(",\"done\":true,\"records\":[");
+            for (int i = 0; i < records; i++) {
+                if (i > 0) json.append(',');
+                json.append(record(fields));
+            }
+            return json.append("]}").toString();
+        }
+
+        static String updated(int records) {
+            StringBuilder json = new StringBuilder("{\"ids\":[");
+            for (int i = 0; i < records; i++) {
+                if (i > 0) json.append(',');
+                json.append("\"001D").append(String.format("%014d", i)).append('"');
+            }
+            return json.append("],\"latestDateCovered\":\"2020-10-06T11:00:00.000+0000\"}").toString();
+        }
+
+        static String deleted(int records) {
+            StringBuilder json = new StringBuilder("{\"deletedRecords\":[");
+            for (int i = 0; i < records; i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"id\":\"001D").append(String.format("%014d", i))
+                        .append("\",\"deletedDate\":\"2020-10-06T10:12:31.000+0000\"}");
+            }
+            return json.append("],\"earliestDateAvailable\":\"2020-09-21T00:00:00.000+0000\"," +
+                    "\"latestDateCovered\":\"2020-10-06T11:00:00.000+0000\"}").toString();
+        }
+
+        static String describe(int fields) {
+            StringBuilder json = new StringBuilder("{\"name\":\"Account\",\"label\":\"Account\"," +
+                    "\"createable\":true,\"updateable\":true,\"fields\":[");
+            for (int i = 0; i < fields; i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"name\":\"Field_").append(i).append("__c\",\"label\":\"Field ").append(i)
+                        .append("\",\"type\":\"string\",\"length\":255,\"nillable\":true}");
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
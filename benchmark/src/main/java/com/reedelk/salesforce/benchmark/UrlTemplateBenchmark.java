@@ -0,0 +1,65 @@
+package com.reedelk.salesforce.benchmark;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
+import com.reedelk.salesforce.internal.http.HttpRecordGet;
+import com.reedelk.salesforce.internal.http.HttpRecordGetWithFields;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlTemplateBenchmark {
+
+    // The templates the request paths were built from with String.format, kept as a baseline.
+    private static final String FORMAT_OBJECT_GET = "/services/data/v%s/sobjects/%s/%s";
+    private static final String FORMAT_OBJECT_GET_WITH_FIELDS = FORMAT_OBJECT_GET + "?fields=%s";
+
+    private static final String API_VERSION = "49.0";
+    private static final String OBJECT_NAME = "Account";
+    private static final String OBJECT_ID = "001D000000INjVeIAL";
+    private static final List<String> FIELDS = Arrays.asList("Id", "Name", "Industry", "AnnualRevenue", "BillingCity", "OwnerId");
+
+    private HttpApiPath apiPath;
+    private String objectPath;
+    private String fieldsQuery;
+
+    @Setup
+    public void setup() {
+        apiPath = HttpApiPath.of(new SalesforceConfiguration());
+        objectPath = apiPath.object(OBJECT_NAME);
+        fieldsQuery = HttpApiPath.fields(FIELDS);
+    }
+
+    @Benchmark
+    public String formatObjectGet() {
+        return String.format(FORMAT_OBJECT_GET, API_VERSION, OBJECT_NAME, OBJECT_ID);
+    }
+
+    @Benchmark
+    public String formatObjectGetWithFields() {
+        return String.format(FORMAT_OBJECT_GET_WITH_FIELDS, API_VERSION, OBJECT_NAME, OBJECT_ID, String.join(",", FIELDS));
+    }
+
+    @Benchmark
+    public String query() {
+        return apiPath.query("SELECT+Id%2C+Name+FROM+Account");
+    }
+
+    @Benchmark
+    public HttpRecordGet newRecordGet() {
+        return new HttpRecordGet(objectPath, OBJECT_ID);
+    }
+
+    @Benchmark
+    public HttpRecordGetWithFields newRecordGetWithFields() {
+        return new HttpRecordGetWithFields(objectPath, OBJECT_ID, fieldsQuery);
+    }
+}
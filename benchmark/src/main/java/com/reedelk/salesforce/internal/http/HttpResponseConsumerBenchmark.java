@@ -0,0 +1,110 @@
+package com.reedelk.salesforce.internal.http;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.protocol.BasicHttpContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// In the transport package: the response consumer and its content buffer are package private.
+// The whole body is available at once to the consumer, as if already in the connection buffers:
+// this measures buffering, inflating and decoding the body, not the network.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpResponseConsumerBenchmark {
+
+    // Body size in bytes before compression: a small record, a SOQL page and a large describe result.
+    @Param({"1024", "262144", "4194304"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] json = json(size);
+        content = gzip ? gzip(json) : json;
+    }
+
+    @Benchmark
+    public String read() throws Exception {
+        HttpResponseConsumer consumer = new HttpResponseConsumer();
+        consumer.responseReceived(response());
+        consumer.consumeContent(new Decoder(ByteBuffer.wrap(content)), null);
+        consumer.responseCompleted(new BasicHttpContext());
+        // The body is decoded once, as by the request executor.
+        return consumer.getResult().getBody();
+    }
+
+    private HttpResponse response() {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContentLength(content.length);
+        entity.setContentType("application/json;charset=UTF-8");
+        response.setEntity(entity);
+        if (gzip) response.setHeader(HttpHeaders.HEADER_CONTENT_ENCODING, "gzip");
+        return response;
+    }
+
+    // Records of a query page until 'size' bytes, so that the compression ratio is the one of real JSON.
+    private static byte[] json(int size) {
+        StringBuilder json = new StringBuilder(size + 256);
+        json.append("{\"totalSize\":0,\"done\":true,\"records\":[");
+        for (int i = 0; json.length() < size - 2; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"attributes\":{\"type\":\"Account\",\"url\":\"/services/data/v49.0/sobjects/Account/001D000000IqhSL")
+                    .append(i).append("\"},\"Id\":\"001D000000IqhSL").append(i)
+                    .append("\",\"Name\":\"Account ").append(i).append("\",\"Industry\":\"Energy\"}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static class Decoder implements ContentDecoder {
+
+        private final ByteBuffer source;
+
+        Decoder(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) {
+            if (!source.hasRemaining()) return -1;
+            int read = Math.min(source.remaining(), destination.remaining());
+            ByteBuffer slice = source.duplicate();
+            slice.limit(slice.position() + read);
+            destination.put(slice);
+            source.position(source.position() + read);
+            return read;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return !source.hasRemaining();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.benchmark.SalesforceStubServer;
+import com.reedelk.salesforce.component.RecordGet;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Lookup cost of the synchronized client and token providers once the client and the token
+// exist, i.e. the cost paid on every request. Lives in the providers package because
+// HttpAccessTokenProvider is package private.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderContentionBenchmark {
+
+    private SalesforceStubServer server;
+    private SalesforceConfiguration configuration;
+    private RecordGet user;
+
+    @Setup
+    public void setup() throws Exception {
+        server = SalesforceStubServer.builder().build();
+        configuration = server.configuration("benchmark-provider-contention");
+        user = new RecordGet();
+        HttpClientProvider.provide(configuration, user);
+        HttpAccessTokenProvider.provide(configuration, user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        HttpClientProvider.release(configuration, user);
+        server.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public HttpTransport clientProviderSingleThread() {
+        return HttpClientProvider.provide(configuration, user);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public HttpTransport clientProvider8Threads() {
+        return HttpClientProvider.provide(configuration, user);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public HttpAccessToken tokenProviderSingleThread() {
+        return HttpAccessTokenProvider.provide(configuration, user);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public HttpAccessToken tokenProvider8Threads() {
+        return HttpAccessTokenProvider.provide(configuration, user);
+    }
+}
@@ -0,0 +1,239 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.*;
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.flow.FlowContext;
+import com.reedelk.runtime.api.message.Message;
+import com.reedelk.runtime.api.message.MessageBuilder;
+import com.reedelk.salesforce.internal.attribute.DeltaSyncAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.SOQLDateTime;
+import com.reedelk.salesforce.internal.exception.DeltaSyncException;
+import com.reedelk.salesforce.internal.http.*;
+import com.reedelk.salesforce.internal.sync.DeltaSyncQuery;
+import com.reedelk.salesforce.internal.sync.Watermarks;
+import com.reedelk.salesforce.spi.Watermark;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.osgi.service.component.annotations.Component;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotBlank;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotNull;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireTrue;
+import static com.reedelk.salesforce.internal.commons.Messages.DeltaSync.START_INVALID;
+import static com.reedelk.salesforce.internal.commons.Messages.DeltaSync.WATERMARK_LOAD_ERROR;
+import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
+
+@ModuleComponent("Salesforce Delta Sync")
+@ComponentOutput(
+        attributes = DeltaSyncAttributes.class,
+        payload = String.class,
+        description = "A JSON object containing the records modified since the last committed watermark.")
+@ComponentInput(
+        payload = Object.class,
+        description = "The component input is not used by this component.")
+@Description("The Salesforce Delta Sync Component returns the records of an object modified since the last sync, " +
+        "in SystemModstamp and Id order, following the query pagination until the whole window has been read. " +
+        "The watermark reached is committed by a Salesforce Delta Sync Commit component placed after the processing " +
+        "of the records: if the flow fails before it, the next sync returns the same records again. " +
+        "If the 'hasMore' attribute is true, more modified records are waiting for the next sync.")
+@Component(service = DeltaSync.class, scope = PROTOTYPE)
+public class DeltaSync implements ProcessorSync {
+
+    @Property("Configuration")
+    @Description("Salesforce authentication configuration.")
+    private SalesforceConfiguration configuration;
+
+    @Property("Object Name")
+    @InitValue("Account")
+    @Example("Contact")
+    @Description("The name of the Salesforce object to sync.")
+    private String objectName;
+
+    @Property("Sync Name")
+    @Hint("accounts")
+    @Example("customer-contacts")
+    @Description("The name identifying the watermark of this sync among the syncs of the configuration. " +
+            "Each sync of different records (object, fields or condition) needs its own name. " +
+            "It must be the same of the Salesforce Delta Sync Commit component.")
+    private String syncName;
+
+    @Property("Fields")
+    @TabGroup("Fields")
+    @Description("The fields to be returned for each modified record. Id and SystemModstamp are always returned.")
+    private List<String> fields;
+
+    @Property("Condition")
+    @Hint("IsDeleted = false")
+    @Example("Type = 'Customer'")
+    @Description("An optional SOQL condition the modified records must also match.")
+    private String condition;
+
+    @Property("Max Records")
+    @Hint("2000")
+    @Example("10000")
+    @DefaultValue("2000")
+    @Description("The maximum number of records returned by one sync. The next sync continues from the last one returned.")
+    private Integer maxRecords;
+
+    @Property("Start From")
+    @Hint("2020-01-01T00:00:00Z")
+    @Example("2020-01-01T00:00:00Z")
+    @DefaultValue("1970-01-01T00:00:00.000Z")
+    @Description("The ISO-8601 modification date time the first sync starts from, when no watermark has been committed yet.")
+    private String start;
+
+    @Property("Watermark Directory")
+    @Hint("/var/reedelk/watermarks")
+    @Example("/var/reedelk/watermarks")
+    @DefaultValue("salesforce-watermarks")
+    @Description("The directory where the watermarks are saved, one file per configuration and sync name. " +
+            "Relative paths are resolved against the runtime working directory.")
+    private String watermarkDirectory;
+
+    @Property("Timeout (ms)")
+    @Hint("60000")
+    @Example("60000")
+    @Description("The maximum time in milliseconds the sync can take across all the query pages, retries included. " +
+            "If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("INTERACTIVE")
+    @DefaultValue("BULK")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
+
+    @Override
+    public void initialize() {
+        requireNotNull(DeltaSync.class, configuration, "Salesforce configuration must be provided.");
+        configuration.validate(DeltaSync.class);
+        requireNotBlank(DeltaSync.class, objectName, "Salesforce object name must be provided.");
+        requireNotBlank(DeltaSync.class, syncName, "Sync name must be provided.");
+        requireTrue(DeltaSync.class, maxRecords == null || maxRecords > 0, "Max records must be greater than 0.");
+        apiPath = HttpApiPath.of(configuration);
+        query = new DeltaSyncQuery(objectName, fields, condition,
+                maxRecords == null ? Default.DELTA_SYNC_MAX_RECORDS : maxRecords);
+        key = Watermarks.key(configuration, syncName);
+        directory = watermarkDirectory == null ? Default.WATERMARK_DIRECTORY : watermarkDirectory;
+        String startFrom = start == null ? Default.DELTA_SYNC_START : start;
+        try {
+            startWatermark = Watermarks.start(OffsetDateTime.parse(startFrom));
+        } catch (DateTimeParseException exception) {
+            throw new DeltaSyncException(START_INVALID.format(startFrom), exception);
+        }
+    }
+
+    @Override
+    public Message apply(FlowContext flowContext, Message message) {
+
+        Watermark watermark;
+        try {
+            watermark = Watermarks.load(directory, key);
+        } catch (IOException exception) {
+            throw new DeltaSyncException(WATERMARK_LOAD_ERROR.format(key, exception.getMessage()), exception);
+        }
+        if (watermark == null) watermark = startWatermark;
+
+        // Records modified in the last moments may not be visible yet: they are left to the next window.
+        String windowEnd = SOQLDateTime.literal(OffsetDateTime.now(ZoneOffset.UTC)
+                .minusSeconds(Default.DELTA_SYNC_WINDOW_LAG_SECONDS));
+        String soql = query.of(watermark, windowEnd);
+
+        Deadline deadline = Deadline.of(configuration, timeout);
+        // A sync is background traffic: bulk unless configured otherwise.
+        TrafficLane trafficLane = HttpLanes.of(lane, TrafficLane.BULK);
+
+        JSONArray records = new JSONArray();
+        HttpBaseRequest request = new HttpSOQLQuery(apiPath.query(HttpApiPath.encode(soql)));
+        HttpResult result;
+        while (true) {
+            result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                    deadline, trafficLane);
+            JSONObject page = new JSONObject(result.getBody());
+            JSONArray pageRecords = page.getJSONArray("records");
+            for (int i = 0; i < pageRecords.length(); i++) {
+                records.put(pageRecords.get(i));
+            }
+            if (page.optBoolean("done", true) || !page.has("nextRecordsUrl")) break;
+            request = new HttpSOQLQueryWithNextRecords(page.getString("nextRecordsUrl"));
+        }
+
+        boolean hasMore = records.length() == query.getMaxRecords();
+        if (records.length() > 0) {
+            JSONObject last = records.getJSONObject(records.length() - 1);
+            watermark = Watermarks.of(DeltaSyncQuery.systemModstampOf(last), DeltaSyncQuery.idOf(last));
+        }
+        flowContext.put(Watermarks.contextVariable(key), watermark.toString());
+
+        JSONObject payload = new JSONObject();
+        payload.put("totalSize", records.length());
+        payload.put("records", records);
+
+        return MessageBuilder.get(DeltaSync.class)
+                .withJson(payload.toString())
+                .attributes(new DeltaSyncAttributes(result, key, watermark, hasMore))
+                .build();
+    }
+
+    @Override
+    public void dispose() {
+        HttpClientProvider.release(configuration, this);
+    }
+
+    private final Function<String, DeltaSyncException> exceptionSupplier = DeltaSyncException::new;
+
+    private HttpApiPath apiPath;
+    private DeltaSyncQuery query;
+    private Watermark startWatermark;
+    private String key;
+    private String directory;
+
+    public void setConfiguration(SalesforceConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public void setSyncName(String syncName) {
+        this.syncName = syncName;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public void setMaxRecords(Integer maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public void setWatermarkDirectory(String watermarkDirectory) {
+        this.watermarkDirectory = watermarkDirectory;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+}
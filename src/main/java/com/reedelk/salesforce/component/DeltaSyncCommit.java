@@ -0,0 +1,98 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.*;
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.flow.FlowContext;
+import com.reedelk.runtime.api.message.Message;
+import com.reedelk.runtime.api.message.MessageAttributes;
+import com.reedelk.salesforce.internal.attribute.DeltaSyncAttributes;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.exception.DeltaSyncException;
+import com.reedelk.salesforce.internal.sync.Watermarks;
+import com.reedelk.salesforce.spi.Watermark;
+import org.osgi.service.component.annotations.Component;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotBlank;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotNull;
+import static com.reedelk.salesforce.internal.commons.Messages.DeltaSync.WATERMARK_SAVE_ERROR;
+import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
+
+@ModuleComponent("Salesforce Delta Sync Commit")
+@ComponentOutput(
+        attributes = ComponentOutput.PreviousComponent.class,
+        payload = ComponentOutput.PreviousComponent.class,
+        description = "The input message, unchanged.")
+@ComponentInput(
+        payload = Object.class,
+        description = "The component input is passed through unchanged.")
+@Description("The Salesforce Delta Sync Commit Component saves the watermark reached by the Salesforce Delta Sync " +
+        "of the same configuration and sync name earlier in the flow execution, so that the next sync starts after the " +
+        "records just processed. It must be placed after the processing of the records. The watermark is replaced atomically, " +
+        "and never by an earlier one.")
+@Component(service = DeltaSyncCommit.class, scope = PROTOTYPE)
+public class DeltaSyncCommit implements ProcessorSync {
+
+    @Property("Configuration")
+    @Description("Salesforce authentication configuration.")
+    private SalesforceConfiguration configuration;
+
+    @Property("Sync Name")
+    @Hint("accounts")
+    @Example("customer-contacts")
+    @Description("The name of the delta sync to commit, as set on the Salesforce Delta Sync component.")
+    private String syncName;
+
+    @Property("Watermark Directory")
+    @Hint("/var/reedelk/watermarks")
+    @Example("/var/reedelk/watermarks")
+    @DefaultValue("salesforce-watermarks")
+    @Description("The directory where the watermarks are saved. It must be the same of the Salesforce Delta Sync component.")
+    private String watermarkDirectory;
+
+    @Override
+    public void initialize() {
+        requireNotNull(DeltaSyncCommit.class, configuration, "Salesforce configuration must be provided.");
+        requireNotBlank(DeltaSyncCommit.class, syncName, "Sync name must be provided.");
+        key = Watermarks.key(configuration, syncName);
+        directory = watermarkDirectory == null ? Default.WATERMARK_DIRECTORY : watermarkDirectory;
+    }
+
+    @Override
+    public Message apply(FlowContext flowContext, Message message) {
+        Watermark watermark = watermarkOf(flowContext, message);
+        if (watermark == null) return message;
+        try {
+            Watermarks.save(directory, key, watermark);
+        } catch (IOException exception) {
+            throw new DeltaSyncException(WATERMARK_SAVE_ERROR.format(key, exception.getMessage()), exception);
+        }
+        return message;
+    }
+
+    // The watermark of this flow execution, never the one of a concurrent sync of the same object:
+    // from the flow context, or from the attributes of a Salesforce Delta Sync message.
+    private Watermark watermarkOf(FlowContext flowContext, Message message) {
+        Serializable watermark = flowContext.get(Watermarks.contextVariable(key));
+        if (watermark != null) return Watermark.parse(watermark.toString());
+        MessageAttributes attributes = message.attributes();
+        return attributes instanceof DeltaSyncAttributes ? ((DeltaSyncAttributes) attributes).watermarkOf(key) : null;
+    }
+
+    private String key;
+    private String directory;
+
+    public void setConfiguration(SalesforceConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public void setSyncName(String syncName) {
+        this.syncName = syncName;
+    }
+
+    public void setWatermarkDirectory(String watermarkDirectory) {
+        this.watermarkDirectory = watermarkDirectory;
+    }
+}
@@ -0,0 +1,12 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.DisplayName;
+
+public enum HttpClientType {
+
+    @DisplayName("Apache HttpAsyncClient 4")
+    HTTP_ASYNC_CLIENT_4,
+
+    @DisplayName("Apache HttpClient 5")
+    HTTP_CLIENT_5
+}
@@ -0,0 +1,12 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.DisplayName;
+
+public enum HttpProtocol {
+
+    @DisplayName("HTTP/1.1")
+    HTTP_1_1,
+
+    @DisplayName("HTTP/2")
+    HTTP_2
+}
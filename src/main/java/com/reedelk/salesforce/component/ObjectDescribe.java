@@ -4,16 +4,19 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.message.content.MimeType;
 import com.reedelk.runtime.api.script.ScriptEngineService;
 import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
 import com.reedelk.salesforce.internal.exception.ObjectDescribeException;
 import com.reedelk.salesforce.internal.exception.RecordUpdateException;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
 import com.reedelk.salesforce.internal.http.HttpAuthAwareRequestExecutor;
 import com.reedelk.salesforce.internal.http.HttpClientProvider;
 import com.reedelk.salesforce.internal.http.HttpDescribe;
+import com.reedelk.salesforce.internal.http.HttpResult;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -25,7 +28,7 @@ import static com.reedelk.salesforce.internal.commons.Messages.ObjectDescribe.OB
 import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce Object Describe")
-@ComponentOutput(attributes = MessageAttributes.class, payload = Object.class, description = "DescribeObject Output description")
+@ComponentOutput(attributes = SalesforceAttributes.class, payload = Object.class, description = "DescribeObject Output description")
 @ComponentInput(payload = Object.class, description = "DescribeObject Input description")
 @Description("The Salesforce Object Describe Component retrieves all the metadata for an object, " +
         "including information about each field, URLs, and child relationships.")
@@ -42,6 +45,18 @@ public class ObjectDescribe implements ProcessorSync {
     @Description("The name of the Salesforce object to describe.")
     private DynamicString objectName;
 
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take, retries included. If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
+
     @Reference
     ScriptEngineService scriptService;
 
@@ -50,6 +65,7 @@ public class ObjectDescribe implements ProcessorSync {
         requireNotNull(RecordCreate.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordCreate.class);
         requireNotNullOrBlank(RecordCreate.class, objectName, "Salesforce object name must be provided.");
+        apiPath = HttpApiPath.of(configuration);
     }
 
     @Override
@@ -58,12 +74,14 @@ public class ObjectDescribe implements ProcessorSync {
         String evaluatedObjectName = scriptService.evaluate(objectName, flowContext, message)
                 .orElseThrow(() -> new RecordUpdateException(OBJECT_NAME_EMPTY.format(objectName.value())));
 
-        HttpDescribe request = new HttpDescribe(configuration.getInstanceName(), evaluatedObjectName);
+        HttpDescribe request = new HttpDescribe(apiPath.describe(evaluatedObjectName));
 
-        String result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                Deadline.of(configuration, timeout), lane);
 
         return MessageBuilder.get(RecordCreate.class)
-                .withString(result, MimeType.APPLICATION_JSON)
+                .withString(result.getBody(), MimeType.APPLICATION_JSON)
+                .attributes(new SalesforceAttributes(result))
                 .build();
     }
 
@@ -74,10 +92,20 @@ public class ObjectDescribe implements ProcessorSync {
 
     private final Function<String, ObjectDescribeException> exceptionSupplier = ObjectDescribeException::new;
 
+    private HttpApiPath apiPath;
+
     public void setConfiguration(SalesforceConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public void setObjectName(DynamicString objectName) {
         this.objectName = objectName;
     }
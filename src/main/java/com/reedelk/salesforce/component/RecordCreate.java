@@ -4,14 +4,19 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.message.content.MimeType;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import com.reedelk.salesforce.internal.commons.JsonEntity;
 import com.reedelk.salesforce.internal.commons.Payload;
 import com.reedelk.salesforce.internal.exception.RecordCreateException;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
 import com.reedelk.salesforce.internal.http.HttpAuthAwareRequestExecutor;
 import com.reedelk.salesforce.internal.http.HttpClientProvider;
 import com.reedelk.salesforce.internal.http.HttpRecordCreate;
+import com.reedelk.salesforce.internal.http.HttpResult;
 import org.osgi.service.component.annotations.Component;
 
 import java.util.Map;
@@ -23,7 +28,7 @@ import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce Record Create")
 @ComponentOutput(
-        attributes = MessageAttributes.class,
+        attributes = SalesforceAttributes.class,
         payload = String.class,
         description = "The ID of the created record if the record was created successfully.")
 @ComponentInput(
@@ -44,6 +49,7 @@ public class RecordCreate implements ProcessorSync {
         requireNotNull(RecordCreate.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordCreate.class);
         requireNotBlank(RecordCreate.class, objectName, "Salesforce object name must be provided.");
+        objectPath = HttpApiPath.of(configuration).object(objectName);
     }
 
     @Override
@@ -51,14 +57,17 @@ public class RecordCreate implements ProcessorSync {
 
         Object payload = message.payload();
 
-        String json = Payload.toJson(RecordCreate.class, payload);
+        JsonEntity json = Payload.toJsonEntity(RecordCreate.class, payload);
+        HttpRequestBody entity = json.compressAbove(configuration.getRequestCompressionThreshold());
 
-        HttpRecordCreate request = new HttpRecordCreate(configuration.getInstanceName(), objectName, json);
+        HttpRecordCreate request = new HttpRecordCreate(objectPath, entity);
 
-        String result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                Deadline.of(configuration, timeout), lane);
 
         return MessageBuilder.get(RecordCreate.class)
-                .withString(result, MimeType.APPLICATION_JSON)
+                .withString(result.getBody(), MimeType.APPLICATION_JSON)
+                .attributes(new SalesforceAttributes(result))
                 .build();
     }
 
@@ -69,10 +78,20 @@ public class RecordCreate implements ProcessorSync {
 
     private final Function<String, RecordCreateException> exceptionSupplier = RecordCreateException::new;
 
+    private String objectPath;
+
     public void setConfiguration(SalesforceConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public void setObjectName(String objectName) {
         this.objectName = objectName;
     }
@@ -955,4 +974,16 @@ public class RecordCreate implements ProcessorSync {
             "WorkTypeGroupMember"})
     @Description("The name of the Salesforce object to be created.")
     private String objectName;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take, retries included. If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
 }
@@ -4,15 +4,18 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.script.ScriptEngineService;
 import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
 import com.reedelk.salesforce.internal.commons.Messages;
 import com.reedelk.salesforce.internal.exception.RecordDeleteException;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
 import com.reedelk.salesforce.internal.http.HttpAuthAwareRequestExecutor;
 import com.reedelk.salesforce.internal.http.HttpClientProvider;
 import com.reedelk.salesforce.internal.http.HttpRecordDelete;
+import com.reedelk.salesforce.internal.http.HttpResult;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -24,7 +27,7 @@ import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce Record Delete")
 @ComponentOutput(
-        attributes = MessageAttributes.class,
+        attributes = SalesforceAttributes.class,
         payload = ComponentOutput.PreviousComponent.class,
         description = "The Salesforce Record Delete Component output is the original input message. " +
                 "The payload is not changed by this component.")
@@ -49,6 +52,7 @@ public class RecordDelete implements ProcessorSync {
         requireNotNull(RecordDelete.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordDelete.class);
         requireNotBlank(RecordDelete.class, objectName, "Salesforce object name must be provided.");
+        objectPath = HttpApiPath.of(configuration).object(objectName);
     }
 
     @Override
@@ -57,12 +61,14 @@ public class RecordDelete implements ProcessorSync {
         String evaluatedObjectId = scriptService.evaluate(objectId, flowContext, message)
                 .orElseThrow(() -> new RecordDeleteException(Messages.RecordDelete.OBJECT_ID_EMPTY.format(objectId.value())));
 
-        HttpRecordDelete request = new HttpRecordDelete(configuration.getInstanceName(), objectName, evaluatedObjectId);
+        HttpRecordDelete request = new HttpRecordDelete(objectPath, evaluatedObjectId);
 
-        HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                Deadline.of(configuration, timeout), lane);
 
         return MessageBuilder.get(RecordDelete.class)
                 .withTypedContent(message.content())
+                .attributes(new SalesforceAttributes(result))
                 .build();
     }
 
@@ -73,6 +79,8 @@ public class RecordDelete implements ProcessorSync {
 
     private final Function<String, RecordDeleteException> exceptionSupplier = RecordDeleteException::new;
 
+    private String objectPath;
+
     public SalesforceConfiguration getConfiguration() {
         return configuration;
     }
@@ -81,6 +89,22 @@ public class RecordDelete implements ProcessorSync {
         this.configuration = configuration;
     }
 
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public TrafficLane getLane() {
+        return lane;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public String getObjectName() {
         return objectName;
     }
@@ -981,4 +1005,16 @@ public class RecordDelete implements ProcessorSync {
     @Example("001D000000INjVe")
     @Description("The id of the Salesforce object to be deleted.")
     private DynamicString objectId;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take, retries included. If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
 }
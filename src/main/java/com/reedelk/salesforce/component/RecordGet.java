@@ -4,10 +4,11 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.script.ScriptEngineService;
 import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
 import com.reedelk.salesforce.internal.commons.Messages;
 import com.reedelk.salesforce.internal.exception.RecordGetException;
 import com.reedelk.salesforce.internal.http.*;
@@ -23,7 +24,7 @@ import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce Record Get")
 @ComponentOutput(
-        attributes = MessageAttributes.class,
+        attributes = SalesforceAttributes.class,
         payload = String.class,
         description = "A JSON object containing the properties and values of the retrieved record with the given ID and Object Name.")
 @ComponentInput(
@@ -49,6 +50,8 @@ public class RecordGet implements ProcessorSync {
         requireNotNull(RecordGet.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordGet.class);
         requireNotBlank(RecordGet.class, objectName, "Salesforce object name must be provided.");
+        objectPath = HttpApiPath.of(configuration).object(objectName);
+        fieldsQuery = fields == null || fields.isEmpty() ? null : HttpApiPath.fields(fields);
     }
 
     @Override
@@ -58,17 +61,18 @@ public class RecordGet implements ProcessorSync {
                 .orElseThrow(() -> new RecordGetException(Messages.RecordGet.OBJECT_ID_EMPTY.format(objectId.value())));
 
         HttpBaseRequest request;
-        if (fields == null || fields.isEmpty()) {
-            request = new HttpRecordGet(configuration.getInstanceName(), objectName, evaluatedObjectId);
+        if (fieldsQuery == null) {
+            request = new HttpRecordGet(objectPath, evaluatedObjectId);
         } else {
-            String joinedFields = String.join(",", fields);
-            request = new HttpRecordGetWithFields(configuration.getInstanceName(), objectName, evaluatedObjectId, joinedFields);
+            request = new HttpRecordGetWithFields(objectPath, evaluatedObjectId, fieldsQuery);
         }
 
-        String result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                Deadline.of(configuration, timeout), lane);
 
         return MessageBuilder.get(RecordGet.class)
-                .withJson(result)
+                .withJson(result.getBody())
+                .attributes(new SalesforceAttributes(result))
                 .build();
     }
 
@@ -79,10 +83,21 @@ public class RecordGet implements ProcessorSync {
 
     private final Function<String, RecordGetException> exceptionSupplier = RecordGetException::new;
 
+    private String objectPath;
+    private String fieldsQuery;
+
     public void setConfiguration(SalesforceConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public void setObjectName(String objectName) {
         this.objectName = objectName;
     }
@@ -985,4 +1000,16 @@ public class RecordGet implements ProcessorSync {
     @Description("The fields to be returned from the Object with the given name and ID. " +
             "If empty all the fields will be returned.")
     private List<String> fields;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take, retries included. If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
 }
@@ -4,16 +4,21 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.script.ScriptEngineService;
 import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import com.reedelk.salesforce.internal.commons.JsonEntity;
 import com.reedelk.salesforce.internal.commons.Messages;
 import com.reedelk.salesforce.internal.commons.Payload;
 import com.reedelk.salesforce.internal.exception.RecordUpdateException;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
 import com.reedelk.salesforce.internal.http.HttpAuthAwareRequestExecutor;
 import com.reedelk.salesforce.internal.http.HttpClientProvider;
 import com.reedelk.salesforce.internal.http.HttpRecordUpdate;
+import com.reedelk.salesforce.internal.http.HttpResult;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -26,7 +31,7 @@ import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce Record Update")
 @ComponentOutput(
-        attributes = MessageAttributes.class,
+        attributes = SalesforceAttributes.class,
         payload = ComponentOutput.PreviousComponent.class,
         description = "The Salesforce Record Update Component output is the original input message. " +
                 "The payload is not changed by this component.")
@@ -51,6 +56,7 @@ public class RecordUpdate implements ProcessorSync {
         requireNotNull(RecordUpdate.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordUpdate.class);
         requireNotBlank(RecordUpdate.class, objectName, "Salesforce object name must be provided.");
+        objectPath = HttpApiPath.of(configuration).object(objectName);
     }
 
     @Override
@@ -58,17 +64,20 @@ public class RecordUpdate implements ProcessorSync {
 
         Object payload = message.payload();
 
-        String json = Payload.toJson(RecordUpdate.class, payload);
+        JsonEntity json = Payload.toJsonEntity(RecordUpdate.class, payload);
+        HttpRequestBody entity = json.compressAbove(configuration.getRequestCompressionThreshold());
 
         String evaluatedObjectId = scriptService.evaluate(objectId, flowContext, message)
                 .orElseThrow(() -> new RecordUpdateException(Messages.RecordUpdate.OBJECT_ID_EMPTY.format(objectId.value())));
 
-        HttpRecordUpdate request = new HttpRecordUpdate(configuration.getInstanceName(), objectName, evaluatedObjectId, json);
+        HttpRecordUpdate request = new HttpRecordUpdate(objectPath, evaluatedObjectId, entity);
 
-        HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                Deadline.of(configuration, timeout), lane);
 
         return MessageBuilder.get(RecordUpdate.class)
                 .withTypedContent(message.content())
+                .attributes(new SalesforceAttributes(result))
                 .build();
     }
 
@@ -79,10 +88,20 @@ public class RecordUpdate implements ProcessorSync {
 
     private final Function<String, RecordUpdateException> exceptionSupplier = RecordUpdateException::new;
 
+    private String objectPath;
+
     public void setConfiguration(SalesforceConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public void setObjectName(String objectName) {
         this.objectName = objectName;
     }
@@ -975,4 +994,16 @@ public class RecordUpdate implements ProcessorSync {
     @Example("001D000000INjVe")
     @Description("The id of the Salesforce object to be updated.")
     private DynamicString objectId;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take, retries included. If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
 }
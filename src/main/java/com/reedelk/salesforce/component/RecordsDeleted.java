@@ -0,0 +1,156 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.*;
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.flow.FlowContext;
+import com.reedelk.runtime.api.message.Message;
+import com.reedelk.runtime.api.message.MessageBuilder;
+import com.reedelk.runtime.api.script.ScriptEngineService;
+import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.exception.RecordsDeletedException;
+import com.reedelk.salesforce.internal.http.*;
+import com.reedelk.salesforce.internal.sync.ChangeWindowRequests;
+import org.json.JSONObject;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotNull;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotNullOrBlank;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireTrue;
+import static com.reedelk.salesforce.internal.commons.Messages.ChangeWindow.*;
+import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
+
+@ModuleComponent("Salesforce Get Deleted")
+@ComponentOutput(
+        attributes = SalesforceAttributes.class,
+        payload = String.class,
+        description = "A JSON object containing the IDs and deletion dates of the deleted records, with the earliest date available and the latest date covered.")
+@ComponentInput(
+        payload = Object.class,
+        description = "The component input is used to evaluate the dynamic values provided for the object name and the window.")
+@Description("The Salesforce Get Deleted Component returns the IDs of the records of an object deleted " +
+        "between the given start and end date times. Long windows are split in chunks, one call each, " +
+        "and the records of all the chunks are merged. Salesforce only keeps the deleted records of the last 15 days.")
+@Component(service = RecordsDeleted.class, scope = PROTOTYPE)
+public class RecordsDeleted implements ProcessorSync {
+
+    @Property("Configuration")
+    @Description("Salesforce authentication configuration.")
+    private SalesforceConfiguration configuration;
+
+    @Property("Object Name")
+    @Hint("Account")
+    @Example("Contact")
+    @Description("The name of the Salesforce object.")
+    private DynamicString objectName;
+
+    @Property("Start")
+    @Hint("2020-10-01T00:00:00Z")
+    @Example("#[message.payload().lastSync]")
+    @Description("The ISO-8601 start date time of the window.")
+    private DynamicString start;
+
+    @Property("End")
+    @Hint("2020-10-02T00:00:00Z")
+    @Example("2020-10-02T00:00:00Z")
+    @Description("The ISO-8601 end date time of the window. If empty, the window ends now.")
+    private DynamicString end;
+
+    @Property("Window Chunk (hours)")
+    @Hint("24")
+    @Example("6")
+    @DefaultValue("24")
+    @Description("The maximum length in hours of the window of a single call. " +
+            "Longer windows are split in consecutive chunks.")
+    private Integer chunkHours;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call can take across all the chunks, retries included. " +
+            "If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
+
+    @Reference
+    ScriptEngineService scriptService;
+
+    @Override
+    public void initialize() {
+        requireNotNull(RecordsDeleted.class, configuration, "Salesforce configuration must be provided.");
+        configuration.validate(RecordsDeleted.class);
+        requireNotNullOrBlank(RecordsDeleted.class, objectName, "Salesforce object name must be provided.");
+        requireNotNullOrBlank(RecordsDeleted.class, start, "Start date time must be provided.");
+        requireTrue(RecordsDeleted.class, chunkHours == null || chunkHours > 0, "Window chunk must be greater than 0.");
+        apiPath = HttpApiPath.of(configuration);
+        Duration chunk = Duration.ofHours(chunkHours == null ? Default.CHANGE_WINDOW_CHUNK_HOURS : chunkHours);
+        requests = new ChangeWindowRequests(configuration, this, exceptionSupplier, chunk, timeout, lane);
+    }
+
+    @Override
+    public Message apply(FlowContext flowContext, Message message) {
+
+        String evaluatedObjectName = scriptService.evaluate(objectName, flowContext, message)
+                .orElseThrow(() -> new RecordsDeletedException(OBJECT_NAME_EMPTY.format(objectName.value())));
+        String evaluatedStart = scriptService.evaluate(start, flowContext, message)
+                .orElseThrow(() -> new RecordsDeletedException(START_EMPTY.format(start.value())));
+        String evaluatedEnd = scriptService.evaluate(end, flowContext, message).orElse(null);
+
+        ChangeWindowRequests.Merged merged = requests.execute(evaluatedStart, evaluatedEnd,
+                window -> new HttpRecordsDeleted(apiPath.deleted(evaluatedObjectName, window.query())),
+                "deletedRecords", record -> ((JSONObject) record).getString("id"));
+
+        return MessageBuilder.get(RecordsDeleted.class)
+                .withJson(merged.getPayload().toString())
+                .attributes(new SalesforceAttributes(merged.getResult()))
+                .build();
+    }
+
+    @Override
+    public void dispose() {
+        HttpClientProvider.release(configuration, this);
+    }
+
+    private final Function<String, RecordsDeletedException> exceptionSupplier = RecordsDeletedException::new;
+
+    private HttpApiPath apiPath;
+    private ChangeWindowRequests requests;
+
+    public void setConfiguration(SalesforceConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public void setObjectName(DynamicString objectName) {
+        this.objectName = objectName;
+    }
+
+    public void setStart(DynamicString start) {
+        this.start = start;
+    }
+
+    public void setEnd(DynamicString end) {
+        this.end = end;
+    }
+
+    public void setChunkHours(Integer chunkHours) {
+        this.chunkHours = chunkHours;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+}
@@ -4,27 +4,33 @@ import com.reedelk.runtime.api.annotation.*;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.flow.FlowContext;
 import com.reedelk.runtime.api.message.Message;
-import com.reedelk.runtime.api.message.MessageAttributes;
 import com.reedelk.runtime.api.message.MessageBuilder;
 import com.reedelk.runtime.api.script.ScriptEngineService;
 import com.reedelk.runtime.api.script.dynamicvalue.DynamicString;
+import com.reedelk.salesforce.internal.attribute.SalesforceAttributes;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.SOQLStatement;
 import com.reedelk.salesforce.internal.exception.SOQLQueryException;
 import com.reedelk.salesforce.internal.http.*;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
-import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotNull;
+import static com.reedelk.salesforce.internal.commons.Messages.SOQLQuery.PARTITION_UNSUPPORTED;
 import static com.reedelk.salesforce.internal.commons.Messages.SOQLQuery.SOQL_QUERY_EMPTY;
 import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @ModuleComponent("Salesforce SOQL Query")
 @ComponentOutput(
-        attributes = MessageAttributes.class,
-        payload = String.class,
-        description = "A JSON response containing the results of the SOQL Query.")
+        attributes = SalesforceAttributes.class,
+        payload = { String.class, Map.class },
+        description = "A JSON response containing the results of the SOQL Query, " +
+                "or a stream of records when 'Stream Records' is enabled.")
 @ComponentInput(
         payload = Object.class,
         description = "The component input is used to evaluate the dynamic " +
@@ -32,7 +38,9 @@ import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 @Description("The SOQL Query Component allows to use the Salesforce Object Query Language (SOQL) " +
         "to search your organization’s Salesforce data for specific information. " +
         "If the initial query returns only part of the results, the end of the response will contain a field called 'nextRecordsUrl'. " +
-        "The 'nextRecordsUrl' can be used to retrieve the next batch of results and it can be repeated until all records have been retrieved.")
+        "The 'nextRecordsUrl' can be used to retrieve the next batch of results and it can be repeated until all records have been retrieved. " +
+        "With more than one partition, all the records are extracted by concurrent queries over disjoint CreatedDate ranges. " +
+        "With 'Stream Records' enabled, all the records are streamed one at a time while the responses are read.")
 @Component(service = SOQLQuery.class, scope = PROTOTYPE)
 public class SOQLQuery implements ProcessorSync {
 
@@ -52,6 +60,46 @@ public class SOQLQuery implements ProcessorSync {
     @Description("The next records URL returned by the first invocation of this component.")
     private DynamicString nextRecordsURL;
 
+    @Property("Stream Records")
+    @Example("true")
+    @DefaultValue("false")
+    @Description("If true, the output is a stream of records, one map per record without the 'attributes' envelope, " +
+            "following all the next records URLs. Each record is emitted as soon as it has been read from the response, " +
+            "and the response reading is paused while the records are not being consumed, so that only a few records " +
+            "are held in memory at a time. A paused response keeps its connection: if no record is consumed " +
+            "for 5 minutes, the stream fails.")
+    private Boolean streamRecords;
+
+    @Property("Record Fields")
+    @TabGroup("Record Fields")
+    @When(propertyName = "streamRecords", propertyValue = "true")
+    @Description("The fields of the streamed records. If empty, all the fields selected by the query are kept.")
+    private List<String> recordFields;
+
+    @Property("Partitions")
+    @Hint("4")
+    @Example("8")
+    @DefaultValue("1")
+    @Description("If greater than 1, the query is split in the given number of partitions by CreatedDate, " +
+            "computed from the first and last CreatedDate of the matching records. The partitions are extracted " +
+            "concurrently, following all the next records URLs. Their records are streamed as they arrive " +
+            "with 'Stream Records' enabled, otherwise merged in a single response in CreatedDate order. " +
+            "The partitions are bounded by the connections and the concurrent requests of the traffic lane.")
+    private Integer partitions;
+
+    @Property("Timeout (ms)")
+    @Hint("10000")
+    @Example("10000")
+    @Description("The maximum time in milliseconds the call, or each page of streamed records, can take, retries included. " +
+            "If empty, no timeout applies.")
+    private Integer timeout;
+
+    @Property("Traffic Lane")
+    @Example("BULK")
+    @DefaultValue("INTERACTIVE")
+    @Description("The traffic lane of the requests: interactive or bulk.")
+    private TrafficLane lane;
+
     @Reference
     ScriptEngineService scriptService;
 
@@ -59,6 +107,7 @@ public class SOQLQuery implements ProcessorSync {
     public void initialize() {
         requireNotNull(RecordCreate.class, configuration, "Salesforce configuration must be provided.");
         configuration.validate(RecordCreate.class);
+        apiPath = HttpApiPath.of(configuration);
     }
 
     @Override
@@ -67,34 +116,92 @@ public class SOQLQuery implements ProcessorSync {
         String evaluatedNextRecordsURL = scriptService
                 .evaluate(nextRecordsURL, flowContext, message).orElse(null);
 
-        HttpBaseRequest request;
+        HttpResult result;
         if (evaluatedNextRecordsURL == null) {
             String evaluatedQuery = scriptService.evaluate(query, flowContext, message)
                     .orElseThrow(() -> new SOQLQueryException(SOQL_QUERY_EMPTY.format(query.value())));
-            String encodedQuery = URLEncoder.encode(evaluatedQuery);
-            request = new HttpSOQLQuery(configuration.getInstanceName(), encodedQuery);
+            if (partitions != null && partitions > 1) {
+                SOQLStatement statement = SOQLStatement.parse(evaluatedQuery);
+                if (statement == null) {
+                    throw new SOQLQueryException(PARTITION_UNSUPPORTED.format(evaluatedQuery));
+                }
+                HttpPartitionedQuery partitionedQuery = new HttpPartitionedQuery(statement, apiPath, configuration,
+                        this, exceptionSupplier, Deadline.of(configuration, timeout), lane);
+                if (isStreamRecords()) {
+                    return stream(partitionedQuery.queryPaths(partitions));
+                }
+                result = partitionedQuery.execute(partitions);
+            } else if (isStreamRecords()) {
+                return stream(Collections.singletonList(apiPath.query(HttpApiPath.encode(evaluatedQuery))));
+            } else {
+                String encodedQuery = HttpApiPath.encode(evaluatedQuery);
+                HttpBaseRequest request = new HttpSOQLQuery(apiPath.query(encodedQuery));
+                result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                        Deadline.of(configuration, timeout), lane);
+            }
+        } else if (isStreamRecords()) {
+            return stream(Collections.singletonList(evaluatedNextRecordsURL));
         } else {
-            request = new HttpSOQLQueryWithNextRecords(configuration.getInstanceName(), evaluatedNextRecordsURL);
+            HttpBaseRequest request = new HttpSOQLQueryWithNextRecords(evaluatedNextRecordsURL);
+            result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier,
+                    Deadline.of(configuration, timeout), lane);
         }
 
-        String result = HttpAuthAwareRequestExecutor.execute(request, configuration, this, exceptionSupplier);
+        return MessageBuilder.get(SOQLQuery.class)
+                .withJson(result.getBody())
+                .attributes(new SalesforceAttributes(result))
+                .build();
+    }
 
+    private Message stream(List<String> queryPaths) {
+        HttpRecordPublisher records = new HttpRecordPublisher(() -> new HttpRecordStream(queryPaths, recordFields,
+                configuration, this, exceptionSupplier, timeout, lane));
         return MessageBuilder.get(SOQLQuery.class)
-                .withJson(result)
+                .withStream(records, RECORD_TYPE)
+                .attributes(new SalesforceAttributes())
                 .build();
     }
 
+    private boolean isStreamRecords() {
+        return Boolean.TRUE.equals(streamRecords);
+    }
+
     @Override
     public void dispose() {
         HttpClientProvider.release(configuration, this);
     }
 
+    @SuppressWarnings("unchecked")
+    private static final Class<Map<String, Object>> RECORD_TYPE = (Class<Map<String, Object>>) (Class<?>) Map.class;
+
     private final Function<String, SOQLQueryException> exceptionSupplier = SOQLQueryException::new;
 
+    private HttpApiPath apiPath;
+
     public void setConfiguration(SalesforceConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    public void setStreamRecords(Boolean streamRecords) {
+        this.streamRecords = streamRecords;
+    }
+
+    public void setRecordFields(List<String> recordFields) {
+        this.recordFields = recordFields;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setLane(TrafficLane lane) {
+        this.lane = lane;
+    }
+
     public void setQuery(DynamicString query) {
         this.query = query;
     }
@@ -6,6 +6,7 @@ import com.reedelk.runtime.api.component.ProcessorSync;
 import org.osgi.service.component.annotations.Component;
 
 import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireNotBlank;
+import static com.reedelk.runtime.api.commons.ComponentPrecondition.Configuration.requireTrue;
 import static org.osgi.service.component.annotations.ServiceScope.PROTOTYPE;
 
 @Shared
@@ -324,8 +325,8 @@ public class SalesforceConfiguration implements Implementor {
             "CS152"})
     @Hint("NA57")
     @Example("UM1")
-    @Mandatory
-    @Description("The Salesforce instance name to be used to retrieve data.")
+    @Description("The Salesforce instance name to be used to retrieve data " +
+            "when the login response does not provide the instance URL. Required if the Base URL is empty.")
     private String instanceName;
     
     @Property("Authorization URL")
@@ -335,6 +336,166 @@ public class SalesforceConfiguration implements Implementor {
     @Description("The authorization URL to be used to get the Authentication token.")
     private String authorizationURL;
 
+    @Property("Base URL")
+    @Example("https://mydomain.my.salesforce.com")
+    @Hint("https://mydomain.my.salesforce.com")
+    @Description("The base URL of the Salesforce instance to be used to retrieve data. " +
+            "If empty, the instance URL returned by the login response is used.")
+    private String baseURL;
+
+    @Property("API Version")
+    @Example("50.0")
+    @Hint("49.0")
+    @DefaultValue("49.0")
+    @Description("The version of the Salesforce REST API to be used.")
+    private String apiVersion;
+
+    @Property("Max Requests per Second")
+    @Example("10")
+    @Hint("10")
+    @Description("The maximum number of requests per second sent to Salesforce using this configuration. " +
+            "Requests exceeding the rate wait until a slot is available. If empty, the request rate is not limited.")
+    private Integer maxRequestsPerSecond;
+
+    @Property("Max Concurrent Requests")
+    @Example("5")
+    @Hint("5")
+    @Description("The maximum number of requests in flight at the same time using this configuration. " +
+            "The bulk lane gets a share of them, at least one request being left to the interactive lane " +
+            "(with 1, both lanes take turns on it). If empty, the number of concurrent requests is not limited.")
+    private Integer maxConcurrentRequests;
+
+    @Property("API Usage Threshold")
+    @Example("80")
+    @Hint("80")
+    @Description("The percentage of the daily API requests limit (as reported by Salesforce) above which " +
+            "the request rate is progressively reduced. If empty, the request rate does not depend on the API usage.")
+    private Integer apiUsageThreshold;
+
+    @Property("Bulk Lane Max Connections")
+    @Example("5")
+    @Hint("5")
+    @DefaultValue("5")
+    @Description("The size of the separate connection pool used by the components in the bulk traffic lane. " +
+            "It also caps their concurrent requests, so that bulk traffic never takes the connections " +
+            "reserved to the interactive lane.")
+    private Integer bulkMaxConnections;
+
+    @Property("Adaptive Concurrency")
+    @Example("true")
+    @DefaultValue("false")
+    @Description("If true, the number of concurrent requests sent to Salesforce is continuously adjusted " +
+            "based on the observed latency and error rate. Requests exceeding the current limit are queued " +
+            "and rejected if no capacity becomes available within the connection request timeout.")
+    private Boolean adaptiveConcurrency;
+
+    @Property("Circuit Breaker Failure Rate")
+    @Example("50")
+    @Hint("50")
+    @Description("The percentage of failed requests (transport errors, 429 and 5xx responses) above which " +
+            "the circuit breaker opens and requests fail immediately without reaching Salesforce. " +
+            "If empty, the circuit breaker is disabled.")
+    private Integer circuitBreakerFailureRate;
+
+    @Property("Circuit Breaker Minimum Requests")
+    @Example("20")
+    @Hint("20")
+    @DefaultValue("20")
+    @Description("The minimum number of requests within the last minute required before the failure rate is evaluated.")
+    private Integer circuitBreakerMinimumRequests;
+
+    @Property("Circuit Breaker Open Duration")
+    @Example("30")
+    @Hint("30")
+    @DefaultValue("30")
+    @Description("The number of seconds the circuit breaker stays open before letting probe requests through.")
+    private Integer circuitBreakerOpenDuration;
+
+    @Property("Circuit Breaker Half-Open Probes")
+    @Example("3")
+    @Hint("3")
+    @DefaultValue("3")
+    @Description("The number of consecutive successful probe requests required to close the circuit breaker again.")
+    private Integer circuitBreakerHalfOpenProbes;
+
+    @Property("Hedging Percentile")
+    @Example("95")
+    @Hint("95")
+    @Description("If set, a GET request still waiting for its response after this latency percentile of the requests " +
+            "of the same operation in the last 5 minutes is sent a second time, and the first response received is used. " +
+            "If empty, requests are never hedged.")
+    private Integer hedgingPercentile;
+
+    @Property("Hedging Max Rate")
+    @Example("5")
+    @Hint("5")
+    @DefaultValue("5")
+    @Description("The maximum percentage of GET requests which can be hedged, bounding the additional load sent to Salesforce.")
+    private Integer hedgingMaxRate;
+
+    @Property("Request Tracing")
+    @Example("true")
+    @DefaultValue("false")
+    @Description("If true, each request records how long it spent waiting for the rate limiters, fetching the access token, " +
+            "acquiring a connection, sending the request, waiting for the server, downloading the response and between retries. " +
+            "The timings (in milliseconds) are set in the 'timings' output message attribute.")
+    private Boolean requestTracing;
+
+    @Property("Response Compression")
+    @Example("false")
+    @DefaultValue("true")
+    @Description("If true, responses are requested gzip or deflate compressed and decompressed while they are received. " +
+            "Set to false to receive uncompressed responses.")
+    private Boolean responseCompression;
+
+    @Property("Request Compression Threshold")
+    @Example("16384")
+    @Hint("16384")
+    @Description("If set, the body of create and update requests at least this many bytes long is sent gzip compressed. " +
+            "If empty, request bodies are never compressed.")
+    private Integer requestCompressionThreshold;
+
+    @Property("Keep-Alive Duration (s)")
+    @Example("30")
+    @Hint("30")
+    @DefaultValue("30")
+    @Description("The maximum number of seconds an idle connection is kept open for reuse. " +
+            "If the server advertises a shorter keep-alive timeout, the server value is used. " +
+            "Idle connections are closed in the background before the Salesforce load balancers drop them.")
+    private Integer keepAliveDuration;
+
+    @Property("Connection Time to Live (s)")
+    @Example("300")
+    @Hint("300")
+    @DefaultValue("300")
+    @Description("The maximum number of seconds a connection is reused for, regardless of its activity. " +
+            "Set to 0 to reuse connections for as long as they are not idle longer than the keep-alive duration.")
+    private Integer connectionTimeToLive;
+
+    @Property("Shared IO Reactor")
+    @Example("true")
+    @DefaultValue("false")
+    @Description("If true, the connections are served by an IO reactor and dispatcher threads shared by all the " +
+            "configurations with this option enabled, instead of dedicated ones. Each configuration keeps its own " +
+            "connection pool, with its maximum connections, keep-alive duration and connection time to live. " +
+            "Only applies to the Apache HttpAsyncClient 4 client.")
+    private Boolean sharedIOReactor;
+
+    @Property("HTTP Client")
+    @Example("HTTP_CLIENT_5")
+    @DefaultValue("HTTP_ASYNC_CLIENT_4")
+    @Description("The HTTP client library used to send the requests to Salesforce.")
+    private HttpClientType client;
+
+    @Property("HTTP Protocol")
+    @Example("HTTP_2")
+    @DefaultValue("HTTP_1_1")
+    @Description("The HTTP protocol used to send the requests. With HTTP/2 all the concurrent requests are multiplexed " +
+            "over a single connection per host instead of using a connection each from the connection pool. " +
+            "HTTP/2 always uses the Apache HttpClient 5 client. " +
+            "HTTP/2 requires TLS with ALPN support in the JVM (or HTTP/2 prior knowledge for plain HTTP base URLs).")
+    private HttpProtocol protocol;
+
     public String getId() {
         return id;
     }
@@ -383,6 +544,174 @@ public class SalesforceConfiguration implements Implementor {
         this.authorizationURL = authorizationURL;
     }
 
+    public String getBaseURL() {
+        return baseURL;
+    }
+
+    public void setBaseURL(String baseURL) {
+        this.baseURL = baseURL;
+    }
+
+    public String getApiVersion() {
+        return apiVersion;
+    }
+
+    public void setApiVersion(String apiVersion) {
+        this.apiVersion = apiVersion;
+    }
+
+    public Integer getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    public void setMaxRequestsPerSecond(Integer maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public Integer getApiUsageThreshold() {
+        return apiUsageThreshold;
+    }
+
+    public void setApiUsageThreshold(Integer apiUsageThreshold) {
+        this.apiUsageThreshold = apiUsageThreshold;
+    }
+
+    public Boolean getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(Boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public Integer getCircuitBreakerFailureRate() {
+        return circuitBreakerFailureRate;
+    }
+
+    public void setCircuitBreakerFailureRate(Integer circuitBreakerFailureRate) {
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+    }
+
+    public Integer getCircuitBreakerMinimumRequests() {
+        return circuitBreakerMinimumRequests;
+    }
+
+    public void setCircuitBreakerMinimumRequests(Integer circuitBreakerMinimumRequests) {
+        this.circuitBreakerMinimumRequests = circuitBreakerMinimumRequests;
+    }
+
+    public Integer getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    public void setCircuitBreakerOpenDuration(Integer circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
+    public Integer getCircuitBreakerHalfOpenProbes() {
+        return circuitBreakerHalfOpenProbes;
+    }
+
+    public void setCircuitBreakerHalfOpenProbes(Integer circuitBreakerHalfOpenProbes) {
+        this.circuitBreakerHalfOpenProbes = circuitBreakerHalfOpenProbes;
+    }
+
+    public Boolean getRequestTracing() {
+        return requestTracing;
+    }
+
+    public void setRequestTracing(Boolean requestTracing) {
+        this.requestTracing = requestTracing;
+    }
+
+    public Boolean getResponseCompression() {
+        return responseCompression;
+    }
+
+    public void setResponseCompression(Boolean responseCompression) {
+        this.responseCompression = responseCompression;
+    }
+
+    public Integer getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    public void setRequestCompressionThreshold(Integer requestCompressionThreshold) {
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    public Integer getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
+
+    public void setKeepAliveDuration(Integer keepAliveDuration) {
+        this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public Integer getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    public void setConnectionTimeToLive(Integer connectionTimeToLive) {
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+
+    public HttpClientType getClient() {
+        return client;
+    }
+
+    public void setClient(HttpClientType client) {
+        this.client = client;
+    }
+
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(HttpProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public Integer getHedgingPercentile() {
+        return hedgingPercentile;
+    }
+
+    public void setHedgingPercentile(Integer hedgingPercentile) {
+        this.hedgingPercentile = hedgingPercentile;
+    }
+
+    public Integer getHedgingMaxRate() {
+        return hedgingMaxRate;
+    }
+
+    public void setHedgingMaxRate(Integer hedgingMaxRate) {
+        this.hedgingMaxRate = hedgingMaxRate;
+    }
+
+    public Integer getBulkMaxConnections() {
+        return bulkMaxConnections;
+    }
+
+    public void setBulkMaxConnections(Integer bulkMaxConnections) {
+        this.bulkMaxConnections = bulkMaxConnections;
+    }
+
+    public Boolean getSharedIOReactor() {
+        return sharedIOReactor;
+    }
+
+    public void setSharedIOReactor(Boolean sharedIOReactor) {
+        this.sharedIOReactor = sharedIOReactor;
+    }
+
     public String getInstanceName() {
         return instanceName;
     }
@@ -396,6 +725,13 @@ public class SalesforceConfiguration implements Implementor {
         requireNotBlank(component, clientSecret, "Salesforce Client Secret must be provided.");
         requireNotBlank(component, username, "Salesforce username must be provided.");
         requireNotBlank(component, password, "Salesforce password must be provided.");
-        requireNotBlank(component, instanceName, "Salesforce instance must be provided.");
+        // The instance URL of the login response is only known at runtime: without an instance
+        // name or a base URL there would be no instance to fall back on.
+        requireTrue(component, isNotBlank(instanceName) || isNotBlank(baseURL),
+                "Salesforce Instance Name or Base URL must be provided.");
+    }
+
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.trim().isEmpty();
     }
 }
@@ -0,0 +1,14 @@
+package com.reedelk.salesforce.component;
+
+import com.reedelk.runtime.api.annotation.DisplayName;
+
+// Bulk requests use a separate, smaller connection pool and share of the concurrency budget,
+// so that they never delay the interactive requests of the same configuration.
+public enum TrafficLane {
+
+    @DisplayName("Interactive")
+    INTERACTIVE,
+
+    @DisplayName("Bulk")
+    BULK
+}
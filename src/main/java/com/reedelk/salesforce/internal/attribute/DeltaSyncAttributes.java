@@ -0,0 +1,42 @@
+package com.reedelk.salesforce.internal.attribute;
+
+import com.reedelk.runtime.api.annotation.Type;
+import com.reedelk.runtime.api.annotation.TypeProperty;
+import com.reedelk.salesforce.internal.http.HttpResult;
+import com.reedelk.salesforce.spi.Watermark;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import static com.reedelk.salesforce.internal.attribute.DeltaSyncAttributes.HAS_MORE;
+import static com.reedelk.salesforce.internal.attribute.DeltaSyncAttributes.WATERMARK;
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.API_LIMIT;
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.API_USAGE;
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.TIMINGS;
+
+@Type(displayName = "DeltaSyncAttributes", mapKeyType = String.class, mapValueType = Serializable.class)
+@TypeProperty(name = API_USAGE, type = long.class)
+@TypeProperty(name = API_LIMIT, type = long.class)
+@TypeProperty(name = TIMINGS, type = Map.class)
+@TypeProperty(name = WATERMARK, type = String.class)
+@TypeProperty(name = HAS_MORE, type = boolean.class)
+public class DeltaSyncAttributes extends SalesforceAttributes {
+
+    static final String WATERMARK = "watermark";
+    static final String HAS_MORE = "hasMore";
+
+    // The configuration and name of the sync: not an attribute, it only identifies the watermark.
+    private final transient String key;
+
+    public DeltaSyncAttributes(HttpResult result, String key, Watermark watermark, boolean hasMore) {
+        super(result);
+        this.key = key;
+        put(WATERMARK, watermark.toString());
+        put(HAS_MORE, hasMore);
+    }
+
+    // Null when the attributes are not the ones of the sync with the given key.
+    public Watermark watermarkOf(String key) {
+        return key.equals(this.key) ? Watermark.parse((String) get(WATERMARK)) : null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.reedelk.salesforce.internal.attribute;
+
+import com.reedelk.runtime.api.annotation.Type;
+import com.reedelk.runtime.api.annotation.TypeProperty;
+import com.reedelk.runtime.api.message.MessageAttributes;
+import com.reedelk.salesforce.internal.http.HttpResult;
+import com.reedelk.salesforce.internal.metrics.ApiUsage;
+import com.reedelk.salesforce.spi.RequestTrace;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.API_LIMIT;
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.API_USAGE;
+import static com.reedelk.salesforce.internal.attribute.SalesforceAttributes.TIMINGS;
+
+@Type(displayName = "SalesforceAttributes", mapKeyType = String.class, mapValueType = Serializable.class)
+@TypeProperty(name = API_USAGE, type = long.class)
+@TypeProperty(name = API_LIMIT, type = long.class)
+@TypeProperty(name = TIMINGS, type = Map.class)
+public class SalesforceAttributes extends MessageAttributes {
+
+    static final String API_USAGE = "apiUsage";
+    static final String API_LIMIT = "apiLimit";
+    static final String TIMINGS = "timings";
+
+    // Streamed results: API usage and timings are not known yet when the message is built.
+    public SalesforceAttributes() {
+    }
+
+    public SalesforceAttributes(HttpResult result) {
+        ApiUsage apiUsage = result.getApiUsage();
+        if (apiUsage != null) {
+            put(API_USAGE, apiUsage.getUsed());
+            put(API_LIMIT, apiUsage.getLimit());
+        }
+        RequestTrace trace = result.getTrace();
+        if (trace != null) {
+            // Attribute values must be serializable: a copy of the (unmodifiable) spans.
+            put(TIMINGS, new HashMap<>(trace.toMillis()));
+        }
+    }
+}
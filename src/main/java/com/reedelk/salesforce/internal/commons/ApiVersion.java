@@ -0,0 +1,19 @@
+package com.reedelk.salesforce.internal.commons;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+
+public class ApiVersion {
+
+    private ApiVersion() {
+    }
+
+    // The REST API version without the 'v' prefix, e.g. 49.0
+    public static String of(SalesforceConfiguration configuration) {
+        String apiVersion = configuration.getApiVersion();
+        if (apiVersion == null || apiVersion.trim().isEmpty()) {
+            return Default.SALESFORCE_API_VERSION;
+        }
+        String trimmed = apiVersion.trim();
+        return trimmed.startsWith("v") ? trimmed.substring(1) : trimmed;
+    }
+}
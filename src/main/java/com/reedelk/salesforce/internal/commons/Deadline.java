@@ -0,0 +1,88 @@
+package com.reedelk.salesforce.internal.commons;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.exception.RequestTimeoutException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The overall time budget of a component call, shared by the token fetch, the limiter
+// and connection pool waits, every attempt and the delays between retries. The time does
+// not run while the deadline is paused, e.g. while a streamed page waits for its records
+// to be consumed.
+public class Deadline {
+
+    private final SalesforceConfiguration configuration;
+    private final long timeoutMillis;
+    private long expiresAt;
+    private long pausedAt;
+    private boolean paused;
+
+    private Deadline(SalesforceConfiguration configuration, long timeoutMillis) {
+        this.configuration = configuration;
+        this.timeoutMillis = timeoutMillis;
+        this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    // Null (no deadline) when the timeout is not set.
+    public static Deadline of(SalesforceConfiguration configuration, Integer timeoutMillis) {
+        return timeoutMillis != null && timeoutMillis > 0 ? new Deadline(configuration, timeoutMillis) : null;
+    }
+
+    public synchronized long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAt - now()));
+    }
+
+    public synchronized boolean isExpired() {
+        return expiresAt - now() <= 0;
+    }
+
+    public synchronized void pause() {
+        if (!paused) {
+            paused = true;
+            pausedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized void resume() {
+        if (paused) {
+            paused = false;
+            expiresAt += System.nanoTime() - pausedAt;
+        }
+    }
+
+    public void check() {
+        if (isExpired()) throw exceeded();
+    }
+
+    public RequestTimeoutException exceeded() {
+        return new RequestTimeoutException(Messages.Deadline.EXCEEDED.format(timeoutMillis, configuration.getId()));
+    }
+
+    // Waits for the future within the remaining time, cancelling it when the deadline expires.
+    public static <T> T get(Future<T> future, Deadline deadline) throws ExecutionException, InterruptedException {
+        if (deadline == null) return future.get();
+        while (true) {
+            try {
+                return future.get(Math.max(deadline.remainingMillis(), 1), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException timeout) {
+                // The deadline may have been paused meanwhile.
+                if (deadline.isExpired()) {
+                    future.cancel(true);
+                    throw deadline.exceeded();
+                }
+            }
+        }
+    }
+
+    // The given timeout, shortened to the remaining time if there is a deadline.
+    public static long remainingMillis(Deadline deadline, long timeoutMillis) {
+        return deadline == null ? timeoutMillis : Math.min(timeoutMillis, deadline.remainingMillis());
+    }
+
+    private long now() {
+        return paused ? pausedAt : System.nanoTime();
+    }
+}
@@ -6,21 +6,53 @@ public class Default {
     public static final int CONNECTION_REQUEST_TIMEOUT = Timeout.ofSeconds(10);
     public static final int CONNECT_TIMEOUT = Timeout.ofSeconds(10);
     public static final int MAX_REQ_PER_ROUTE = 20;
-    public static final int MAX_REQ_TOTAL = 20;
+    public static final int BULK_MAX_CONNECTIONS = 5;
+    public static final int KEEP_ALIVE_DURATION_SECONDS = 30;
+    public static final int CONNECTION_TIME_TO_LIVE_SECONDS = 300;
+    public static final long CONNECTION_EVICTION_INTERVAL_MILLIS = 5000;
+    public static final long CONNECTION_DRAIN_INTERVAL_MILLIS = 500;
+    public static final long IO_REACTOR_SHUTDOWN_MILLIS = 2000;
 
-    private static final String SALESFORCE_API = "https://%s.salesforce.com/services/data/v49.0/";
-    public static final String SALESFORCE_OBJECT_DESCRIBE = SALESFORCE_API + "sobjects/%s/describe/";
-    public static final String SALESFORCE_OBJECT_CREATE = SALESFORCE_API + "sobjects/%s/";
-    public static final String SALESFORCE_OBJECT_DELETE = SALESFORCE_API + "sobjects/%s/%s";
-    public static final String SALESFORCE_OBJECT_GET = SALESFORCE_API + "sobjects/%s/%s";
-    public static final String SALESFORCE_OBJECT_GET_WITH_FIELDS = SALESFORCE_OBJECT_GET + "?fields=%s";
-    public static final String SALESFORCE_OBJECT_PATCH = SALESFORCE_API + "sobjects/%s/%s";
-    public static final String SALESFORCE_QUERY= SALESFORCE_API + "query/?q=%s";
-    public static final String SALESFORCE_QUERY_WITH_NEXT_TOKEN = "https://%s.salesforce.com%s";
+    public static final String SALESFORCE_INSTANCE_URL = "https://%s.salesforce.com";
+    public static final String SALESFORCE_API_VERSION = "49.0";
+    public static final String SALESFORCE_API_PATH = "/services/data/v";
+    public static final String SALESFORCE_SOBJECTS_PATH = "/sobjects/";
+    public static final String SALESFORCE_DESCRIBE_PATH = "/describe/";
+    public static final String SALESFORCE_QUERY_PATH = "/query/?q=";
+    public static final String SALESFORCE_FIELDS_QUERY = "?fields=";
+    public static final String SALESFORCE_UPDATED_PATH = "/updated/";
+    public static final String SALESFORCE_DELETED_PATH = "/deleted/";
 
     public static final int ATTEMPT_DELAY_SECONDS = 2;
     public static final int MAX_RETRY_ATTEMPTS = 3;
     public static final int UNAUTHORIZED_STATUS_CODE = 401;
+    public static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    public static final int API_USAGE_THROTTLED_REQUESTS_PER_SECOND = 5;
+    public static final double API_USAGE_MIN_RATE_FACTOR = 0.05d;
+    public static final int ADAPTIVE_CONCURRENCY_INITIAL_LIMIT = 10;
+    public static final int ADAPTIVE_CONCURRENCY_MIN_LIMIT = 1;
+    public static final double ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE = 2.0d;
+    public static final double ADAPTIVE_CONCURRENCY_BACKOFF_RATIO = 0.9d;
+    public static final double ADAPTIVE_CONCURRENCY_ERROR_BACKOFF_RATIO = 0.5d;
+    public static final int ADAPTIVE_CONCURRENCY_LATENCY_WINDOW = 500;
+    public static final int CIRCUIT_BREAKER_MINIMUM_REQUESTS = 20;
+    public static final int CIRCUIT_BREAKER_OPEN_DURATION_SECONDS = 30;
+    public static final int CIRCUIT_BREAKER_HALF_OPEN_PROBES = 3;
+    public static final int CIRCUIT_BREAKER_PERIOD_SECONDS = 60;
+    public static final int HEDGING_MAX_RATE_PERCENT = 5;
+    public static final int HEDGING_MAX_BURST = 10;
+    public static final int HEDGING_MIN_SAMPLES = 100;
+    public static final int HEDGING_LATENCY_WINDOW_SECONDS = 300;
+    public static final int HEDGING_LATENCY_WINDOW_SLICES = 10;
+    public static final int DELTA_SYNC_MAX_RECORDS = 2000;
+    public static final int DELTA_SYNC_WINDOW_LAG_SECONDS = 60;
+    public static final String DELTA_SYNC_START = "1970-01-01T00:00:00.000Z";
+    public static final String WATERMARK_DIRECTORY = "salesforce-watermarks";
+    public static final int CHANGE_WINDOW_CHUNK_HOURS = 24;
+    public static final int CHANGE_WINDOW_MIN_MINUTES = 2;
+    public static final int RECORD_STREAM_BUFFER = 100;
+    public static final long RECORD_STREAM_STALL_CHECK_INTERVAL_MILLIS = 1000;
+    public static final int RECORD_STREAM_MAX_PAUSE_SECONDS = 300;
     public static final String AUTHORIZATION_URL = "https://login.salesforce.com/services/oauth2/token";
 
 }
@@ -0,0 +1,71 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// URL encoded form request entity, e.g. the parameters of the access token request.
+public class FormEntity implements HttpRequestBody {
+
+    private static final String CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+
+    private final byte[] content;
+
+    private FormEntity(byte[] content) {
+        this.content = content;
+    }
+
+    public static FormEntity from(Map<String, String> parameters) {
+        StringBuilder form = new StringBuilder();
+        parameters.forEach((name, value) -> {
+            if (form.length() > 0) form.append('&');
+            form.append(encode(name)).append('=').append(value != null ? encode(value) : "");
+        });
+        return new FormEntity(form.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public long getContentLength() {
+        return content.length;
+    }
+
+    @Override
+    public Chunks chunks() {
+        return new Chunks() {
+
+            private boolean read;
+
+            @Override
+            public ByteBuffer next() {
+                if (read) return null;
+                read = true;
+                return ByteBuffer.wrap(content);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException exception) {
+            // UTF-8 is always supported.
+            throw new IllegalStateException(exception);
+        }
+    }
+}
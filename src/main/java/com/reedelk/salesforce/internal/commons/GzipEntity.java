@@ -0,0 +1,87 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Gzip compressed request entity. The content is compressed chunk by chunk while it is
+// written to the connection, using chunked transfer encoding since the compressed length
+// is not known upfront. Repeatable: each exchange compresses the content again.
+public class GzipEntity implements HttpRequestBody {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final byte[] content;
+    private final int length;
+    private final int crc;
+    private final String contentType;
+
+    GzipEntity(byte[] content, int length, String contentType) {
+        this.content = content;
+        this.length = length;
+        CRC32 crc32 = new CRC32();
+        crc32.update(content, 0, length);
+        this.crc = (int) crc32.getValue();
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return "gzip";
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public Chunks chunks() {
+        return new Chunks() {
+
+            private final byte[] output = new byte[8192];
+            private Deflater deflater;
+            private boolean headerWritten;
+            private boolean trailerWritten;
+
+            @Override
+            public ByteBuffer next() {
+                if (!headerWritten) {
+                    headerWritten = true;
+                    deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                    deflater.setInput(content, 0, length);
+                    deflater.finish();
+                    return ByteBuffer.wrap(HEADER);
+                }
+                if (deflater != null && !deflater.finished()) {
+                    // The output buffer is reused: the previous chunk has been fully written meanwhile.
+                    int deflated = deflater.deflate(output);
+                    return ByteBuffer.wrap(output, 0, deflated);
+                }
+                close();
+                if (trailerWritten) return null;
+                trailerWritten = true;
+                return ByteBuffer.wrap(trailer());
+            }
+
+            @Override
+            public void close() {
+                if (deflater != null) {
+                    deflater.end();
+                    deflater = null;
+                }
+            }
+        };
+    }
+
+    private byte[] trailer() {
+        return new byte[]{
+                (byte) crc, (byte) (crc >> 8), (byte) (crc >> 16), (byte) (crc >> 24),
+                (byte) length, (byte) (length >> 8), (byte) (length >> 16), (byte) (length >> 24)};
+    }
+}
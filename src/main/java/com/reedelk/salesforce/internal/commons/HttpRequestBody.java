@@ -0,0 +1,27 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// A request body, independent of the HTTP client library sending it. Repeatable: each
+// exchange (first attempt, retry or hedge) reads it through its own chunks from the first byte.
+public interface HttpRequestBody {
+
+    String getContentType();
+
+    // Null when the content is not encoded.
+    String getContentEncoding();
+
+    // Negative when not known upfront: the body is sent with chunked transfer encoding.
+    long getContentLength();
+
+    Chunks chunks();
+
+    interface Chunks {
+
+        // Returns null after the last chunk.
+        ByteBuffer next() throws IOException;
+
+        void close();
+    }
+}
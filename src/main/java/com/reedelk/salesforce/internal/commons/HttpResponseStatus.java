@@ -1,18 +1,19 @@
 package com.reedelk.salesforce.internal.commons;
 
-import org.apache.http.StatusLine;
-
 public class HttpResponseStatus {
 
     private HttpResponseStatus() {
     }
 
-    public static boolean isSuccessful(StatusLine statusLine) {
-        int code = statusLine.getStatusCode();
+    public static boolean isSuccessful(int code) {
         return ((200 <= code) && (code <= 299));
     }
 
-    public static boolean isUnAuthorized(StatusLine statusLine) {
-        return statusLine.getStatusCode() == Default.UNAUTHORIZED_STATUS_CODE;
+    public static boolean isOverloaded(int code) {
+        return code == Default.TOO_MANY_REQUESTS_STATUS_CODE || code >= 500;
+    }
+
+    public static boolean isUnAuthorized(int code) {
+        return code == Default.UNAUTHORIZED_STATUS_CODE;
     }
 }
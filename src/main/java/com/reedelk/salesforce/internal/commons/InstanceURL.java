@@ -0,0 +1,31 @@
+package com.reedelk.salesforce.internal.commons;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+
+public class InstanceURL {
+
+    private InstanceURL() {
+    }
+
+    // The scheme and authority of the Salesforce instance serving the requests, without trailing slash.
+    // An explicit base URL takes precedence over the instance URL returned by the login response,
+    // which takes precedence over the URL derived from the instance name.
+    public static String of(SalesforceConfiguration configuration, String tokenInstanceUrl) {
+        String baseURL = configuration.getBaseURL();
+        if (isNotBlank(baseURL)) {
+            return trimTrailingSlash(baseURL.trim());
+        }
+        if (isNotBlank(tokenInstanceUrl)) {
+            return trimTrailingSlash(tokenInstanceUrl.trim());
+        }
+        return String.format(Default.SALESFORCE_INSTANCE_URL, configuration.getInstanceName());
+    }
+
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String trimTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
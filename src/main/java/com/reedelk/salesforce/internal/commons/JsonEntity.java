@@ -0,0 +1,95 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// UTF-8 JSON request entity serialized once into a byte buffer which is written as is to the
+// connection. Repeatable, so that retried requests reuse the same bytes.
+public class JsonEntity implements HttpRequestBody {
+
+    public static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private final byte[] content;
+    private final int length;
+
+    private JsonEntity(byte[] content, int length) {
+        this.content = content;
+        this.length = length;
+    }
+
+    public static JsonEntity from(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JsonEntity(bytes, bytes.length);
+    }
+
+    public static JsonEntity from(Map<?, ?> payload) {
+        Buffer buffer = new Buffer();
+        // Buffered: JSONObject.quote writes char by char, and OutputStreamWriter allocates on each single char write.
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            JsonWriter.write(payload, writer);
+        } catch (IOException exception) {
+            // Writing to memory does not throw.
+            throw new UncheckedIOException(exception);
+        }
+        return new JsonEntity(buffer.bytes(), buffer.size());
+    }
+
+    // Gzip compressed when the content is at least 'threshold' bytes long; a null threshold disables compression.
+    public HttpRequestBody compressAbove(Integer threshold) {
+        if (threshold == null || threshold < 0 || length < threshold) return this;
+        return new GzipEntity(content, length, CONTENT_TYPE);
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public Chunks chunks() {
+        return new Chunks() {
+
+            private boolean read;
+
+            @Override
+            public ByteBuffer next() {
+                if (read) return null;
+                read = true;
+                return ByteBuffer.wrap(content, 0, length);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    // Gives access to the written bytes without the copy made by toByteArray.
+    private static class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(1024);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
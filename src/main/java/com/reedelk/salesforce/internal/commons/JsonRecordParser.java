@@ -0,0 +1,338 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Incremental parser of query responses: the bytes are pushed as they arrive, in chunks of any
+// size, and each element of the top level 'records' array is handed to the listener as soon as
+// it is complete, as a map without the 'attributes' envelope and, optionally, with the selected
+// fields only. Fields not selected are skipped without being built. The other top level values
+// (e.g. 'done', 'nextRecordsUrl') are collected in the summary. Only one record is held at a time.
+public class JsonRecordParser extends OutputStream {
+
+    public interface Listener {
+
+        void record(Map<String, Object> record) throws IOException;
+    }
+
+    private static final String RECORDS = "records";
+    private static final String ATTRIBUTES = "attributes";
+
+    // Parser states.
+    private static final int VALUE = 0;
+    private static final int VALUE_OR_END = 1;
+    private static final int KEY = 2;
+    private static final int KEY_OR_END = 3;
+    private static final int COLON = 4;
+    private static final int COMMA_OR_END = 5;
+    private static final int STRING = 6;
+    private static final int STRING_ESCAPE = 7;
+    private static final int STRING_UNICODE = 8;
+    private static final int LITERAL = 9;
+    private static final int END = 10;
+
+    // Frame kinds.
+    private static final int ROOT = 0;
+    private static final int RECORD_LIST = 1;
+    private static final int RECORD = 2;
+    private static final int NESTED = 3;
+    private static final int SKIPPED = 4;
+
+    private final Set<String> fields;
+    private final Listener listener;
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private final ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+    private final StringBuilder text = new StringBuilder();
+    private int state = VALUE;
+    private boolean stringIsKey;
+    private int unicodeDigits;
+    private int unicode;
+
+    // A null or empty fields collection selects all the fields.
+    public JsonRecordParser(Collection<String> fields, Listener listener) {
+        if (fields == null || fields.isEmpty()) {
+            this.fields = null;
+        } else {
+            this.fields = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            this.fields.addAll(fields);
+        }
+        this.listener = listener;
+    }
+
+    public Map<String, Object> summary() {
+        return summary;
+    }
+
+    public boolean isComplete() {
+        return state == END;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[] {(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte current = bytes[i];
+            switch (state) {
+                case STRING:
+                    if (current == '"') {
+                        endString();
+                    } else if (current == '\\') {
+                        flushStringBytes();
+                        state = STRING_ESCAPE;
+                    } else {
+                        // Multi-byte UTF-8 sequences are decoded once the string is complete.
+                        stringBytes.write(current);
+                    }
+                    break;
+                case STRING_ESCAPE:
+                    escape(current);
+                    break;
+                case STRING_UNICODE:
+                    unicode = (unicode << 4) | hex(current);
+                    if (++unicodeDigits == 4) {
+                        text.append((char) unicode);
+                        state = STRING;
+                    }
+                    break;
+                case LITERAL:
+                    if (isDelimiter(current)) {
+                        endLiteral();
+                        i--; // The delimiter belongs to the enclosing container.
+                    } else {
+                        text.append((char) current);
+                    }
+                    break;
+                default:
+                    structural(current);
+            }
+        }
+    }
+
+    private void structural(byte current) throws IOException {
+        if (isWhitespace(current)) return;
+        switch (state) {
+            case VALUE:
+            case VALUE_OR_END:
+                if (current == ']' && state == VALUE_OR_END) {
+                    endContainer();
+                } else if (current == '{') {
+                    startContainer(true);
+                    state = KEY_OR_END;
+                } else if (current == '[') {
+                    startContainer(false);
+                    state = VALUE_OR_END;
+                } else if (current == '"') {
+                    startString(false);
+                } else {
+                    text.setLength(0);
+                    text.append((char) current);
+                    state = LITERAL;
+                }
+                break;
+            case KEY:
+            case KEY_OR_END:
+                if (current == '}' && state == KEY_OR_END) {
+                    endContainer();
+                } else if (current == '"') {
+                    startString(true);
+                } else {
+                    throw unexpected(current);
+                }
+                break;
+            case COLON:
+                if (current != ':') throw unexpected(current);
+                state = VALUE;
+                break;
+            case COMMA_OR_END:
+                Frame frame = frames.peek();
+                if (frame == null) throw unexpected(current);
+                if (current == ',') {
+                    state = frame.object ? KEY : VALUE;
+                } else if (current == (frame.object ? '}' : ']')) {
+                    endContainer();
+                } else {
+                    throw unexpected(current);
+                }
+                break;
+            default:
+                throw unexpected(current);
+        }
+    }
+
+    private void startContainer(boolean object) {
+        Frame parent = frames.peek();
+        Frame frame;
+        if (parent == null) {
+            frame = object ? new Frame(true, ROOT, summary) : new Frame(false, SKIPPED, null);
+        } else if (parent.kind == ROOT) {
+            frame = !object && RECORDS.equals(parent.key) ?
+                    new Frame(false, RECORD_LIST, null) :
+                    new Frame(object, SKIPPED, null);
+        } else if (parent.kind == RECORD_LIST) {
+            frame = object ? new Frame(true, RECORD, new LinkedHashMap<String, Object>()) : new Frame(false, SKIPPED, null);
+        } else if (parent.kind == SKIPPED || parent.skipValue) {
+            frame = new Frame(object, SKIPPED, null);
+        } else {
+            Object container = object ? new LinkedHashMap<String, Object>() : new ArrayList<>();
+            parent.add(container);
+            frame = new Frame(object, NESTED, container);
+        }
+        frames.push(frame);
+    }
+
+    private void endContainer() throws IOException {
+        Frame frame = frames.pop();
+        if (frame.kind == RECORD) {
+            listener.record(frame.map());
+        }
+        state = frames.isEmpty() ? END : COMMA_OR_END;
+    }
+
+    private void key(String key) {
+        Frame frame = frames.peek();
+        frame.key = key;
+        if (frame.kind == RECORD) {
+            frame.skipValue = ATTRIBUTES.equals(key) || (fields != null && !fields.contains(key));
+        } else if (frame.kind == NESTED) {
+            frame.skipValue = ATTRIBUTES.equals(key);
+        }
+        state = COLON;
+    }
+
+    private void value(Object value) {
+        Frame frame = frames.peek();
+        if (frame != null && frame.kind != RECORD_LIST && frame.kind != SKIPPED && !frame.skipValue) {
+            frame.add(value);
+        }
+        state = frames.isEmpty() ? END : COMMA_OR_END;
+    }
+
+    private void startString(boolean key) {
+        stringIsKey = key;
+        stringBytes.reset();
+        text.setLength(0);
+        state = STRING;
+    }
+
+    private void endString() {
+        flushStringBytes();
+        String string = text.toString();
+        if (stringIsKey) {
+            key(string);
+        } else {
+            value(string);
+        }
+    }
+
+    private void flushStringBytes() {
+        if (stringBytes.size() > 0) {
+            text.append(new String(stringBytes.toByteArray(), StandardCharsets.UTF_8));
+            stringBytes.reset();
+        }
+    }
+
+    private void escape(byte current) throws IOException {
+        state = STRING;
+        switch (current) {
+            case '"': text.append('"'); break;
+            case '\\': text.append('\\'); break;
+            case '/': text.append('/'); break;
+            case 'b': text.append('\b'); break;
+            case 'f': text.append('\f'); break;
+            case 'n': text.append('\n'); break;
+            case 'r': text.append('\r'); break;
+            case 't': text.append('\t'); break;
+            case 'u':
+                unicode = 0;
+                unicodeDigits = 0;
+                state = STRING_UNICODE;
+                break;
+            default:
+                throw unexpected(current);
+        }
+    }
+
+    private void endLiteral() throws IOException {
+        String literal = text.toString();
+        switch (literal) {
+            case "true": value(Boolean.TRUE); break;
+            case "false": value(Boolean.FALSE); break;
+            case "null": value(null); break;
+            default: value(number(literal));
+        }
+    }
+
+    private static Object number(String literal) throws IOException {
+        try {
+            if (literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0) {
+                return Double.valueOf(literal);
+            }
+            long number = Long.parseLong(literal);
+            return number == (int) number ? (Object) (int) number : (Object) number;
+        } catch (NumberFormatException exception) {
+            try {
+                return new BigDecimal(literal);
+            } catch (NumberFormatException notANumber) {
+                throw new IOException("Unexpected JSON literal: " + literal);
+            }
+        }
+    }
+
+    private static int hex(byte current) throws IOException {
+        int digit = Character.digit(current, 16);
+        if (digit < 0) throw unexpected(current);
+        return digit;
+    }
+
+    private static boolean isWhitespace(byte current) {
+        return current == ' ' || current == '\n' || current == '\r' || current == '\t';
+    }
+
+    private static boolean isDelimiter(byte current) {
+        return isWhitespace(current) || current == ',' || current == '}' || current == ']';
+    }
+
+    private static IOException unexpected(byte current) {
+        return new IOException("Unexpected character in JSON: '" + (char) current + "'");
+    }
+
+    private static class Frame {
+
+        final boolean object;
+        final int kind;
+        final Object container;
+        String key;
+        boolean skipValue;
+
+        Frame(boolean object, int kind, Object container) {
+            this.object = object;
+            this.kind = kind;
+            this.container = container;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map() {
+            return (Map<String, Object>) container;
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(Object value) {
+            if (object) {
+                ((Map<String, Object>) container).put(key, value);
+            } else {
+                ((List<Object>) container).add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.reedelk.salesforce.internal.commons;
+
+import org.json.JSONObject;
+import org.json.JSONString;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+// Writes Map/List structures as JSON directly to a writer, without building an intermediate
+// JSONObject tree. The output matches new JSONObject(map).toString(): null map values are skipped,
+// strings are escaped with JSONObject.quote and numbers formatted with JSONObject.numberToString.
+public class JsonWriter {
+
+    private JsonWriter() {
+    }
+
+    public static void write(Object value, Writer writer) throws IOException {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            writer.write("null");
+        } else if (value instanceof String) {
+            JSONObject.quote((String) value, writer);
+        } else if (value instanceof Number) {
+            writer.write(JSONObject.numberToString((Number) value));
+        } else if (value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, writer);
+        } else if (value instanceof Collection) {
+            writeIterator(((Collection<?>) value).iterator(), writer);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, writer);
+        } else if (value instanceof JSONString) {
+            writer.write(((JSONString) value).toJSONString());
+        } else if (value instanceof Enum) {
+            JSONObject.quote(((Enum<?>) value).name(), writer);
+        } else if (isJavaType(value)) {
+            JSONObject.quote(value.toString(), writer);
+        } else {
+            // JSONObject, JSONArray and beans
+            writer.write(JSONObject.wrap(value).toString());
+        }
+    }
+
+    private static void writeMap(Map<?, ?> map, Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() == null) continue;
+            if (!first) writer.write(',');
+            JSONObject.quote(String.valueOf(entry.getKey()), writer);
+            writer.write(':');
+            write(entry.getValue(), writer);
+            first = false;
+        }
+        writer.write('}');
+    }
+
+    private static void writeIterator(Iterator<?> iterator, Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        while (iterator.hasNext()) {
+            if (!first) writer.write(',');
+            write(iterator.next(), writer);
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    private static void writeArray(Object array, Writer writer) throws IOException {
+        writer.write('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) writer.write(',');
+            write(Array.get(array, i), writer);
+        }
+        writer.write(']');
+    }
+
+    private static boolean isJavaType(Object value) {
+        Package valuePackage = value.getClass().getPackage();
+        String packageName = valuePackage != null ? valuePackage.getName() : "";
+        return packageName.startsWith("java.") || packageName.startsWith("javax.");
+    }
+}
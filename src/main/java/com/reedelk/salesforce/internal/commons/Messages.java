@@ -54,7 +54,11 @@ public class Messages {
 
     public enum SOQLQuery implements FormattedMessage {
 
-        SOQL_QUERY_EMPTY("The SOQL query is empty. The SOQL query must not be empty (DynamicValue=[%s]).");
+        SOQL_QUERY_EMPTY("The SOQL query is empty. The SOQL query must not be empty (DynamicValue=[%s])."),
+        PARTITION_UNSUPPORTED("The SOQL query cannot be split in partitions (query=[%s]). A partitioned query must select " +
+                "from a single object, optionally with a WHERE condition, and without GROUP BY, ORDER BY, LIMIT or OFFSET."),
+        STREAM_PAUSE_EXCEEDED("No streamed record was consumed for more than %d seconds while the reading of the responses " +
+                "was paused. The stream has been stopped, releasing its connections.");
 
         private final String message;
 
@@ -99,4 +103,125 @@ public class Messages {
             return message;
         }
     }
+
+    public enum RateLimiter implements FormattedMessage {
+
+        INTERRUPTED("Interrupted while waiting for the request rate limiter (configuration id=[%s]).");
+
+        private final String message;
+
+        RateLimiter(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum ConcurrencyLimiter implements FormattedMessage {
+
+        LIMIT_EXCEEDED("The request was rejected because the adaptive concurrency limit (%d) " +
+                "has been reached (configuration id=[%s])."),
+        INTERRUPTED("Interrupted while waiting for the adaptive concurrency limiter (configuration id=[%s]).");
+
+        private final String message;
+
+        ConcurrencyLimiter(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum CircuitBreaker implements FormattedMessage {
+
+        OPEN("The request was not sent because the circuit breaker is open, " +
+                "retry in %d ms (configuration id=[%s]).");
+
+        private final String message;
+
+        CircuitBreaker(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum ChangeWindow implements FormattedMessage {
+
+        OBJECT_NAME_EMPTY("The object name is empty. The object name must not be empty (DynamicValue=[%s])."),
+        START_EMPTY("The start date time is empty. The start date time must not be empty (DynamicValue=[%s])."),
+        DATE_INVALID("The date time is not valid (date=[%s]), it must be an ISO-8601 date time e.g. 2020-10-01T00:00:00Z."),
+        END_BEFORE_START("The end date time must be after the start date time (start=[%s], end=[%s]).");
+
+        private final String message;
+
+        ChangeWindow(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum DeltaSync implements FormattedMessage {
+
+        WATERMARK_LOAD_ERROR("Could not load the watermark of the delta sync with key=[%s], cause=[%s]."),
+        WATERMARK_SAVE_ERROR("Could not save the watermark of the delta sync with key=[%s], cause=[%s]."),
+        WATERMARK_INVALID("The watermark of the delta sync with key=[%s] is not valid (watermark=[%s]), it must be a SOQL date time literal e.g. 2020-10-06T11:23:49.000Z, optionally followed by a record Id."),
+        START_INVALID("The start date time is not valid (start=[%s]), it must be an ISO-8601 date time e.g. 2020-01-01T00:00:00Z.");
+
+        private final String message;
+
+        DeltaSync(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum Deadline implements FormattedMessage {
+
+        EXCEEDED("The Salesforce call did not complete within the timeout of %d ms (configuration id=[%s]).");
+
+        private final String message;
+
+        Deadline(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
+
+    public enum HttpClient implements FormattedMessage {
+
+        IO_REACTOR_ERROR("Could not create the IO reactor of the HTTP client, cause=[%s].");
+
+        private final String message;
+
+        HttpClient(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String template() {
+            return message;
+        }
+    }
 }
@@ -1,15 +1,16 @@
 package com.reedelk.salesforce.internal.commons;
 
 import com.reedelk.runtime.api.component.Implementor;
-import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 import static com.reedelk.runtime.api.commons.ComponentPrecondition.Input;
 
 public class Payload {
 
-    @SuppressWarnings("unchecked")
     public static String toJson(Class<? extends Implementor> implementor, Object payload) {
         Input.requireTypeMatchesAny(implementor, payload, String.class, Map.class);
         if (payload instanceof String) {
@@ -17,8 +18,23 @@ public class Payload {
             return (String) payload;
         } else {
             // Must convert java to json
-            JSONObject object = new JSONObject((Map<Object,Object>) payload);
-            return object.toString();
+            StringWriter writer = new StringWriter();
+            try {
+                JsonWriter.write(payload, writer);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            return writer.toString();
+        }
+    }
+
+    public static JsonEntity toJsonEntity(Class<? extends Implementor> implementor, Object payload) {
+        Input.requireTypeMatchesAny(implementor, payload, String.class, Map.class);
+        if (payload instanceof String) {
+            // We assume it is already json.
+            return JsonEntity.from((String) payload);
+        } else {
+            return JsonEntity.from((Map<?, ?>) payload);
         }
     }
 }
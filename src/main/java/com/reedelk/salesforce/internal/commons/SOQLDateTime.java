@@ -0,0 +1,28 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+public class SOQLDateTime {
+
+    // Date time fields as returned by the REST API, e.g. 2020-10-06T11:23:49.000+0000
+    private static final DateTimeFormatter API_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    // SOQL date time literal, e.g. 2020-10-06T11:23:49.000Z
+    private static final DateTimeFormatter LITERAL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+    private SOQLDateTime() {
+    }
+
+    public static OffsetDateTime parse(String value) {
+        return OffsetDateTime.parse(value, API_FORMAT);
+    }
+
+    public static OffsetDateTime parseLiteral(String literal) {
+        return OffsetDateTime.parse(literal, LITERAL_FORMAT.withZone(ZoneOffset.UTC));
+    }
+
+    public static String literal(OffsetDateTime dateTime) {
+        return dateTime.withOffsetSameInstant(ZoneOffset.UTC).format(LITERAL_FORMAT);
+    }
+}
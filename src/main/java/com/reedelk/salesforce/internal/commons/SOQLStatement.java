@@ -0,0 +1,101 @@
+package com.reedelk.salesforce.internal.commons;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// A SOQL query split in its select list, object and condition, so that further conditions
+// can be added to it. Only queries selecting from a single object, optionally with a WHERE
+// condition, are supported: ordering, grouping and limits would not survive a split in
+// independent partitions.
+public class SOQLStatement {
+
+    private static final Set<String> UNSUPPORTED_CLAUSES = new HashSet<>(Arrays.asList(
+            "GROUP", "HAVING", "ORDER", "LIMIT", "OFFSET", "WITH", "FOR"));
+
+    private final String select;
+    private final String objectName;
+    private final String condition;
+
+    private SOQLStatement(String select, String objectName, String condition) {
+        this.select = select;
+        this.objectName = objectName;
+        this.condition = condition;
+    }
+
+    // Returns null when the query is not supported.
+    public static SOQLStatement parse(String query) {
+        String select = null;
+        String objectName = null;
+        int whereEnd = -1;
+
+        int depth = 0;
+        boolean quoted = false;
+        int index = 0;
+        while (index < query.length()) {
+            char current = query.charAt(index);
+            if (quoted) {
+                if (current == '\\') index++;
+                else if (current == '\'') quoted = false;
+                index++;
+            } else if (current == '\'') {
+                quoted = true;
+                index++;
+            } else if (current == '(') {
+                depth++;
+                index++;
+            } else if (current == ')') {
+                depth--;
+                index++;
+            } else if (Character.isLetter(current) && depth == 0 && (index == 0 || !isIdentifierPart(query.charAt(index - 1)))) {
+                int wordEnd = index;
+                while (wordEnd < query.length() && isIdentifierPart(query.charAt(wordEnd))) wordEnd++;
+                String word = query.substring(index, wordEnd).toUpperCase();
+                if (objectName == null && "FROM".equals(word)) {
+                    select = query.substring(0, index).trim();
+                    int nameStart = wordEnd;
+                    while (nameStart < query.length() && Character.isWhitespace(query.charAt(nameStart))) nameStart++;
+                    int nameEnd = nameStart;
+                    while (nameEnd < query.length() && isIdentifierPart(query.charAt(nameEnd))) nameEnd++;
+                    objectName = query.substring(nameStart, nameEnd);
+                    wordEnd = nameEnd;
+                } else if (objectName != null) {
+                    // Only a WHERE condition may follow the object: no alias, scope or other clause.
+                    if (whereEnd < 0) {
+                        if (!"WHERE".equals(word)) return null;
+                        whereEnd = wordEnd;
+                    } else if (UNSUPPORTED_CLAUSES.contains(word)) {
+                        return null;
+                    }
+                }
+                index = wordEnd;
+            } else {
+                index++;
+            }
+        }
+
+        if (objectName == null || objectName.isEmpty() || select.isEmpty()) return null;
+        String condition = whereEnd < 0 ? null : query.substring(whereEnd).trim();
+        return new SOQLStatement(select, objectName, condition == null || condition.isEmpty() ? null : condition);
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public String and(String extraCondition) {
+        return select + " FROM " + objectName + " WHERE " +
+                (condition == null ? extraCondition : "(" + condition + ") AND " + extraCondition);
+    }
+
+    // e.g. SELECT CreatedDate FROM Account WHERE ... ORDER BY CreatedDate ASC LIMIT 1
+    public String first(String field, boolean ascending) {
+        return "SELECT " + field + " FROM " + objectName +
+                (condition == null ? "" : " WHERE " + condition) +
+                " ORDER BY " + field + (ascending ? " ASC" : " DESC") + " LIMIT 1";
+    }
+
+    private static boolean isIdentifierPart(char character) {
+        return Character.isLetterOrDigit(character) || character == '_' || character == '.';
+    }
+}
@@ -0,0 +1,10 @@
+package com.reedelk.salesforce.internal.exception;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+
+public class ConcurrencyLimitExceeded extends PlatformException {
+
+    public ConcurrencyLimitExceeded(String message) {
+        super(message);
+    }
+}
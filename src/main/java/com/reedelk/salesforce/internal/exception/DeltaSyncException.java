@@ -0,0 +1,14 @@
+package com.reedelk.salesforce.internal.exception;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+
+public class DeltaSyncException extends PlatformException {
+
+    public DeltaSyncException(String message) {
+        super(message);
+    }
+
+    public DeltaSyncException(String message, Throwable exception) {
+        super(message, exception);
+    }
+}
@@ -0,0 +1,14 @@
+package com.reedelk.salesforce.internal.exception;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+
+public class RecordsDeletedException extends PlatformException {
+
+    public RecordsDeletedException(String message) {
+        super(message);
+    }
+
+    public RecordsDeletedException(String message, Throwable exception) {
+        super(message, exception);
+    }
+}
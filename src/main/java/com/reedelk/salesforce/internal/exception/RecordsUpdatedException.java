@@ -0,0 +1,14 @@
+package com.reedelk.salesforce.internal.exception;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+
+public class RecordsUpdatedException extends PlatformException {
+
+    public RecordsUpdatedException(String message) {
+        super(message);
+    }
+
+    public RecordsUpdatedException(String message, Throwable exception) {
+        super(message, exception);
+    }
+}
@@ -0,0 +1,10 @@
+package com.reedelk.salesforce.internal.exception;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+
+public class RequestTimeoutException extends PlatformException {
+
+    public RequestTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -10,6 +10,7 @@ public class HttpAccessToken {
     private final String signature;
     private final String instanceUrl;
     private final String accessToken;
+    private final String authorization;
 
     private HttpAccessToken(String accessToken, String instanceUrl, String id, String tokenType, String issuedAt, String signature) {
         this.id = id;
@@ -18,12 +19,17 @@ public class HttpAccessToken {
         this.tokenType = tokenType;
         this.accessToken = accessToken;
         this.instanceUrl = instanceUrl;
+        this.authorization = HttpHeaders.authorization(accessToken);
     }
 
     public String getAccessToken() {
         return accessToken;
     }
 
+    public String getAuthorization() {
+        return authorization;
+    }
+
     public String getIssuedAt() {
         return issuedAt;
     }
@@ -59,7 +65,7 @@ public class HttpAccessToken {
     // Salesforce serialized Access Token Response
     public static HttpAccessToken from(JSONObject jsonObject) {
         String accessToken = jsonObject.getString("access_token");
-        String instanceUrl = jsonObject.getString("instance_url");
+        String instanceUrl = jsonObject.optString("instance_url", null);
         String id = jsonObject.getString("id");
         String tokenType = jsonObject.getString("token_type");
         String issuedAt = jsonObject.getString("issued_at");
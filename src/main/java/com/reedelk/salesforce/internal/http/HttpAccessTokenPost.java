@@ -1,20 +1,22 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpPost;
+import com.reedelk.salesforce.internal.commons.FormEntity;
+import com.reedelk.salesforce.spi.Operation;
 
-import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.Map;
 
-public class HttpAccessTokenPost extends HttpPost implements HttpBaseRequest {
+public class HttpAccessTokenPost extends HttpBaseRequest {
 
-    public HttpAccessTokenPost(String authorizationUrl, List<NameValuePair> params) {
-        super(authorizationUrl);
-        setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+    public HttpAccessTokenPost(String authorizationUrl, Map<String, String> params) {
+        super(POST, authorizationUrl, FormEntity.from(params));
     }
     @Override
-    public void setAccessToken(String accessToken) {
+    public void setAccessToken(HttpAccessToken accessToken) {
 
     }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.TOKEN;
+    }
 }
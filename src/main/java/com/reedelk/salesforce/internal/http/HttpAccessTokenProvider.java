@@ -2,59 +2,92 @@ package com.reedelk.salesforce.internal.http;
 
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
 import com.reedelk.salesforce.internal.commons.Default;
 import com.reedelk.salesforce.internal.commons.Messages;
 import com.reedelk.salesforce.internal.exception.TokenProviderException;
-import org.apache.http.NameValuePair;
-import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONObject;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 class HttpAccessTokenProvider {
 
     private static final String GRANT_TYPE = "password";
 
-    private static final Map<String, String> CONFIGURATION_TOKEN_MAP = new HashMap<>();
+    private static final Map<String, HttpAccessToken> CONFIGURATION_TOKEN_MAP = new HashMap<>();
 
-    public static synchronized String provide(SalesforceConfiguration configuration, ProcessorSync processorSync) {
-        if (CONFIGURATION_TOKEN_MAP.containsKey(configuration.getId())) {
-            return CONFIGURATION_TOKEN_MAP.get(configuration.getId());
-        }
+    // A lock rather than synchronized methods, so that callers with a deadline
+    // stop waiting when another caller is slow fetching the token.
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    public static HttpAccessToken provide(SalesforceConfiguration configuration, ProcessorSync processorSync) {
+        return provide(configuration, processorSync, null);
+    }
 
-        HttpAccessToken accessToken = request(configuration, processorSync);
-        CONFIGURATION_TOKEN_MAP.put(configuration.getId(), accessToken.getAccessToken());
-        return accessToken.getAccessToken();
+    public static HttpAccessToken provide(SalesforceConfiguration configuration, ProcessorSync processorSync, Deadline deadline) {
+        lock(deadline);
+        try {
+            if (CONFIGURATION_TOKEN_MAP.containsKey(configuration.getId())) {
+                return CONFIGURATION_TOKEN_MAP.get(configuration.getId());
+            }
+
+            HttpAccessToken accessToken = request(configuration, processorSync, deadline);
+            CONFIGURATION_TOKEN_MAP.put(configuration.getId(), accessToken);
+            return accessToken;
+        } finally {
+            LOCK.unlock();
+        }
     }
 
-    public static synchronized void refresh(SalesforceConfiguration configuration, ProcessorSync processorSync) {
-        HttpAccessToken newToken = request(configuration, processorSync);
-        CONFIGURATION_TOKEN_MAP.put(configuration.getId(), newToken.getAccessToken());
+    public static void refresh(SalesforceConfiguration configuration, ProcessorSync processorSync, Deadline deadline) {
+        lock(deadline);
+        try {
+            HttpAccessToken newToken = request(configuration, processorSync, deadline);
+            CONFIGURATION_TOKEN_MAP.put(configuration.getId(), newToken);
+        } finally {
+            LOCK.unlock();
+        }
     }
 
     public static void release(SalesforceConfiguration configuration) {
         CONFIGURATION_TOKEN_MAP.remove(configuration.getId());
     }
 
-    private static HttpAccessToken request(SalesforceConfiguration configuration, ProcessorSync processorSync) {
+    private static void lock(Deadline deadline) {
+        if (deadline == null) {
+            LOCK.lock();
+            return;
+        }
+        try {
+            if (!LOCK.tryLock(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) throw deadline.exceeded();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw deadline.exceeded();
+        }
+    }
+
+    private static HttpAccessToken request(SalesforceConfiguration configuration, ProcessorSync processorSync, Deadline deadline) {
         String authorizationUrl = Optional.ofNullable(configuration.getAuthorizationURL()).orElse(Default.AUTHORIZATION_URL);
-        List<NameValuePair> params = createUrlEncodedFormEntity(configuration);
+        Map<String, String> params = createUrlEncodedFormEntity(configuration);
         HttpAccessTokenPost request = new HttpAccessTokenPost(authorizationUrl, params);
-        String result = HttpRequestExecutor.execute(request, configuration, processorSync, cause -> {
+        HttpResult result = HttpRequestExecutor.execute(request, configuration, processorSync, cause -> {
             String message = Messages.TokenProvider.TOKEN_FETCH_ERROR.format(cause);
             return new TokenProviderException(message);
-        });
-        JSONObject responseToken = new JSONObject(result);
+        }, null, deadline, TrafficLane.INTERACTIVE);
+        JSONObject responseToken = new JSONObject(result.getBody());
         return HttpAccessToken.from(responseToken);
     }
 
-    private static List<NameValuePair> createUrlEncodedFormEntity(SalesforceConfiguration configuration) {
-        List<NameValuePair> params = new ArrayList<>();
-        params.add(new BasicNameValuePair("grant_type", GRANT_TYPE));
-        params.add(new BasicNameValuePair("client_id", configuration.getClientId()));
-        params.add(new BasicNameValuePair("client_secret", configuration.getClientSecret()));
-        params.add(new BasicNameValuePair("username", configuration.getUsername()));
-        params.add(new BasicNameValuePair("password", configuration.getPassword()));
+    private static Map<String, String> createUrlEncodedFormEntity(SalesforceConfiguration configuration) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("grant_type", GRANT_TYPE);
+        params.put("client_id", configuration.getClientId());
+        params.put("client_secret", configuration.getClientSecret());
+        params.put("username", configuration.getUsername());
+        params.put("password", configuration.getPassword());
         return params;
     }
 }
@@ -0,0 +1,69 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.ApiVersion;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.reedelk.salesforce.internal.commons.Default.*;
+
+// Request paths relative to the instance URL, precompiled once per configuration
+// and object so that building a request only appends the record specific parts.
+public class HttpApiPath {
+
+    private final String sobjects;
+    private final String query;
+
+    private HttpApiPath(String apiVersion) {
+        String api = SALESFORCE_API_PATH + apiVersion;
+        this.sobjects = api + SALESFORCE_SOBJECTS_PATH;
+        this.query = api + SALESFORCE_QUERY_PATH;
+    }
+
+    public static HttpApiPath of(SalesforceConfiguration configuration) {
+        return new HttpApiPath(ApiVersion.of(configuration));
+    }
+
+    // e.g. /services/data/v49.0/sobjects/Account/
+    public String object(String objectName) {
+        return sobjects + objectName + "/";
+    }
+
+    // e.g. /services/data/v49.0/sobjects/Account/describe/
+    public String describe(String objectName) {
+        return sobjects + objectName + SALESFORCE_DESCRIBE_PATH;
+    }
+
+    // e.g. /services/data/v49.0/sobjects/Account/updated/?start=2020-10-01T00%3A00%3A00%2B00%3A00&end=...
+    public String updated(String objectName, String windowQuery) {
+        return sobjects + objectName + SALESFORCE_UPDATED_PATH + windowQuery;
+    }
+
+    // e.g. /services/data/v49.0/sobjects/Account/deleted/?start=2020-10-01T00%3A00%3A00%2B00%3A00&end=...
+    public String deleted(String objectName, String windowQuery) {
+        return sobjects + objectName + SALESFORCE_DELETED_PATH + windowQuery;
+    }
+
+    // e.g. /services/data/v49.0/query/?q=SELECT+Id+FROM+Account
+    public String query(String encodedQuery) {
+        return query + encodedQuery;
+    }
+
+    // e.g. ?fields=Id,Name
+    public static String fields(List<String> fields) {
+        return SALESFORCE_FIELDS_QUERY + String.join(",", fields);
+    }
+
+    // e.g. SELECT+Id+FROM+Account
+    public static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException exception) {
+            // UTF-8 is always supported.
+            throw new IllegalStateException(exception);
+        }
+    }
+}
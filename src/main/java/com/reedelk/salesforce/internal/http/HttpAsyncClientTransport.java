@@ -0,0 +1,258 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.Disposables;
+import com.reedelk.salesforce.internal.commons.Messages;
+import com.reedelk.salesforce.internal.metrics.ConnectionPoolSnapshot;
+import com.reedelk.salesforce.internal.metrics.Metrics;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.DefaultHttpClientIODispatch;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.HttpAsyncRequestExecutor;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// HTTP/1.1 transport on Apache HttpAsyncClient 4: a pool of persistent connections per configuration,
+// with responses streamed (and decompressed) as they arrive. With a shared IO reactor the pools of
+// all the opting in configurations are served by a single IO reactor and its dispatcher threads,
+// each pool keeping its own connection limit, keep-alive duration and time to live.
+class HttpAsyncClientTransport implements HttpTransport {
+
+    private static SharedReactor shared;
+
+    private final CloseableHttpAsyncClient client;
+    private final PoolingNHttpClientConnectionManager pool;
+    private final ScheduledFuture<?> eviction;
+    private final boolean sharedReactor;
+
+    private HttpAsyncClientTransport(CloseableHttpAsyncClient client,
+                                     PoolingNHttpClientConnectionManager pool,
+                                     ScheduledFuture<?> eviction,
+                                     boolean sharedReactor) {
+        this.client = client;
+        this.pool = pool;
+        this.eviction = eviction;
+        this.sharedReactor = sharedReactor;
+    }
+
+    static HttpTransport create(SalesforceConfiguration configuration, int maxConnections) {
+        boolean sharedReactor = Boolean.TRUE.equals(configuration.getSharedIOReactor());
+        long keepAliveMillis = HttpConnectionEvictor.keepAliveMillis(configuration);
+        long timeToLiveMillis = HttpConnectionEvictor.timeToLiveMillis(configuration);
+        ConnectingIOReactor reactor = sharedReactor ? acquireShared() : createIO();
+        PoolingNHttpClientConnectionManager pool = createConnectionPool(reactor, maxConnections, timeToLiveMillis);
+        // A client with a shared connection manager does not run the IO reactor, nor shut it down when closed.
+        CloseableHttpAsyncClient httpClient = createHttpClient(pool, createRequestConfig(), keepAliveMillis, sharedReactor);
+        httpClient.start();
+        ScheduledFuture<?> eviction = HttpConnectionEvictor.register(configuration, pool);
+        Metrics.registerPool(configuration, () -> {
+            PoolStats stats = pool.getTotalStats();
+            return new ConnectionPoolSnapshot(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+        });
+        return new HttpAsyncClientTransport(httpClient, pool, eviction, sharedReactor);
+    }
+
+    private static synchronized ConnectingIOReactor acquireShared() {
+        if (shared == null) {
+            shared = new SharedReactor(createIO());
+            shared.start();
+        }
+        shared.users++;
+        return shared.reactor;
+    }
+
+    private static synchronized void releaseShared() {
+        if (shared != null && --shared.users == 0) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpBaseResponse> send(HttpBaseRequest request, RequestTraceRecorder trace, Deadline deadline) {
+        return execute(request, trace);
+    }
+
+    private CompletableFuture<HttpBaseResponse> execute(HttpBaseRequest request, RequestTraceRecorder trace) {
+        HttpAsyncResponseConsumer<HttpBaseResponse> consumer = request instanceof HttpSOQLQueryStream ?
+                new HttpRecordStreamConsumer((HttpSOQLQueryStream) request) :
+                new HttpResponseConsumer();
+        HttpAsyncRequestProducer producer = HttpAsyncMethods.create(toRequest(request));
+        if (trace != null) {
+            HttpTracingExchange exchange = new HttpTracingExchange(trace);
+            producer = exchange.producer(producer);
+            consumer = exchange.consumer(consumer);
+        }
+
+        CompletableFuture<HttpBaseResponse> result = new CompletableFuture<>();
+        Future<HttpBaseResponse> exchange = client.execute(producer, consumer, new FutureCallback<HttpBaseResponse>() {
+            @Override
+            public void completed(HttpBaseResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception exception) {
+                result.completeExceptionally(exception);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        result.whenComplete((response, exception) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        eviction.cancel(false);
+        Disposables.closeSilently(client);
+        if (sharedReactor) {
+            // Shutting down the pool would shut down the shared IO reactor: its connections are closed instead.
+            HttpConnectionEvictor.drain(pool);
+            releaseShared();
+        }
+    }
+
+    // A client request of its own for each exchange: a retry or a hedge does not share the
+    // execution state (nor the body being written) of another attempt.
+    private static HttpUriRequest toRequest(HttpBaseRequest request) {
+        RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getURI());
+        request.getHeaders().forEach(builder::setHeader);
+        if (request.getBody() != null) builder.setEntity(new HttpAsyncRequestEntity(request.getBody()));
+        return builder.build();
+    }
+
+    // Status code and headers only.
+    static HttpBaseResponse.Builder responseOf(HttpResponse response) {
+        HttpBaseResponse.Builder result = HttpBaseResponse.builder(response.getStatusLine().getStatusCode());
+        for (Header header : response.getAllHeaders()) {
+            result.header(header.getName(), header.getValue());
+        }
+        return result;
+    }
+
+    private static PoolingNHttpClientConnectionManager createConnectionPool(ConnectingIOReactor connectingIOReactor,
+                                                                            int maxConnections,
+                                                                            long timeToLiveMillis) {
+        Registry<SchemeIOSessionStrategy> sessionStrategies = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                .build();
+        PoolingNHttpClientConnectionManager pool = new PoolingNHttpClientConnectionManager(
+                connectingIOReactor,
+                null,
+                sessionStrategies,
+                null,
+                null,
+                timeToLiveMillis,
+                TimeUnit.MILLISECONDS);
+        pool.setDefaultMaxPerRoute(maxConnections);
+        pool.setMaxTotal(maxConnections);
+        return pool;
+    }
+
+    private static CloseableHttpAsyncClient createHttpClient(PoolingNHttpClientConnectionManager pool,
+                                                            RequestConfig requestConfig,
+                                                            long keepAliveMillis,
+                                                            boolean sharedPool) {
+        return HttpAsyncClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionManager(pool)
+                .setConnectionManagerShared(sharedPool)
+                .setKeepAliveStrategy((response, context) -> {
+                    // The server keep-alive timeout if shorter, otherwise the configured duration.
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                .build();
+    }
+
+    private static RequestConfig createRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Default.CONNECTION_REQUEST_TIMEOUT)
+                .setSocketTimeout(Default.SOCKET_TIMEOUT)
+                .setConnectTimeout(Default.CONNECT_TIMEOUT)
+                .build();
+    }
+
+    private static DefaultConnectingIOReactor createIO() {
+        try {
+            return new DefaultConnectingIOReactor();
+        } catch (IOReactorException exception) {
+            String message = Messages.HttpClient.IO_REACTOR_ERROR.format(exception.getMessage());
+            throw new PlatformException(message, exception);
+        }
+    }
+
+    // The IO reactor shared by the connection pools, run by its own thread until the last pool is released.
+    private static class SharedReactor {
+
+        private static final Logger logger = LoggerFactory.getLogger(SharedReactor.class);
+
+        final DefaultConnectingIOReactor reactor;
+        final Thread thread;
+        int users;
+
+        SharedReactor(DefaultConnectingIOReactor reactor) {
+            this.reactor = reactor;
+            this.thread = new Thread(this::execute, "salesforce-shared-io-reactor");
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void shutdown() {
+            try {
+                reactor.shutdown(Default.IO_REACTOR_SHUTDOWN_MILLIS);
+            } catch (IOException exception) {
+                logger.warn("Could not shut down the shared IO reactor", exception);
+            }
+        }
+
+        private void execute() {
+            try {
+                reactor.execute(new DefaultHttpClientIODispatch<>(new HttpAsyncRequestExecutor(), ConnectionConfig.DEFAULT));
+            } catch (Exception exception) {
+                logger.error("The shared IO reactor terminated", exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+// The request body as an HttpAsyncClient 4 entity, written chunk by chunk as the connection becomes
+// writable. Closed by the request producer after each exchange: a retry reads the body again.
+class HttpAsyncRequestEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private final HttpRequestBody body;
+
+    private HttpRequestBody.Chunks chunks;
+    private ByteBuffer chunk;
+
+    HttpAsyncRequestEntity(HttpRequestBody body) {
+        this.body = body;
+        setContentType(body.getContentType());
+        setContentEncoding(body.getContentEncoding());
+        setChunked(body.getContentLength() < 0);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return body.getContentLength();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        writeTo(content);
+        return new ByteArrayInputStream(content.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        HttpRequestBody.Chunks all = body.chunks();
+        try {
+            ByteBuffer next;
+            while ((next = all.next()) != null) {
+                outputStream.write(next.array(), next.arrayOffset() + next.position(), next.remaining());
+            }
+            outputStream.flush();
+        } finally {
+            all.close();
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public synchronized void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+        if (chunks == null) chunks = body.chunks();
+        while (true) {
+            if (chunk != null && chunk.hasRemaining()) {
+                encoder.write(chunk);
+                // The channel is full: resume when it is writable again.
+                if (chunk.hasRemaining()) return;
+            }
+            chunk = chunks.next();
+            if (chunk == null) {
+                encoder.complete();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (chunks != null) chunks.close();
+        chunks = null;
+        chunk = null;
+    }
+}
@@ -3,35 +3,104 @@ package com.reedelk.salesforce.internal.http;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.exception.PlatformException;
 import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.InstanceURL;
 import com.reedelk.salesforce.internal.exception.Unauthorized;
+import com.reedelk.salesforce.internal.metrics.Metrics;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.internal.trace.Tracing;
+import com.reedelk.salesforce.spi.Phase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
 import java.util.function.Function;
 
 public class HttpAuthAwareRequestExecutor {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpAuthAwareRequestExecutor.class);
 
-    public static String execute(HttpBaseRequest request,
-                                 SalesforceConfiguration configuration,
-                                 ProcessorSync processorSync,
-                                 Function<String,? extends PlatformException> exceptionSupplier) {
-        String token = HttpAccessTokenProvider.provide(configuration, processorSync);
+    public static HttpResult execute(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     ProcessorSync processorSync,
+                                     Function<String,? extends PlatformException> exceptionSupplier) {
+        return execute(request, configuration, processorSync, exceptionSupplier, null, TrafficLane.INTERACTIVE);
+    }
+
+    public static HttpResult execute(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     ProcessorSync processorSync,
+                                     Function<String,? extends PlatformException> exceptionSupplier,
+                                     Deadline deadline,
+                                     TrafficLane lane) {
+        TrafficLane trafficLane = HttpLanes.of(lane);
+        // Streamed records go to the sink of one caller only, hence the request can't be shared.
+        if (isIdempotent(request) && !(request instanceof HttpSOQLQueryStream)) {
+            return HttpRequestCoalescer.execute(request, configuration, deadline, trafficLane, exceptionSupplier,
+                    () -> executeWithAuth(request, configuration, processorSync, exceptionSupplier, deadline, trafficLane));
+        } else {
+            return executeWithAuth(request, configuration, processorSync, exceptionSupplier, deadline, trafficLane);
+        }
+    }
+
+    private static HttpResult executeWithAuth(HttpBaseRequest request,
+                                              SalesforceConfiguration configuration,
+                                              ProcessorSync processorSync,
+                                              Function<String,? extends PlatformException> exceptionSupplier,
+                                              Deadline deadline,
+                                              TrafficLane lane) {
+        RequestTraceRecorder trace = RequestTraceRecorder.of(configuration);
+        try {
+            // The rate limiter permits are taken by each attempt: see HttpRequestExecutor.
+            return executeWithToken(request, configuration, processorSync, exceptionSupplier, trace, deadline, lane);
+        } finally {
+            Tracing.publish(configuration, request.getOperation(), request.getURI(), trace);
+        }
+    }
+
+    private static HttpResult executeWithToken(HttpBaseRequest request,
+                                               SalesforceConfiguration configuration,
+                                               ProcessorSync processorSync,
+                                               Function<String,? extends PlatformException> exceptionSupplier,
+                                               RequestTraceRecorder trace,
+                                               Deadline deadline,
+                                               TrafficLane lane) {
+        long tokenStart = System.nanoTime();
+        HttpAccessToken token = HttpAccessTokenProvider.provide(configuration, processorSync, deadline);
+        if (trace != null) trace.addSince(Phase.TOKEN, tokenStart);
         if (logger.isDebugEnabled()) {
-            logger.debug("Auth Token: " + token);
+            logger.debug("Auth Token: " + token.getAccessToken());
         }
+        resolve(request, configuration, token);
         request.setAccessToken(token);
         try {
-            return HttpRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier);
+            return HttpRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier, trace, deadline, lane);
         } catch (Unauthorized unauthorized) {
-            HttpAccessTokenProvider.refresh(configuration, processorSync);
-            String newToken = HttpAccessTokenProvider.provide(configuration, processorSync);
+            Metrics.recordTokenRefresh(configuration);
+            long refreshStart = System.nanoTime();
+            HttpAccessTokenProvider.refresh(configuration, processorSync, deadline);
+            HttpAccessToken newToken = HttpAccessTokenProvider.provide(configuration, processorSync, deadline);
+            if (trace != null) trace.addBetweenAttempts(Phase.TOKEN, refreshStart);
             if (logger.isDebugEnabled()) {
-                logger.debug("Refreshed, Auth Token: " + newToken);
+                logger.debug("Refreshed, Auth Token: " + newToken.getAccessToken());
             }
             request.setAccessToken(newToken);
-            return HttpRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier);
+            return HttpRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier, trace, deadline, lane);
         }
     }
+
+    // Requests are built relative to the instance, e.g. /services/data/v49.0/sobjects/Account/001D000000INjVeIAL,
+    // and sent straight to the instance serving the org (My Domain or pod) once the token is known.
+    private static void resolve(HttpBaseRequest request, SalesforceConfiguration configuration, HttpAccessToken token) {
+        URI uri = request.getURI();
+        if (!uri.isAbsolute()) {
+            String instanceUrl = InstanceURL.of(configuration, token.getInstanceUrl());
+            request.setURI(URI.create(instanceUrl + uri.toString()));
+        }
+    }
+
+    private static boolean isIdempotent(HttpBaseRequest request) {
+        return HttpBaseRequest.GET.equals(request.getMethod());
+    }
 }
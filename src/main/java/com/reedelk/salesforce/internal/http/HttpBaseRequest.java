@@ -1,9 +1,68 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpUriRequest;
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import com.reedelk.salesforce.spi.Operation;
 
-public interface HttpBaseRequest extends HttpUriRequest {
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-    void setAccessToken(String accessToken);
+// A request to Salesforce, independent of the HTTP client library: each transport translates it
+// into a request of its own client. The content type of the body is carried by the body itself.
+public abstract class HttpBaseRequest {
 
+    public static final String GET = "GET";
+    public static final String POST = "POST";
+    public static final String PATCH = "PATCH";
+    public static final String DELETE = "DELETE";
+
+    private final String method;
+    private final HttpRequestBody body;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private volatile URI uri;
+
+    protected HttpBaseRequest(String method, String uri) {
+        this(method, uri, null);
+    }
+
+    protected HttpBaseRequest(String method, String uri, HttpRequestBody body) {
+        this.method = method;
+        this.uri = URI.create(uri);
+        this.body = body;
+    }
+
+    public abstract void setAccessToken(HttpAccessToken accessToken);
+
+    public abstract Operation getOperation();
+
+    public String getMethod() {
+        return method;
+    }
+
+    public URI getURI() {
+        return uri;
+    }
+
+    public void setURI(URI uri) {
+        this.uri = uri;
+    }
+
+    // Null when the request has no body.
+    public HttpRequestBody getBody() {
+        return body;
+    }
+
+    // The headers are set before the request is sent, e.g. not while a hedge of it is in flight.
+    public synchronized Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    }
+
+    public synchronized boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    public synchronized void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
 }
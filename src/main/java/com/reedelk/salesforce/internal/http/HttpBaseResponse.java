@@ -0,0 +1,101 @@
+package com.reedelk.salesforce.internal.http;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Map;
+import java.util.TreeMap;
+
+// A response as received by a transport, independent of the HTTP client library: its body has been
+// fully received and, if it was compressed, inflated (without the content encoding and length headers).
+public class HttpBaseResponse {
+
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final int length;
+    private final Charset charset;
+
+    private HttpBaseResponse(int statusCode, Map<String, String> headers, byte[] body, int length, Charset charset) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.length = length;
+        this.charset = charset;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // The first value of the header, or null if the response does not have it.
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    // Null when the response has no body.
+    public String getBody() {
+        return body != null ? new String(body, 0, length, charset) : null;
+    }
+
+    public int getBodyLength() {
+        return body != null ? length : 0;
+    }
+
+    static Builder builder(int statusCode) {
+        return new Builder(statusCode);
+    }
+
+    static class Builder {
+
+        private final int statusCode;
+        private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private byte[] body;
+        private int length;
+        private Charset charset = StandardCharsets.UTF_8;
+
+        private Builder(int statusCode) {
+            this.statusCode = statusCode;
+        }
+
+        Builder header(String name, String value) {
+            headers.putIfAbsent(name, value);
+            return this;
+        }
+
+        // The body has been inflated: its encoding and original length no longer apply.
+        Builder inflated() {
+            headers.remove(HttpHeaders.HEADER_CONTENT_ENCODING);
+            headers.remove(HttpHeaders.HEADER_CONTENT_LENGTH);
+            return this;
+        }
+
+        // The body is not copied. Without a charset in the content type, JSON is UTF-8 encoded.
+        Builder body(byte[] body, int length, String contentType) {
+            this.body = body;
+            this.length = length;
+            this.charset = charsetOf(contentType);
+            return this;
+        }
+
+        HttpBaseResponse build() {
+            return new HttpBaseResponse(statusCode, headers, body, length, charset);
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType == null) return StandardCharsets.UTF_8;
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (!trimmed.regionMatches(true, 0, "charset=", 0, 8)) continue;
+            String name = trimmed.substring(8).replace("\"", "").trim();
+            try {
+                return Charset.forName(name);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException exception) {
+                return StandardCharsets.UTF_8;
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
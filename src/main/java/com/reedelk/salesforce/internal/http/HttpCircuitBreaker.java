@@ -0,0 +1,59 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.HttpResponseStatus;
+import com.reedelk.salesforce.internal.exception.ConcurrencyLimitExceeded;
+import com.reedelk.salesforce.internal.exception.RequestTimeoutException;
+import net.jodah.failsafe.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+class HttpCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpCircuitBreaker.class);
+
+    private static final Map<String, CircuitBreaker<HttpBaseResponse>> CONFIG_ID_BREAKER_MAP = new ConcurrentHashMap<>();
+
+    private HttpCircuitBreaker() {
+    }
+
+    static CircuitBreaker<HttpBaseResponse> of(SalesforceConfiguration configuration) {
+        Integer failureRate = configuration.getCircuitBreakerFailureRate();
+        if (failureRate == null || failureRate <= 0) return null;
+        return CONFIG_ID_BREAKER_MAP.computeIfAbsent(configuration.getId(), configId -> create(configId, configuration));
+    }
+
+    static void release(SalesforceConfiguration configuration) {
+        CONFIG_ID_BREAKER_MAP.remove(configuration.getId());
+    }
+
+    private static CircuitBreaker<HttpBaseResponse> create(String configId, SalesforceConfiguration configuration) {
+        int failureRate = Math.min(100, configuration.getCircuitBreakerFailureRate());
+        int minimumRequests = Optional.ofNullable(configuration.getCircuitBreakerMinimumRequests())
+                .orElse(Default.CIRCUIT_BREAKER_MINIMUM_REQUESTS);
+        int openDuration = Optional.ofNullable(configuration.getCircuitBreakerOpenDuration())
+                .orElse(Default.CIRCUIT_BREAKER_OPEN_DURATION_SECONDS);
+        int halfOpenProbes = Optional.ofNullable(configuration.getCircuitBreakerHalfOpenProbes())
+                .orElse(Default.CIRCUIT_BREAKER_HALF_OPEN_PROBES);
+
+        return new CircuitBreaker<HttpBaseResponse>()
+                // Client side rejections, the caller's own timeout and aborted exchanges say nothing about Salesforce health.
+                .handleIf(failure -> !(failure instanceof ConcurrencyLimitExceeded ||
+                        failure instanceof RequestTimeoutException ||
+                        failure instanceof CancellationException))
+                .handleResultIf(response -> HttpResponseStatus.isOverloaded(response.getStatusCode()))
+                .withFailureRateThreshold(failureRate, minimumRequests, Duration.ofSeconds(Default.CIRCUIT_BREAKER_PERIOD_SECONDS))
+                .withSuccessThreshold(halfOpenProbes)
+                .withDelay(Duration.ofSeconds(openDuration))
+                .onOpen(() -> logger.warn("Circuit breaker opened (configuration id=[" + configId + "])"))
+                .onHalfOpen(() -> logger.info("Circuit breaker half-open (configuration id=[" + configId + "])"))
+                .onClose(() -> logger.info("Circuit breaker closed (configuration id=[" + configId + "])"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+// The request body as an HttpClient 5 entity producer, written chunk by chunk as the connection
+// (or the HTTP/2 stream window) accepts it, instead of being copied into a buffer first.
+class HttpClient5EntityProducer implements AsyncEntityProducer {
+
+    private final HttpRequestBody body;
+
+    private HttpRequestBody.Chunks chunks;
+    private ByteBuffer chunk;
+
+    HttpClient5EntityProducer(HttpRequestBody body) {
+        this.body = body;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return body.getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return body.getContentType();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return body.getContentEncoding();
+    }
+
+    @Override
+    public boolean isChunked() {
+        return body.getContentLength() < 0;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return null;
+    }
+
+    @Override
+    public int available() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public synchronized void produce(DataStreamChannel channel) throws IOException {
+        if (chunks == null) chunks = body.chunks();
+        while (true) {
+            if (chunk != null && chunk.hasRemaining()) {
+                channel.write(chunk);
+                // The channel is full: produce is called again when it is writable.
+                if (chunk.hasRemaining()) return;
+            }
+            chunk = chunks.next();
+            if (chunk == null) {
+                channel.endStream();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    @Override
+    public synchronized void releaseResources() {
+        if (chunks != null) chunks.close();
+        chunks = null;
+        chunk = null;
+    }
+}
@@ -0,0 +1,171 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.JsonRecordParser;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The HttpClient 5 counterpart of the HttpRecordStreamConsumer. The flow control is credit based:
+// while the sink is full no more capacity is granted to the connection (HTTP/1.1) or to the
+// stream (HTTP/2 window update), so that the server stops sending the rest of the response.
+// The socket timeout of the connection cannot be lifted while the input is suspended: it is
+// disabled for the whole exchange and enforced by the transport through isStalled instead.
+class HttpClient5RecordStreamConsumer implements AsyncResponseConsumer<HttpBaseResponse> {
+
+    private static final int CAPACITY_INCREMENT = 32 * 1024;
+
+    private final byte[] chunk = new byte[8192];
+    private final HttpSOQLQueryStream request;
+
+    private volatile HttpBaseResponse.Builder response;
+    private volatile FutureCallback<HttpBaseResponse> resultCallback;
+    private volatile String contentType;
+    private volatile HttpContentInflater inflater;
+    private volatile JsonRecordParser parser;
+    private volatile HttpResponseContent buffered;
+    private volatile boolean responseReceived;
+    private volatile long lastActivity = System.nanoTime();
+
+    private CapacityChannel capacityChannel;
+    private boolean suspended;
+    private boolean capacityPending;
+
+    private final HttpRecordSink.Input input = new HttpRecordSink.Input() {
+        @Override
+        public void suspend() {
+            synchronized (HttpClient5RecordStreamConsumer.this) {
+                suspended = true;
+            }
+        }
+
+        @Override
+        public void resume() {
+            CapacityChannel channel;
+            lastActivity = System.nanoTime();
+            synchronized (HttpClient5RecordStreamConsumer.this) {
+                suspended = false;
+                channel = capacityPending ? capacityChannel : null;
+                capacityPending = false;
+            }
+            if (channel != null) grant(channel);
+        }
+    };
+
+    HttpClient5RecordStreamConsumer(HttpSOQLQueryStream request) {
+        this.request = request;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response,
+                                EntityDetails entityDetails,
+                                HttpContext context,
+                                FutureCallback<HttpBaseResponse> resultCallback) {
+        this.response = HttpClient5Transport.responseOf(response);
+        this.responseReceived = true;
+        this.lastActivity = System.nanoTime();
+        if (entityDetails == null) {
+            resultCallback.completed(this.response.build());
+            return;
+        }
+        this.resultCallback = resultCallback;
+        this.contentType = entityDetails.getContentType();
+        this.inflater = HttpContentInflater.of(entityDetails.getContentEncoding());
+        int status = response.getCode();
+        if (status >= 200 && status < 300) {
+            HttpRecordSink sink = request.getSink();
+            this.parser = new JsonRecordParser(request.getFields(), record -> sink.accept(request, record, input));
+        } else {
+            this.buffered = HttpResponseContent.of(entityDetails.getContentLength(), inflater != null);
+        }
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        synchronized (this) {
+            this.capacityChannel = capacityChannel;
+            if (suspended) {
+                capacityPending = true;
+                return;
+            }
+        }
+        capacityChannel.update(CAPACITY_INCREMENT);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        lastActivity = System.nanoTime();
+        OutputStream content = parser != null ? parser : buffered;
+        while (src.hasRemaining()) {
+            int read = Math.min(src.remaining(), chunk.length);
+            src.get(chunk, 0, read);
+            if (inflater != null) {
+                inflater.update(chunk, 0, read, content);
+            } else {
+                content.write(chunk, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws IOException {
+        if (inflater != null) {
+            inflater.finish();
+            response.inflated();
+        }
+        if (parser != null) {
+            byte[] summary = HttpRecordStreamConsumer.summaryOf(parser);
+            response.body(summary, summary.length, null);
+        } else if (buffered != null) {
+            response.body(buffered.bytes(), buffered.size(), contentType);
+        }
+        resultCallback.completed(response.build());
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    @Override
+    public void releaseResources() {
+        if (inflater != null) inflater.end();
+        inflater = null;
+        parser = null;
+        buffered = null;
+    }
+
+    // True when nothing has been received within the socket timeout while the input was not
+    // suspended. Before the response, the connection lease and the connect time count as well.
+    boolean isStalled() {
+        synchronized (this) {
+            if (suspended) return false;
+        }
+        long timeoutMillis = responseReceived ?
+                Default.SOCKET_TIMEOUT :
+                Default.CONNECTION_REQUEST_TIMEOUT + Default.CONNECT_TIMEOUT + Default.SOCKET_TIMEOUT;
+        return System.nanoTime() - lastActivity > TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    private static void grant(CapacityChannel channel) {
+        try {
+            channel.update(CAPACITY_INCREMENT);
+        } catch (IOException exception) {
+            // The exchange has already failed: its failure is reported by the client.
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.reedelk.salesforce.internal.http;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// The HttpClient 5 counterpart of the HttpResponseConsumer: buffers the response content in memory,
+// decompressing gzip and deflate encoded content chunk by chunk while it is read from the connection.
+class HttpClient5ResponseConsumer implements AsyncResponseConsumer<HttpBaseResponse> {
+
+    private final byte[] chunk = new byte[8192];
+
+    private volatile HttpBaseResponse.Builder response;
+    private volatile FutureCallback<HttpBaseResponse> resultCallback;
+    private volatile String contentType;
+    private volatile HttpContentInflater inflater;
+    private volatile HttpResponseContent content;
+
+    @Override
+    public void consumeResponse(HttpResponse response,
+                                EntityDetails entityDetails,
+                                HttpContext context,
+                                FutureCallback<HttpBaseResponse> resultCallback) {
+        this.response = HttpClient5Transport.responseOf(response);
+        if (entityDetails == null) {
+            resultCallback.completed(this.response.build());
+            return;
+        }
+        this.resultCallback = resultCallback;
+        this.contentType = entityDetails.getContentType();
+        this.inflater = HttpContentInflater.of(entityDetails.getContentEncoding());
+        this.content = HttpResponseContent.of(entityDetails.getContentLength(), inflater != null);
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        // The whole content is buffered: no flow control.
+        capacityChannel.update(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            int read = Math.min(src.remaining(), chunk.length);
+            src.get(chunk, 0, read);
+            if (inflater != null) {
+                inflater.update(chunk, 0, read, content);
+            } else {
+                content.write(chunk, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws IOException {
+        if (inflater != null) {
+            inflater.finish();
+            response.inflated();
+        }
+        response.body(content.bytes(), content.size(), contentType);
+        resultCallback.completed(response.build());
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    @Override
+    public void releaseResources() {
+        if (inflater != null) inflater.end();
+        inflater = null;
+        content = null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.spi.Phase;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.RequestChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// The HttpClient 5 counterpart of the HttpTracingExchange: wraps the request producer and response
+// consumer of a single attempt to record the connection, request, server and download phases.
+// With HTTP/2 the connection phase is the wait for a stream on the multiplexed connection.
+class HttpClient5TracingExchange {
+
+    private final RequestTraceRecorder trace;
+    private final long attemptStart = System.nanoTime();
+
+    private volatile long connected;
+    private volatile long requestSent;
+    private volatile long responseReceived;
+
+    HttpClient5TracingExchange(RequestTraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    AsyncRequestProducer producer(AsyncRequestProducer producer) {
+        return new TracingRequestProducer(producer);
+    }
+
+    <T> AsyncResponseConsumer<T> consumer(AsyncResponseConsumer<T> consumer) {
+        return new TracingResponseConsumer<>(consumer);
+    }
+
+    private void requestSent() {
+        requestSent = System.nanoTime();
+        if (connected > 0) trace.add(Phase.REQUEST, requestSent - connected);
+    }
+
+    private class TracingRequestProducer implements AsyncRequestProducer {
+
+        private final AsyncRequestProducer delegate;
+
+        TracingRequestProducer(AsyncRequestProducer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void sendRequest(RequestChannel channel, HttpContext context) throws HttpException, IOException {
+            // Called once a connection has been leased (and connected, if new).
+            connected = System.nanoTime();
+            trace.add(Phase.CONNECTION, connected - attemptStart);
+            delegate.sendRequest((request, entityDetails, requestContext) -> {
+                channel.sendRequest(request, entityDetails, requestContext);
+                // Without a body the request is complete once its head has been sent.
+                if (entityDetails == null) requestSent();
+            }, context);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            delegate.failed(cause);
+        }
+
+        @Override
+        public int available() {
+            return delegate.available();
+        }
+
+        @Override
+        public void produce(DataStreamChannel channel) throws IOException {
+            delegate.produce(new DataStreamChannel() {
+                @Override
+                public void requestOutput() {
+                    channel.requestOutput();
+                }
+
+                @Override
+                public int write(ByteBuffer src) throws IOException {
+                    return channel.write(src);
+                }
+
+                @Override
+                public void endStream() throws IOException {
+                    channel.endStream();
+                    requestSent();
+                }
+
+                @Override
+                public void endStream(List<? extends Header> trailers) throws IOException {
+                    channel.endStream(trailers);
+                    requestSent();
+                }
+            });
+        }
+
+        @Override
+        public void releaseResources() {
+            delegate.releaseResources();
+        }
+    }
+
+    private class TracingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+
+        private final AsyncResponseConsumer<T> delegate;
+
+        TracingResponseConsumer(AsyncResponseConsumer<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void consumeResponse(HttpResponse response,
+                                    EntityDetails entityDetails,
+                                    HttpContext context,
+                                    FutureCallback<T> resultCallback) throws HttpException, IOException {
+            responseReceived = System.nanoTime();
+            long sent = requestSent > 0 ? requestSent : connected;
+            if (sent > 0) trace.add(Phase.SERVER, responseReceived - sent);
+            Object endpoint = context.getAttribute(HttpCoreContext.CONNECTION_ENDPOINT);
+            if (endpoint instanceof EndpointDetails) {
+                trace.connectionReused(((EndpointDetails) endpoint).getRequestCount() > 1);
+            }
+            delegate.consumeResponse(response, entityDetails, context, new FutureCallback<T>() {
+                @Override
+                public void completed(T result) {
+                    trace.addSince(Phase.DOWNLOAD, responseReceived);
+                    resultCallback.completed(result);
+                }
+
+                @Override
+                public void failed(Exception exception) {
+                    resultCallback.failed(exception);
+                }
+
+                @Override
+                public void cancelled() {
+                    resultCallback.cancelled();
+                }
+            });
+        }
+
+        @Override
+        public void informationResponse(HttpResponse response, HttpContext context) throws HttpException, IOException {
+            delegate.informationResponse(response, context);
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            delegate.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer src) throws IOException {
+            delegate.consume(src);
+        }
+
+        @Override
+        public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+            delegate.streamEnd(trailers);
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            delegate.failed(cause);
+        }
+
+        @Override
+        public void releaseResources() {
+            delegate.releaseResources();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.HttpProtocol;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.metrics.ConnectionPoolSnapshot;
+import com.reedelk.salesforce.internal.metrics.Metrics;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transport on Apache HttpClient 5. With HTTP/2 all the concurrent requests are multiplexed over
+// one connection per host; with HTTP/1.1 it uses a connection pool like the HttpAsyncClient 4 transport.
+// Request bodies are written chunk by chunk; response bodies are buffered, compressed ones inflated
+// while they are read, and the records of the streamed queries are parsed while being read.
+// Retries and redirects are left to the request executor, as for the other transport.
+class HttpClient5Transport implements HttpTransport {
+
+    private static final ScheduledExecutorService STALLS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "salesforce-query-stream-stalls");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The read timeout of the streamed pages is checked by the transport instead (see stream).
+    private static final RequestConfig STREAM_REQUEST_CONFIG = RequestConfig.copy(createRequestConfig())
+            .setResponseTimeout(Timeout.DISABLED)
+            .build();
+
+    private final CloseableHttpAsyncClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private HttpClient5Transport(CloseableHttpAsyncClient client) {
+        this.client = client;
+    }
+
+    static HttpTransport create(SalesforceConfiguration configuration, int maxConnections) {
+        boolean http2 = configuration.getProtocol() == HttpProtocol.HTTP_2;
+        CloseableHttpAsyncClient client = http2 ?
+                createHttp2Client(configuration) :
+                createHttp1Client(configuration, maxConnections);
+        client.start();
+        HttpClient5Transport transport = new HttpClient5Transport(client);
+        if (http2) {
+            // No pool to report: the streams in flight on the multiplexed connection instead.
+            Metrics.registerPool(configuration, () ->
+                    new ConnectionPoolSnapshot(transport.inFlight.get(), 0, 0, maxConnections));
+        }
+        return transport;
+    }
+
+    @Override
+    public CompletableFuture<HttpBaseResponse> send(HttpBaseRequest request, RequestTraceRecorder trace, Deadline deadline) {
+        CompletableFuture<HttpBaseResponse> result = new CompletableFuture<>();
+        inFlight.incrementAndGet();
+        result.whenComplete((response, exception) -> inFlight.decrementAndGet());
+        AsyncRequestProducer producer = toRequestProducer(request);
+        Future<?> exchange = request instanceof HttpSOQLQueryStream ?
+                stream((HttpSOQLQueryStream) request, producer, trace, result) :
+                execute(producer, new HttpClient5ResponseConsumer(), HttpClientContext.create(), trace, result);
+        result.whenComplete((response, exception) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    // The records are parsed while the response is read, with flow control on the sink capacity.
+    // The exchange fails with a read timeout only if it stalls while its input is not suspended.
+    private Future<HttpBaseResponse> stream(HttpSOQLQueryStream request,
+                                            AsyncRequestProducer producer,
+                                            RequestTraceRecorder trace,
+                                            CompletableFuture<HttpBaseResponse> result) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(STREAM_REQUEST_CONFIG);
+        HttpClient5RecordStreamConsumer consumer = new HttpClient5RecordStreamConsumer(request);
+        Future<HttpBaseResponse> exchange = execute(producer, consumer, context, trace, result);
+        long interval = Default.RECORD_STREAM_STALL_CHECK_INTERVAL_MILLIS;
+        ScheduledFuture<?> stallCheck = STALLS.scheduleWithFixedDelay(() -> {
+            if (consumer.isStalled()) {
+                result.completeExceptionally(new SocketTimeoutException("Read timed out"));
+                exchange.cancel(true);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        result.whenComplete((response, exception) -> stallCheck.cancel(false));
+        return exchange;
+    }
+
+    private Future<HttpBaseResponse> execute(AsyncRequestProducer producer,
+                                             AsyncResponseConsumer<HttpBaseResponse> consumer,
+                                             HttpClientContext context,
+                                             RequestTraceRecorder trace,
+                                             CompletableFuture<HttpBaseResponse> result) {
+        if (trace != null) {
+            HttpClient5TracingExchange exchange = new HttpClient5TracingExchange(trace);
+            producer = exchange.producer(producer);
+            consumer = exchange.consumer(consumer);
+        }
+        return client.execute(producer, consumer, context, new FutureCallback<HttpBaseResponse>() {
+            @Override
+            public void completed(HttpBaseResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception exception) {
+                result.completeExceptionally(exception);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    private static CloseableHttpAsyncClient createHttp2Client(SalesforceConfiguration configuration) {
+        return H2AsyncClientBuilder.create()
+                .setDefaultRequestConfig(createRequestConfig())
+                .setIOReactorConfig(createIOReactorConfig())
+                .setH2Config(H2Config.DEFAULT)
+                .evictIdleConnections(TimeValue.ofMilliseconds(HttpConnectionEvictor.keepAliveMillis(configuration)))
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                .build();
+    }
+
+    private static CloseableHttpAsyncClient createHttp1Client(SalesforceConfiguration configuration, int maxConnections) {
+        PoolingAsyncClientConnectionManager pool = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(maxConnections)
+                .setMaxConnTotal(maxConnections)
+                .setConnectionTimeToLive(TimeValue.ofMilliseconds(HttpConnectionEvictor.timeToLiveMillis(configuration)))
+                .build();
+        Metrics.registerPool(configuration, () -> {
+            PoolStats stats = pool.getTotalStats();
+            return new ConnectionPoolSnapshot(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+        });
+        return HttpAsyncClientBuilder.create()
+                .setDefaultRequestConfig(createRequestConfig())
+                .setIOReactorConfig(createIOReactorConfig())
+                .setConnectionManager(pool)
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(HttpConnectionEvictor.keepAliveMillis(configuration)))
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                .build();
+    }
+
+    private static RequestConfig createRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Default.CONNECTION_REQUEST_TIMEOUT, TimeUnit.MILLISECONDS)
+                .setConnectTimeout(Default.CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)
+                .setResponseTimeout(Default.SOCKET_TIMEOUT, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static IOReactorConfig createIOReactorConfig() {
+        return IOReactorConfig.custom()
+                .setSoTimeout(Timeout.ofMilliseconds(Default.SOCKET_TIMEOUT))
+                .setTcpNoDelay(true)
+                .build();
+    }
+
+    // A request producer of its own for each exchange. The content type, encoding and length
+    // headers are added by the client from the body.
+    private static AsyncRequestProducer toRequestProducer(HttpBaseRequest request) {
+        AsyncRequestBuilder builder = AsyncRequestBuilder.create(request.getMethod()).setUri(request.getURI());
+        request.getHeaders().forEach(builder::setHeader);
+        if (request.getBody() != null) builder.setEntity(new HttpClient5EntityProducer(request.getBody()));
+        return builder.build();
+    }
+
+    // Status code and headers only.
+    static HttpBaseResponse.Builder responseOf(HttpResponse response) {
+        HttpBaseResponse.Builder result = HttpBaseResponse.builder(response.getCode());
+        for (Header header : response.getHeaders()) {
+            result.header(header.getName(), header.getValue());
+        }
+        return result;
+    }
+}
@@ -1,18 +1,15 @@
 package com.reedelk.salesforce.internal.http;
 
 import com.reedelk.runtime.api.component.ProcessorSync;
-import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.HttpClientType;
+import com.reedelk.salesforce.component.HttpProtocol;
 import com.reedelk.salesforce.component.SalesforceConfiguration;
-import com.reedelk.salesforce.internal.commons.Default;
-import com.reedelk.salesforce.internal.commons.Disposables;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
-import org.apache.http.impl.nio.client.HttpAsyncClients;
-import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
-import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
-import org.apache.http.nio.reactor.IOReactorException;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.metrics.ApiUsageMetrics;
+import com.reedelk.salesforce.internal.metrics.Metrics;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,26 +19,24 @@ public class HttpClientProvider {
     private static final Map<String, HttpClientHolder> CONFIG_ID_CLIENT_MAP = new HashMap<>();
 
     static class HttpClientHolder {
-        CloseableHttpAsyncClient client;
+        Map<TrafficLane, HttpTransport> transports = new EnumMap<>(TrafficLane.class);
         List<ProcessorSync> users = new ArrayList<>();
     }
 
-    public static synchronized CloseableHttpAsyncClient provide(SalesforceConfiguration configuration, ProcessorSync user) {
+    public static HttpTransport provide(SalesforceConfiguration configuration, ProcessorSync user) {
+        return provide(configuration, user, TrafficLane.INTERACTIVE);
+    }
+
+    public static synchronized HttpTransport provide(SalesforceConfiguration configuration, ProcessorSync user, TrafficLane lane) {
         if (!CONFIG_ID_CLIENT_MAP.containsKey(configuration.getId())) {
             // We must create a brand new client
-            RequestConfig requestConfig = createRequestConfig();
-            PoolingNHttpClientConnectionManager pool = createConnectionPool();
-            CloseableHttpAsyncClient httpClient = createHttpClient(pool, requestConfig);
-            httpClient.start();
-
-            HttpClientHolder holder = new HttpClientHolder();
-            holder.client = httpClient;
-            CONFIG_ID_CLIENT_MAP.put(configuration.getId(), holder);
+            CONFIG_ID_CLIENT_MAP.put(configuration.getId(), new HttpClientHolder());
         }
 
         HttpClientHolder client = CONFIG_ID_CLIENT_MAP.get(configuration.getId());
         if (!client.users.contains(user)) client.users.add(user);
-        return client.client;
+        // Each traffic lane has its own transport and connection pool, created when first used.
+        return client.transports.computeIfAbsent(HttpLanes.of(lane), key -> createTransport(configuration, key));
     }
 
     public static synchronized void release(SalesforceConfiguration configuration, ProcessorSync user) {
@@ -50,42 +45,26 @@ public class HttpClientProvider {
             holder.users.remove(user);
             if (holder.users.isEmpty()) {
                 // We must remove the client if there are no users using it.
-                Disposables.closeSilently(holder.client);
+                holder.transports.values().forEach(HttpTransport::close);
                 CONFIG_ID_CLIENT_MAP.remove(configuration.getId());
                 HttpAccessTokenProvider.release(configuration);
+                ApiUsageMetrics.release(configuration);
+                HttpRateLimiter.release(configuration);
+                HttpConcurrencyLimiter.release(configuration);
+                HttpCircuitBreaker.release(configuration);
+                HttpHedging.release(configuration);
+                Metrics.release(configuration);
             }
         }
     }
 
-    private static PoolingNHttpClientConnectionManager createConnectionPool() {
-        DefaultConnectingIOReactor connectingIOReactor = createIO();
-        PoolingNHttpClientConnectionManager pool = new PoolingNHttpClientConnectionManager(connectingIOReactor);
-        pool.setDefaultMaxPerRoute(Default.MAX_REQ_PER_ROUTE);
-        pool.setMaxTotal(Default.MAX_REQ_TOTAL);
-        return pool;
-    }
-
-    private static CloseableHttpAsyncClient createHttpClient(PoolingNHttpClientConnectionManager pool, RequestConfig requestConfig) {
-        return HttpAsyncClients.custom()
-                .setDefaultRequestConfig(requestConfig)
-                .setConnectionManager(pool)
-                .build();
-    }
-
-    private static RequestConfig createRequestConfig() {
-        return RequestConfig.custom()
-                .setConnectionRequestTimeout(Default.CONNECTION_REQUEST_TIMEOUT)
-                .setSocketTimeout(Default.SOCKET_TIMEOUT)
-                .setConnectTimeout(Default.CONNECT_TIMEOUT)
-                .build();
-    }
-
-    private static DefaultConnectingIOReactor createIO() {
-        try {
-            return new DefaultConnectingIOReactor();
-        } catch (IOReactorException exception) {
-            // TODO: Fixme
-            throw new PlatformException(exception.getMessage());
+    private static HttpTransport createTransport(SalesforceConfiguration configuration, TrafficLane lane) {
+        int maxConnections = HttpLanes.maxConnections(configuration, lane);
+        // HTTP/2 is only supported by the HttpClient 5 transport.
+        if (configuration.getClient() == HttpClientType.HTTP_CLIENT_5 ||
+                configuration.getProtocol() == HttpProtocol.HTTP_2) {
+            return HttpClient5Transport.create(configuration, maxConnections);
         }
+        return HttpAsyncClientTransport.create(configuration, maxConnections);
     }
 }
@@ -0,0 +1,125 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.Messages;
+import com.reedelk.salesforce.internal.exception.ConcurrencyLimitExceeded;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// AIMD concurrency limit: the limit grows by one per "round trip" while the latency stays within
+// a tolerance of the best latency observed in the current window, and it is cut multiplicatively
+// when latency degrades or requests fail. Requests above the limit wait up to the connection
+// request timeout and are then rejected.
+class HttpConcurrencyLimiter {
+
+    private static final Map<String, HttpConcurrencyLimiter> CONFIG_ID_LIMITER_MAP = new ConcurrentHashMap<>();
+
+    private final String configId;
+    private final int maxLimit;
+
+    private double limit = Default.ADAPTIVE_CONCURRENCY_INITIAL_LIMIT;
+    private int inFlight;
+
+    private long baselineLatency = Long.MAX_VALUE;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private int windowSamples;
+
+    private HttpConcurrencyLimiter(String configId, int maxLimit) {
+        this.configId = configId;
+        this.maxLimit = maxLimit;
+    }
+
+    // One limiter per traffic lane, bounded by the size of the lane connection pool.
+    static HttpConcurrencyLimiter of(SalesforceConfiguration configuration, TrafficLane lane) {
+        if (!Boolean.TRUE.equals(configuration.getAdaptiveConcurrency())) return null;
+        return CONFIG_ID_LIMITER_MAP.computeIfAbsent(key(configuration, lane),
+                key -> new HttpConcurrencyLimiter(configuration.getId(), HttpLanes.maxConnections(configuration, lane)));
+    }
+
+    static void release(SalesforceConfiguration configuration) {
+        for (TrafficLane lane : TrafficLane.values()) {
+            CONFIG_ID_LIMITER_MAP.remove(key(configuration, lane));
+        }
+    }
+
+    private static String key(SalesforceConfiguration configuration, TrafficLane lane) {
+        return configuration.getId() + " " + lane;
+    }
+
+    synchronized void acquire(Deadline deadline) {
+        long timeout = Deadline.remainingMillis(deadline, Default.CONNECTION_REQUEST_TIMEOUT);
+        long waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            while (inFlight >= currentLimit()) {
+                long remaining = waitUntil - System.nanoTime();
+                if (remaining <= 0) {
+                    if (deadline != null) deadline.check();
+                    String message = Messages.ConcurrencyLimiter.LIMIT_EXCEEDED.format(currentLimit(), configId);
+                    throw new ConcurrencyLimitExceeded(message);
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            String message = Messages.ConcurrencyLimiter.INTERRUPTED.format(configId);
+            throw new ConcurrencyLimitExceeded(message);
+        }
+        inFlight++;
+    }
+
+    // For an optional request, e.g. a hedge: no wait when the limit is reached.
+    synchronized boolean tryAcquire() {
+        if (inFlight >= currentLimit()) return false;
+        inFlight++;
+        return true;
+    }
+
+    synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        updateBaseline(latencyNanos);
+        if (latencyNanos > baselineLatency * Default.ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE) {
+            decrease(Default.ADAPTIVE_CONCURRENCY_BACKOFF_RATIO);
+        } else if (inFlight + 1 >= currentLimit()) {
+            // Only grow while the limit is actually being used.
+            limit = Math.min(maxLimit, limit + 1.0d / limit);
+        }
+        notifyAll();
+    }
+
+    synchronized void onError() {
+        inFlight--;
+        decrease(Default.ADAPTIVE_CONCURRENCY_ERROR_BACKOFF_RATIO);
+        notifyAll();
+    }
+
+    // A request abandoned before its outcome, e.g. the loser of a hedged pair: no latency sample.
+    synchronized void onCancelled() {
+        inFlight--;
+        notifyAll();
+    }
+
+    private void decrease(double ratio) {
+        limit = Math.max(Default.ADAPTIVE_CONCURRENCY_MIN_LIMIT, limit * ratio);
+    }
+
+    // The baseline is the minimum latency of the previous window, so that it can
+    // move up again when the org becomes permanently slower.
+    private void updateBaseline(long latencyNanos) {
+        windowMinLatency = Math.min(windowMinLatency, latencyNanos);
+        baselineLatency = Math.min(baselineLatency, latencyNanos);
+        if (++windowSamples >= Default.ADAPTIVE_CONCURRENCY_LATENCY_WINDOW) {
+            baselineLatency = windowMinLatency;
+            windowMinLatency = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+}
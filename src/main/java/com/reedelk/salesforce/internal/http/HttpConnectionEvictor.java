@@ -0,0 +1,72 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.Default;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Periodically closes the pooled connections which expired or have been idle longer than the
+// keep-alive duration, before the Salesforce load balancers silently drop them.
+class HttpConnectionEvictor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnectionEvictor.class);
+
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "salesforce-connection-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Returns the scheduled eviction, to be cancelled when the pool is shut down.
+    static ScheduledFuture<?> register(SalesforceConfiguration configuration, PoolingNHttpClientConnectionManager pool) {
+        return register("configuration with id=[" + configuration.getId() + "]", pool, keepAliveMillis(configuration));
+    }
+
+    static ScheduledFuture<?> register(String poolName, PoolingNHttpClientConnectionManager pool, long keepAliveMillis) {
+        long interval = Math.min(Default.CONNECTION_EVICTION_INTERVAL_MILLIS, Math.max(keepAliveMillis / 2, 1));
+        return EVICTOR.scheduleWithFixedDelay(() -> {
+            try {
+                pool.closeExpiredConnections();
+                pool.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception exception) {
+                logger.warn("Could not evict idle connections for " + poolName, exception);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Closes the connections of a pool released without being shut down, as soon as they are returned to it.
+    static void drain(PoolingNHttpClientConnectionManager pool) {
+        AtomicReference<ScheduledFuture<?>> draining = new AtomicReference<>();
+        long interval = Default.CONNECTION_DRAIN_INTERVAL_MILLIS;
+        draining.set(EVICTOR.scheduleWithFixedDelay(() -> {
+            try {
+                pool.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+                PoolStats stats = pool.getTotalStats();
+                if (stats.getLeased() + stats.getPending() + stats.getAvailable() == 0) draining.get().cancel(false);
+            } catch (Exception exception) {
+                logger.warn("Could not close the connections of a released pool", exception);
+                draining.get().cancel(false);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS));
+    }
+
+    static long keepAliveMillis(SalesforceConfiguration configuration) {
+        Integer keepAlive = configuration.getKeepAliveDuration();
+        return TimeUnit.SECONDS.toMillis(keepAlive != null && keepAlive > 0 ? keepAlive : Default.KEEP_ALIVE_DURATION_SECONDS);
+    }
+
+    static long timeToLiveMillis(SalesforceConfiguration configuration) {
+        Integer timeToLive = configuration.getConnectionTimeToLive();
+        if (timeToLive == null) return TimeUnit.SECONDS.toMillis(Default.CONNECTION_TIME_TO_LIVE_SECONDS);
+        // Zero or negative: connections live as long as they are reused within the keep-alive duration.
+        return timeToLive > 0 ? TimeUnit.SECONDS.toMillis(timeToLive) : -1;
+    }
+}
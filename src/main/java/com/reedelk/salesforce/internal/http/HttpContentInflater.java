@@ -0,0 +1,203 @@
+package com.reedelk.salesforce.internal.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+// Incremental gzip/deflate decoder, fed with the compressed chunks as they are read from the
+// connection, so that the compressed response is never buffered as a whole.
+class HttpContentInflater {
+
+    private static final String GZIP = "gzip";
+    private static final String X_GZIP = "x-gzip";
+    private static final String DEFLATE = "deflate";
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final boolean gzip;
+    private final byte[] output = new byte[8192];
+    private final CRC32 crc = new CRC32();
+
+    private Inflater inflater;
+    // Holds the gzip header (or the first two bytes of a deflate stream) until it can be parsed.
+    private byte[] pending = new byte[16];
+    private int pendingLength;
+    private final byte[] trailer = new byte[GZIP_TRAILER_LENGTH];
+    private int trailerLength;
+
+    private HttpContentInflater(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    // Returns null when the content is not encoded or the encoding is not supported.
+    static HttpContentInflater of(String contentEncoding) {
+        if (contentEncoding == null) return null;
+        String encoding = contentEncoding.trim().toLowerCase();
+        if (GZIP.equals(encoding) || X_GZIP.equals(encoding)) return new HttpContentInflater(true);
+        if (DEFLATE.equals(encoding)) return new HttpContentInflater(false);
+        return null;
+    }
+
+    void update(byte[] input, int offset, int length, OutputStream out) throws IOException {
+        if (inflater == null) {
+            appendPending(input, offset, length);
+            int headerLength = gzip ? gzipHeaderLength() : deflateHeaderLength();
+            if (headerLength < 0) return;
+            byte[] buffered = pending;
+            int bufferedLength = pendingLength;
+            pending = null;
+            inflate(buffered, headerLength, bufferedLength - headerLength, out);
+        } else {
+            inflate(input, offset, length, out);
+        }
+    }
+
+    void finish() throws IOException {
+        if (inflater == null || !inflater.finished()) {
+            throw new ZipException("Unexpected end of compressed content");
+        }
+        if (gzip) {
+            if (trailerLength < GZIP_TRAILER_LENGTH) {
+                throw new ZipException("Unexpected end of gzip content");
+            }
+            checkTrailer();
+        }
+    }
+
+    void end() {
+        if (inflater != null) inflater.end();
+    }
+
+    private void inflate(byte[] input, int offset, int length, OutputStream out) throws IOException {
+        if (length == 0) return;
+        if (inflater.finished()) {
+            endOfMember(input, offset, length, out);
+            return;
+        }
+        inflater.setInput(input, offset, length);
+        try {
+            // The output buffer may have been filled exactly while the inflater still holds
+            // output: it is drained until inflate returns nothing, whether input is needed or not.
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(output);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) throw new ZipException("Deflate dictionaries are not supported");
+                    break;
+                }
+                if (gzip) crc.update(output, 0, inflated);
+                out.write(output, 0, inflated);
+            }
+        } catch (DataFormatException exception) {
+            throw new ZipException(exception.getMessage());
+        }
+        if (inflater.finished()) {
+            int remaining = inflater.getRemaining();
+            endOfMember(input, offset + length - remaining, remaining, out);
+        }
+    }
+
+    // The input following the compressed data: the gzip trailer, then possibly another gzip
+    // member (RFC 1952 2.2), whose content is appended to the one of the previous members.
+    private void endOfMember(byte[] input, int offset, int length, OutputStream out) throws IOException {
+        int copied = appendTrailer(input, offset, length);
+        if (!gzip || trailerLength < GZIP_TRAILER_LENGTH || copied == length) return;
+        checkTrailer();
+        inflater.end();
+        inflater = null;
+        crc.reset();
+        trailerLength = 0;
+        pending = new byte[16];
+        pendingLength = 0;
+        update(input, offset + copied, length - copied, out);
+    }
+
+    private void checkTrailer() throws ZipException {
+        if (readInt(trailer, 0) != (int) crc.getValue()) {
+            throw new ZipException("Corrupt gzip content (invalid CRC)");
+        }
+        if (readInt(trailer, 4) != (int) inflater.getBytesWritten()) {
+            throw new ZipException("Corrupt gzip content (invalid size)");
+        }
+    }
+
+    private int gzipHeaderLength() throws ZipException {
+        if (pendingLength < 10) return -1;
+        if ((pending[0] & 0xff) != 0x1f || (pending[1] & 0xff) != 0x8b) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (pending[2] != 8) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = pending[3] & 0xff;
+        int position = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (pendingLength < position + 2) return -1;
+            position += 2 + ((pending[position] & 0xff) | ((pending[position + 1] & 0xff) << 8));
+            if (pendingLength < position) return -1;
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(position);
+            if (position < 0) return -1;
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(position);
+            if (position < 0) return -1;
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+            if (pendingLength < position) return -1;
+        }
+        inflater = new Inflater(true);
+        return position;
+    }
+
+    // 'deflate' should be zlib wrapped (RFC 1950), but some servers send raw deflate data.
+    private int deflateHeaderLength() {
+        if (pendingLength < 2) return -1;
+        int first = pending[0] & 0xff;
+        int second = pending[1] & 0xff;
+        boolean zlib = (first & 0x0f) == 8 && ((first << 8) | second) % 31 == 0;
+        inflater = new Inflater(!zlib);
+        return 0;
+    }
+
+    private int skipZeroTerminated(int position) {
+        for (int i = position; i < pendingLength; i++) {
+            if (pending[i] == 0) return i + 1;
+        }
+        return -1;
+    }
+
+    private void appendPending(byte[] input, int offset, int length) {
+        if (pendingLength + length > pending.length) {
+            byte[] grown = new byte[Math.max(pending.length * 2, pendingLength + length)];
+            System.arraycopy(pending, 0, grown, 0, pendingLength);
+            pending = grown;
+        }
+        System.arraycopy(input, offset, pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    // Returns the number of bytes taken.
+    private int appendTrailer(byte[] input, int offset, int length) {
+        int copy = Math.min(length, GZIP_TRAILER_LENGTH - trailerLength);
+        if (copy <= 0) return 0;
+        System.arraycopy(input, offset, trailer, trailerLength, copy);
+        trailerLength += copy;
+        return copy;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) |
+                ((bytes[offset + 1] & 0xff) << 8) |
+                ((bytes[offset + 2] & 0xff) << 16) |
+                ((bytes[offset + 3] & 0xff) << 24);
+    }
+}
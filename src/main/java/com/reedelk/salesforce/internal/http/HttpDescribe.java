@@ -1,17 +1,20 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpGet;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_OBJECT_DESCRIBE;
+public class HttpDescribe extends HttpBaseRequest {
 
-public class HttpDescribe extends HttpGet implements HttpBaseRequest {
+    public HttpDescribe(String describePath) {
+        super(GET, describePath);
+    }
 
-    public HttpDescribe(String instanceName, String objectName) {
-        super(String.format(SALESFORCE_OBJECT_DESCRIBE, instanceName, objectName));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.DESCRIBE;
     }
 }
@@ -1,20 +1,27 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.HttpRequest;
-
 public class HttpHeaders {
 
     public static final String CONTENT_TYPE_JSON = "application/json";
 
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
     public static final String HEADER_AUTHORIZATION = "Authorization";
+    public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    public static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    public static void setAcceptEncoding(HttpBaseRequest request) {
+        request.setHeader(HEADER_ACCEPT_ENCODING, ACCEPT_ENCODING);
+    }
 
-    public static void addContentTypeJson(HttpRequest request) {
-        request.addHeader(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
+    // The header value is built once per access token and shared by all the requests using it.
+    public static void setAuthorization(HttpBaseRequest request, HttpAccessToken accessToken) {
+        request.setHeader(HEADER_AUTHORIZATION, accessToken.getAuthorization());
     }
 
-    public static void addAuthorization(HttpRequest request, String authorization) {
-        request.removeHeaders(HEADER_AUTHORIZATION);
-        request.addHeader(HEADER_AUTHORIZATION, "Bearer " + authorization);
+    public static String authorization(String accessToken) {
+        return "Bearer " + accessToken;
     }
 }
@@ -0,0 +1,186 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.HttpResponseStatus;
+import com.reedelk.salesforce.internal.metrics.Metrics;
+import com.reedelk.salesforce.internal.metrics.WindowedLatencyHistogram;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.spi.Operation;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+// Hedged GET requests: when no response arrived within the configured latency percentile of the
+// operation over the last minutes, the same request is sent again and the first successful response
+// wins. A token bucket refilled by every request bounds the hedged requests to the configured
+// percentage, and a hedge is only sent when the rate and concurrency limiters have room for it.
+class HttpHedging {
+
+    private static final Map<String, HttpHedging> CONFIG_ID_HEDGING_MAP = new ConcurrentHashMap<>();
+
+    private final SalesforceConfiguration configuration;
+    private final Map<Operation, WindowedLatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final int percentile;
+    private final double tokensPerRequest;
+
+    private double availableTokens;
+
+    private HttpHedging(SalesforceConfiguration configuration) {
+        this.configuration = configuration;
+        this.percentile = Math.min(99, configuration.getHedgingPercentile());
+        Integer maxRate = configuration.getHedgingMaxRate();
+        this.tokensPerRequest = (maxRate != null && maxRate >= 0 ? Math.min(100, maxRate) : Default.HEDGING_MAX_RATE_PERCENT) / 100.0d;
+    }
+
+    static HttpHedging of(SalesforceConfiguration configuration) {
+        Integer percentile = configuration.getHedgingPercentile();
+        if (percentile == null || percentile <= 0) return null;
+        return CONFIG_ID_HEDGING_MAP.computeIfAbsent(configuration.getId(), configId -> new HttpHedging(configuration));
+    }
+
+    static void release(SalesforceConfiguration configuration) {
+        CONFIG_ID_HEDGING_MAP.remove(configuration.getId());
+    }
+
+    HttpBaseResponse send(HttpTransport transport,
+                          HttpBaseRequest request,
+                          RequestTraceRecorder trace,
+                          Deadline deadline,
+                          TrafficLane lane) throws ExecutionException, InterruptedException {
+        WindowedLatencyHistogram latency = latencies.computeIfAbsent(request.getOperation(), operation -> latencyHistogram());
+        long start = System.nanoTime();
+        CompletableFuture<HttpBaseResponse> primary = transport.send(request, trace, deadline);
+
+        refill();
+        long delayMillis = latency.count() >= Default.HEDGING_MIN_SAMPLES ? latency.percentileMillis(percentile) : 0;
+        if (delayMillis <= 0) {
+            return await(primary, latency, start, deadline);
+        }
+
+        try {
+            HttpBaseResponse response = primary.get(Deadline.remainingMillis(deadline, delayMillis), TimeUnit.MILLISECONDS);
+            latency.record(System.nanoTime() - start);
+            return response;
+        } catch (TimeoutException timeout) {
+            // Slower than usual: race an identical request against the pending one.
+            if (deadline != null && deadline.isExpired()) {
+                primary.cancel(true);
+                throw deadline.exceeded();
+            }
+        }
+
+        CompletableFuture<HttpBaseResponse> hedge = sendHedge(transport, request, deadline, lane);
+        if (hedge == null) {
+            return await(primary, latency, start, deadline);
+        }
+        CompletableFuture<HttpBaseResponse> first = firstSuccessful(primary, hedge);
+        try {
+            HttpBaseResponse response = Deadline.get(first, deadline);
+            latency.record(System.nanoTime() - start);
+            boolean hedgeWon = !hedge.isCompletedExceptionally() && hedge.getNow(null) == response;
+            Metrics.recordHedge(configuration, request.getOperation(), hedgeWon);
+            return response;
+        } finally {
+            primary.cancel(false);
+            hedge.cancel(false);
+        }
+    }
+
+    // The hedge is one more request: it takes permits of the rate and concurrency limiters like any
+    // other, but it is not sent at all when they are not free right away. Null when not sent.
+    private CompletableFuture<HttpBaseResponse> sendHedge(HttpTransport transport,
+                                                          HttpBaseRequest request,
+                                                          Deadline deadline,
+                                                          TrafficLane lane) {
+        HttpRateLimiter rateLimiter = HttpRateLimiter.of(configuration);
+        if (!rateLimiter.tryAcquirePermit(lane)) return null;
+        HttpConcurrencyLimiter concurrencyLimiter = HttpConcurrencyLimiter.of(configuration, lane);
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+            rateLimiter.releasePermit(lane);
+            return null;
+        }
+        // The token is only taken by a hedge actually sent.
+        if (!acquire()) {
+            if (concurrencyLimiter != null) concurrencyLimiter.onCancelled();
+            rateLimiter.releasePermit(lane);
+            return null;
+        }
+
+        long start = System.nanoTime();
+        // Each exchange sends a client request of its own, built from the same (unchanged) request.
+        CompletableFuture<HttpBaseResponse> hedge = transport.send(request, null, deadline);
+        hedge.whenComplete((response, exception) -> {
+            rateLimiter.releasePermit(lane);
+            if (concurrencyLimiter == null) return;
+            if (hedge.isCancelled()) {
+                concurrencyLimiter.onCancelled();
+            } else if (exception != null || HttpResponseStatus.isOverloaded(response.getStatusCode())) {
+                concurrencyLimiter.onError();
+            } else {
+                concurrencyLimiter.onSuccess(System.nanoTime() - start);
+            }
+        });
+        return hedge;
+    }
+
+    private static HttpBaseResponse await(CompletableFuture<HttpBaseResponse> primary,
+                                          WindowedLatencyHistogram latency,
+                                          long start,
+                                          Deadline deadline) throws ExecutionException, InterruptedException {
+        HttpBaseResponse response = Deadline.get(primary, deadline);
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+
+    // Only the recent latencies: a percentile over all the past requests lags behind, hedging too late
+    // after a slow period and almost every request when Salesforce gets slower than it used to be.
+    private static WindowedLatencyHistogram latencyHistogram() {
+        return new WindowedLatencyHistogram(TimeUnit.SECONDS.toMillis(Default.HEDGING_LATENCY_WINDOW_SECONDS),
+                Default.HEDGING_LATENCY_WINDOW_SLICES);
+    }
+
+    // Each request adds a fraction of a token (the max hedging rate), each hedge takes a whole one.
+    private synchronized void refill() {
+        availableTokens = Math.min(Default.HEDGING_MAX_BURST, availableTokens + tokensPerRequest);
+    }
+
+    private synchronized boolean acquire() {
+        if (availableTokens < 1) return false;
+        availableTokens -= 1;
+        return true;
+    }
+
+    // The first response which is not an overload (429 or 5xx) wins. Otherwise, once both are done,
+    // the outcome of the primary request is the one returned.
+    private static CompletableFuture<HttpBaseResponse> firstSuccessful(CompletableFuture<HttpBaseResponse> primary,
+                                                                       CompletableFuture<HttpBaseResponse> hedge) {
+        CompletableFuture<HttpBaseResponse> first = new CompletableFuture<>();
+        BiConsumer<HttpBaseResponse, Throwable> race = (response, exception) -> {
+            if (isSuccessful(response, exception)) {
+                first.complete(response);
+            } else if (primary.isDone() && hedge.isDone()) {
+                // The other one may have won meanwhile, its own callback not having run yet.
+                HttpBaseResponse hedgeResponse = hedge.isCompletedExceptionally() ? null : hedge.getNow(null);
+                if (isSuccessful(hedgeResponse, null)) {
+                    first.complete(hedgeResponse);
+                } else {
+                    primary.whenComplete((primaryResponse, primaryException) -> {
+                        if (primaryException != null) first.completeExceptionally(primaryException);
+                        else first.complete(primaryResponse);
+                    });
+                }
+            }
+        };
+        primary.whenComplete(race);
+        hedge.whenComplete(race);
+        return first;
+    }
+
+    private static boolean isSuccessful(HttpBaseResponse response, Throwable exception) {
+        return exception == null && response != null && !HttpResponseStatus.isOverloaded(response.getStatusCode());
+    }
+}
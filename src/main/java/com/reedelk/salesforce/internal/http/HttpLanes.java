@@ -0,0 +1,41 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Default;
+
+// Connection and concurrency budgets of the traffic lanes of a configuration. Each lane has its own
+// connection pool: the bulk lane a smaller one, so that bulk traffic never takes interactive capacity.
+// The concurrent requests budget is one for the whole configuration, of which bulk gets a share.
+public class HttpLanes {
+
+    private HttpLanes() {
+    }
+
+    static TrafficLane of(TrafficLane lane) {
+        return of(lane, TrafficLane.INTERACTIVE);
+    }
+
+    public static TrafficLane of(TrafficLane lane, TrafficLane defaultLane) {
+        return lane == null ? defaultLane : lane;
+    }
+
+    static int maxConnections(SalesforceConfiguration configuration, TrafficLane lane) {
+        if (lane != TrafficLane.BULK) return Default.MAX_REQ_PER_ROUTE;
+        Integer bulkMaxConnections = configuration.getBulkMaxConnections();
+        return bulkMaxConnections != null && bulkMaxConnections > 0 ?
+                Math.min(bulkMaxConnections, Default.MAX_REQ_PER_ROUTE) :
+                Default.BULK_MAX_CONNECTIONS;
+    }
+
+    // Null when the number of concurrent requests is not limited. Both lanes share the configured
+    // budget; the bulk lane is limited to a share of it, leaving at least one request to the interactive
+    // one. A budget of a single request can't be split: the lanes then share it, first come first served.
+    static Integer maxConcurrentRequests(SalesforceConfiguration configuration, TrafficLane lane) {
+        Integer maxConcurrentRequests = configuration.getMaxConcurrentRequests();
+        if (maxConcurrentRequests == null || maxConcurrentRequests <= 0) return null;
+        if (lane != TrafficLane.BULK) return maxConcurrentRequests;
+        int bulkShare = Math.min(maxConcurrentRequests - 1, maxConnections(configuration, lane));
+        return Math.max(1, bulkShare);
+    }
+}
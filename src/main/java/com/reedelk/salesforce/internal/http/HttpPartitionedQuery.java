@@ -0,0 +1,190 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.SOQLDateTime;
+import com.reedelk.salesforce.internal.commons.SOQLStatement;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Extracts all the records of a query with N concurrent cursors instead of one: two cheap boundary
+// queries find the first and last CreatedDate, the range in between is split in N disjoint intervals
+// and each of them is queried and paged through in parallel, either by a record stream, which merges
+// their records as they arrive, or here, merging them in one response in partition order. The number
+// of partitions is bounded by the connections and the concurrent requests of the traffic lane, and
+// every request still goes through the rate limiter.
+public class HttpPartitionedQuery {
+
+    private static final String PARTITION_FIELD = "CreatedDate";
+
+    private final SOQLStatement statement;
+    private final HttpApiPath apiPath;
+    private final SalesforceConfiguration configuration;
+    private final ProcessorSync processorSync;
+    private final Function<String,? extends PlatformException> exceptionSupplier;
+    private final Deadline deadline;
+    private final TrafficLane lane;
+
+    // The deadline applies to the boundary queries and, when executed here, to the partition queries.
+    public HttpPartitionedQuery(SOQLStatement statement,
+                                HttpApiPath apiPath,
+                                SalesforceConfiguration configuration,
+                                ProcessorSync processorSync,
+                                Function<String,? extends PlatformException> exceptionSupplier,
+                                Deadline deadline,
+                                TrafficLane lane) {
+        this.statement = statement;
+        this.apiPath = apiPath;
+        this.configuration = configuration;
+        this.processorSync = processorSync;
+        this.exceptionSupplier = exceptionSupplier;
+        this.deadline = deadline;
+        this.lane = HttpLanes.of(lane);
+    }
+
+    // The query paths of the partitions, none when no record matches.
+    public List<String> queryPaths(int partitions) {
+        JSONArray firstRecords = records(query(statement.first(PARTITION_FIELD, true)));
+        if (firstRecords.length() == 0) {
+            return Collections.emptyList();
+        }
+        JSONArray lastRecords = records(query(statement.first(PARTITION_FIELD, false)));
+
+        OffsetDateTime from = SOQLDateTime.parse(firstRecords.getJSONObject(0).getString(PARTITION_FIELD));
+        OffsetDateTime to = lastRecords.length() == 0 ? from :
+                SOQLDateTime.parse(lastRecords.getJSONObject(0).getString(PARTITION_FIELD));
+
+        List<String> queryPaths = new ArrayList<>();
+        for (String partitionQuery : partitionQueries(from, to, Math.min(partitions, maxPartitions()))) {
+            queryPaths.add(apiPath.query(HttpApiPath.encode(partitionQuery)));
+        }
+        return queryPaths;
+    }
+
+    // All the records of the partitions, merged in one response body in partition (i.e. CreatedDate
+    // interval) order. Every page of every partition is held in memory until the last one arrives.
+    public HttpResult execute(int partitions) {
+        List<String> queryPaths = queryPaths(partitions);
+        if (queryPaths.isEmpty()) {
+            return result(new JSONArray(), null);
+        }
+        // One thread per partition, ended with the call.
+        ExecutorService cursors = Executors.newFixedThreadPool(queryPaths.size(), runnable -> {
+            Thread thread = new Thread(runnable, "salesforce-query-partition");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<CompletableFuture<Partition>> futures = new ArrayList<>();
+        try {
+            for (String queryPath : queryPaths) {
+                futures.add(CompletableFuture.supplyAsync(() -> extract(queryPath), cursors));
+            }
+            JSONArray records = new JSONArray();
+            HttpResult last = null;
+            for (CompletableFuture<Partition> future : futures) {
+                Partition partition = future.join();
+                for (int i = 0; i < partition.records.length(); i++) {
+                    records.put(partition.records.get(i));
+                }
+                last = partition.result;
+            }
+            return result(records, last);
+        } catch (CompletionException exception) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw exception;
+        } finally {
+            cursors.shutdownNow();
+        }
+    }
+
+    private Partition extract(String queryPath) {
+        JSONArray records = new JSONArray();
+        HttpBaseRequest request = new HttpSOQLQuery(queryPath);
+        while (true) {
+            HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, processorSync,
+                    exceptionSupplier, deadline, lane);
+            JSONObject page = new JSONObject(result.getBody());
+            JSONArray pageRecords = page.getJSONArray("records");
+            for (int i = 0; i < pageRecords.length(); i++) {
+                records.put(pageRecords.get(i));
+            }
+            if (page.optBoolean("done", true) || !page.has("nextRecordsUrl")) {
+                return new Partition(records, result);
+            }
+            request = new HttpSOQLQueryWithNextRecords(page.getString("nextRecordsUrl"));
+        }
+    }
+
+    private List<String> partitionQueries(OffsetDateTime from, OffsetDateTime to, int partitions) {
+        List<String> queries = new ArrayList<>();
+        long fromMillis = from.toInstant().toEpochMilli();
+        long rangeMillis = to.toInstant().toEpochMilli() - fromMillis;
+        if (partitions <= 1 || rangeMillis <= 0) {
+            queries.add(statement.and(PARTITION_FIELD + " >= " + SOQLDateTime.literal(from)));
+            return queries;
+        }
+        String lower = SOQLDateTime.literal(from);
+        for (int i = 1; i <= partitions; i++) {
+            if (i == partitions) {
+                queries.add(statement.and(PARTITION_FIELD + " >= " + lower));
+            } else {
+                OffsetDateTime bound = from.plusNanos((rangeMillis * i / partitions) * 1_000_000L);
+                String upper = SOQLDateTime.literal(bound);
+                queries.add(statement.and(PARTITION_FIELD + " >= " + lower + " AND " + PARTITION_FIELD + " < " + upper));
+                lower = upper;
+            }
+        }
+        return queries;
+    }
+
+    private int maxPartitions() {
+        int maxPartitions = HttpLanes.maxConnections(configuration, lane);
+        Integer maxConcurrentRequests = HttpLanes.maxConcurrentRequests(configuration, lane);
+        return maxConcurrentRequests == null ? maxPartitions : Math.min(maxPartitions, maxConcurrentRequests);
+    }
+
+    private HttpResult query(String query) {
+        HttpSOQLQuery request = new HttpSOQLQuery(apiPath.query(HttpApiPath.encode(query)));
+        return HttpAuthAwareRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier, deadline, lane);
+    }
+
+    private static JSONArray records(HttpResult result) {
+        return new JSONObject(result.getBody()).getJSONArray("records");
+    }
+
+    // The API usage and trace are the ones of the last page of the last partition.
+    private static HttpResult result(JSONArray records, HttpResult last) {
+        JSONObject body = new JSONObject();
+        body.put("totalSize", records.length());
+        body.put("done", true);
+        body.put("records", records);
+        return last == null ? new HttpResult(body.toString(), null, null) :
+                new HttpResult(body.toString(), last.getApiUsage(), last.getTrace());
+    }
+
+    private static class Partition {
+
+        final JSONArray records;
+        final HttpResult result;
+
+        Partition(JSONArray records, HttpResult result) {
+            this.records = records;
+            this.result = result;
+        }
+    }
+}
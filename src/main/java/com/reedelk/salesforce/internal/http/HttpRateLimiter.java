@@ -0,0 +1,181 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.commons.Messages;
+import com.reedelk.salesforce.internal.metrics.ApiUsage;
+import com.reedelk.salesforce.internal.metrics.ApiUsageMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Token bucket limiting the request rate and the number of concurrent requests of a configuration.
+// Callers wait on their own (flow) thread before the request is handed to the async client,
+// so the IO reactor threads are never blocked by the limiter.
+class HttpRateLimiter {
+
+    private static final Map<String, HttpRateLimiter> CONFIG_ID_LIMITER_MAP = new ConcurrentHashMap<>();
+
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SalesforceConfiguration configuration;
+    private final Semaphore concurrency;
+    private final Semaphore bulkConcurrency;
+    private final double requestsPerSecond;
+    private final double usageThreshold;
+
+    private double availableTokens;
+    private long lastRefill = System.nanoTime();
+
+    private HttpRateLimiter(SalesforceConfiguration configuration) {
+        this.configuration = configuration;
+        // One budget of concurrent requests for both lanes; bulk requests also take one of their share.
+        Integer maxConcurrentRequests = HttpLanes.maxConcurrentRequests(configuration, TrafficLane.INTERACTIVE);
+        Integer maxBulkConcurrentRequests = HttpLanes.maxConcurrentRequests(configuration, TrafficLane.BULK);
+        this.concurrency = maxConcurrentRequests != null ? new Semaphore(maxConcurrentRequests, true) : null;
+        this.bulkConcurrency = maxBulkConcurrentRequests != null ? new Semaphore(maxBulkConcurrentRequests, true) : null;
+        Integer maxRequestsPerSecond = configuration.getMaxRequestsPerSecond();
+        this.requestsPerSecond = isPositive(maxRequestsPerSecond) ? maxRequestsPerSecond : 0;
+        Integer apiUsageThreshold = configuration.getApiUsageThreshold();
+        this.usageThreshold = isPositive(apiUsageThreshold) && apiUsageThreshold < 100 ? apiUsageThreshold : 0;
+        this.availableTokens = requestsPerSecond;
+    }
+
+    static HttpRateLimiter of(SalesforceConfiguration configuration) {
+        return CONFIG_ID_LIMITER_MAP.computeIfAbsent(configuration.getId(), configId -> new HttpRateLimiter(configuration));
+    }
+
+    static void release(SalesforceConfiguration configuration) {
+        CONFIG_ID_LIMITER_MAP.remove(configuration.getId());
+    }
+
+    void acquirePermit(Function<String,? extends PlatformException> exceptionSupplier, Deadline deadline, TrafficLane lane) {
+        Semaphore share = lane == TrafficLane.BULK ? bulkConcurrency : null;
+        try {
+            // The bulk share first: bulk requests waiting for it do not hold permits of the shared budget.
+            acquire(share, deadline);
+            try {
+                acquire(concurrency, deadline);
+            } catch (InterruptedException | RuntimeException exception) {
+                release(share);
+                throw exception;
+            }
+            long waitNanos;
+            try {
+                long maxWaitNanos = deadline == null ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(deadline.remainingMillis());
+                waitNanos = reserve(maxWaitNanos);
+                if (waitNanos < 0) throw deadline.exceeded();
+            } catch (RuntimeException exception) {
+                releasePermit(lane);
+                throw exception;
+            }
+            try {
+                if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException exception) {
+                // The request is never sent: its slot goes back to the callers waiting behind it.
+                unreserve();
+                releasePermit(lane);
+                throw exception;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            String message = Messages.RateLimiter.INTERRUPTED.format(configuration.getId());
+            throw exceptionSupplier.apply(message);
+        }
+    }
+
+    // For an optional request, e.g. a hedge: the permits are taken only if free right away.
+    boolean tryAcquirePermit(TrafficLane lane) {
+        Semaphore share = lane == TrafficLane.BULK ? bulkConcurrency : null;
+        if (share != null && !share.tryAcquire()) return false;
+        if (concurrency != null && !concurrency.tryAcquire()) {
+            release(share);
+            return false;
+        }
+        if (!tryReserve()) {
+            releasePermit(lane);
+            return false;
+        }
+        return true;
+    }
+
+    void releasePermit(TrafficLane lane) {
+        release(concurrency);
+        if (lane == TrafficLane.BULK) release(bulkConcurrency);
+    }
+
+    private static void acquire(Semaphore semaphore, Deadline deadline) throws InterruptedException {
+        if (semaphore == null) return;
+        if (deadline == null) {
+            semaphore.acquire();
+        } else if (!semaphore.tryAcquire(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+            throw deadline.exceeded();
+        }
+    }
+
+    private static void release(Semaphore semaphore) {
+        if (semaphore != null) semaphore.release();
+    }
+
+    // Takes one token from the bucket and returns how long the caller must wait for it.
+    // The bucket can go negative: each waiting caller reserves the next free slot. A caller
+    // which can't wait that long takes no token, and -1 is returned: a slot reserved for a
+    // request never sent would delay all the callers after it.
+    private synchronized long reserve(long maxWaitNanos) {
+        double rate = currentRate();
+        if (rate <= 0) return 0;
+        refill(rate);
+
+        double tokens = availableTokens - 1;
+        long waitNanos = tokens >= 0 ? 0 : (long) (-tokens * ONE_SECOND_NANOS / rate);
+        if (waitNanos > maxWaitNanos) return -1;
+        availableTokens = tokens;
+        return waitNanos;
+    }
+
+    private synchronized void unreserve() {
+        availableTokens += 1;
+    }
+
+    // Takes one token from the bucket only if there is one available now.
+    private synchronized boolean tryReserve() {
+        double rate = currentRate();
+        if (rate <= 0) return true;
+        refill(rate);
+
+        if (availableTokens < 1) return false;
+        availableTokens -= 1;
+        return true;
+    }
+
+    private void refill(double rate) {
+        long now = System.nanoTime();
+        double refill = (now - lastRefill) * rate / ONE_SECOND_NANOS;
+        availableTokens = Math.min(rate, availableTokens + refill);
+        lastRefill = now;
+    }
+
+    // The configured rate, reduced linearly as the reported API usage goes from the threshold
+    // towards the daily limit. When no rate is configured, a conservative default rate is used
+    // once the threshold is crossed.
+    private double currentRate() {
+        if (usageThreshold <= 0) return requestsPerSecond;
+        ApiUsage usage = ApiUsageMetrics.get(configuration);
+        if (usage == null || usage.getUsagePercentage() < usageThreshold) return requestsPerSecond;
+
+        double remaining = (100.0d - usage.getUsagePercentage()) / (100.0d - usageThreshold);
+        double factor = Math.max(Default.API_USAGE_MIN_RATE_FACTOR, remaining);
+        double baseRate = requestsPerSecond > 0 ? requestsPerSecond : Default.API_USAGE_THROTTLED_REQUESTS_PER_SECOND;
+        return baseRate * factor;
+    }
+
+    private static boolean isPositive(Integer value) {
+        return value != null && value > 0;
+    }
+}
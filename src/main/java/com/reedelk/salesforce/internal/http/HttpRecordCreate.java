@@ -1,22 +1,21 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
+import com.reedelk.salesforce.internal.commons.HttpRequestBody;
+import com.reedelk.salesforce.spi.Operation;
 
-import java.nio.charset.StandardCharsets;
+public class HttpRecordCreate extends HttpBaseRequest {
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_OBJECT_CREATE;
-
-public class HttpRecordCreate extends HttpPost implements HttpBaseRequest {
+    public HttpRecordCreate(String objectPath, HttpRequestBody payload) {
+        super(POST, objectPath, payload);
+    }
 
-    public HttpRecordCreate(String instanceName, String objectName, String payload) {
-        super(String.format(SALESFORCE_OBJECT_CREATE, instanceName, objectName));
-        setEntity(new StringEntity(payload, StandardCharsets.UTF_8));
-        HttpHeaders.addContentTypeJson(this);
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.CREATE;
     }
 }
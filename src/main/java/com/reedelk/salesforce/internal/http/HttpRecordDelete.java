@@ -1,17 +1,20 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpDelete;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_OBJECT_DELETE;
+public class HttpRecordDelete extends HttpBaseRequest {
 
-public class HttpRecordDelete extends HttpDelete implements HttpBaseRequest {
+    public HttpRecordDelete(String objectPath, String objectId) {
+        super(DELETE, objectPath + objectId);
+    }
 
-    public HttpRecordDelete(String instanceName, String objectName, String objectId) {
-        super(String.format(SALESFORCE_OBJECT_DELETE, instanceName, objectName, objectId));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.DELETE;
     }
 }
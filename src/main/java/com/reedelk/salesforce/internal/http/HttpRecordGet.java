@@ -1,17 +1,20 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpGet;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_OBJECT_GET;
+public class HttpRecordGet extends HttpBaseRequest {
 
-public class HttpRecordGet extends HttpGet implements HttpBaseRequest {
+    public HttpRecordGet(String objectPath, String objectId) {
+        super(GET, objectPath + objectId);
+    }
 
-    public HttpRecordGet(String instanceName, String objectName, String objectId) {
-        super(String.format(SALESFORCE_OBJECT_GET, instanceName, objectName, objectId));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.GET;
     }
 }
@@ -1,17 +1,20 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpGet;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_OBJECT_GET_WITH_FIELDS;
+public class HttpRecordGetWithFields extends HttpBaseRequest {
 
-public class HttpRecordGetWithFields extends HttpGet implements HttpBaseRequest {
+    public HttpRecordGetWithFields(String objectPath, String objectId, String fieldsQuery) {
+        super(GET, objectPath + objectId + fieldsQuery);
+    }
 
-    public HttpRecordGetWithFields(String instanceName, String objectName, String objectId, String fields) {
-        super(String.format(SALESFORCE_OBJECT_GET_WITH_FIELDS, instanceName, objectName, objectId, fields));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.GET;
     }
 }
@@ -0,0 +1,106 @@
+package com.reedelk.salesforce.internal.http;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Publishes the records of a query stream, started for each subscriber before its subscription is
+// handed over. The records are taken from the stream and emitted on a separate thread, as many as
+// requested, so that requesting them never blocks the subscriber while the pages are fetched.
+public class HttpRecordPublisher implements Publisher<Map<String, Object>> {
+
+    private static final ExecutorService EMITTERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "salesforce-query-records");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<HttpRecordStream> streamSupplier;
+
+    public HttpRecordPublisher(Supplier<HttpRecordStream> streamSupplier) {
+        this.streamSupplier = streamSupplier;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Map<String, Object>> subscriber) {
+        HttpRecordStream stream = streamSupplier.get();
+        stream.start();
+        subscriber.onSubscribe(new RecordSubscription(stream, subscriber));
+    }
+
+    private static class RecordSubscription implements Subscription {
+
+        private final HttpRecordStream stream;
+        private final Subscriber<? super Map<String, Object>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile IllegalArgumentException invalidRequest;
+        private volatile boolean done;
+
+        RecordSubscription(HttpRecordStream stream, Subscriber<? super Map<String, Object>> subscriber) {
+            this.stream = stream;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) return;
+            if (n <= 0) {
+                // Signalled by the emitter, so that it does not overlap a record being emitted.
+                invalidRequest = new IllegalArgumentException("The number of requested records must be positive, got " + n);
+                n = 1;
+            }
+            long previous = demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            // Records requested meanwhile are emitted by the emitter already running.
+            if (previous == 0) EMITTERS.execute(this::emit);
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            stream.cancel();
+        }
+
+        private void emit() {
+            long emitted = 0;
+            long requested = demand.get();
+            while (true) {
+                while (emitted != requested) {
+                    if (done) return;
+                    if (invalidRequest != null) {
+                        fail(invalidRequest);
+                        return;
+                    }
+                    Map<String, Object> record;
+                    try {
+                        record = stream.next();
+                    } catch (RuntimeException exception) {
+                        if (!done) fail(exception);
+                        return;
+                    }
+                    if (done) return;
+                    if (record == null) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(record);
+                    emitted++;
+                }
+                requested = demand.addAndGet(-emitted);
+                if (requested == 0) return;
+                emitted = 0;
+            }
+        }
+
+        private void fail(RuntimeException exception) {
+            cancel();
+            subscriber.onError(exception);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.Deadline;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Hands the records parsed on the IO reactor threads over to the thread consuming them. When the
+// consumer falls behind and the buffered records reach the capacity, the input of each connection
+// delivering records is suspended (instead of buffering the rest of the responses) and requested
+// again once half of them have been consumed; the deadlines of the suspended pages do not run
+// meanwhile. A suspended page still holds its connection and its rate limiter permits: when no
+// record has been consumed for the max pause, the stream fails and its exchanges are aborted. A page
+// failing after some of its records were delivered is not retried: without an ORDER BY the query may
+// return other records in their place. The first failure or the cancellation stops the stream,
+// aborting the exchanges in flight.
+public class HttpRecordSink {
+
+    // The input of the connection the records are parsed from.
+    interface Input {
+
+        void suspend();
+
+        void resume();
+    }
+
+    private static final Object END = new Object();
+
+    private static final ScheduledExecutorService PAUSES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "salesforce-query-stream-pauses");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Set<Future<?>> exchanges = ConcurrentHashMap.newKeySet();
+    private final Map<Input, HttpSOQLQueryStream> suspended = new HashMap<>();
+    private final int capacity;
+    private final long maxPauseNanos;
+    private final Supplier<? extends RuntimeException> pauseExceeded;
+
+    private int buffered;
+    private long lastConsumed;
+    private ScheduledFuture<?> pauseCheck;
+    private volatile boolean stopped;
+
+    HttpRecordSink(int capacity, long maxPauseMillis, Supplier<? extends RuntimeException> pauseExceeded) {
+        this.capacity = Math.max(capacity, 1);
+        this.maxPauseNanos = TimeUnit.MILLISECONDS.toNanos(maxPauseMillis);
+        this.pauseExceeded = pauseExceeded;
+    }
+
+    // An exchange receiving a page, aborted when the stream is stopped.
+    void exchange(CompletableFuture<?> exchange) {
+        exchanges.add(exchange);
+        exchange.whenComplete((response, exception) -> exchanges.remove(exchange));
+        if (stopped) exchange.cancel(true);
+    }
+
+    // IO reactor thread.
+    synchronized void accept(HttpSOQLQueryStream page, Map<String, Object> record, Input input) {
+        if (stopped) return;
+        page.delivered = true;
+        queue.add(record);
+        if (++buffered >= capacity && !suspended.containsKey(input)) {
+            suspended.put(input, page);
+            input.suspend();
+            Deadline deadline = page.getDeadline();
+            if (deadline != null) deadline.pause();
+            if (pauseCheck == null) {
+                lastConsumed = System.nanoTime();
+                pauseCheck = PAUSES.schedule(this::checkPause, maxPauseNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    synchronized boolean hasDelivered(HttpSOQLQueryStream page) {
+        return page.delivered;
+    }
+
+    synchronized boolean isSuspended(Input input) {
+        return suspended.containsKey(input);
+    }
+
+    // The next page is requested only once the records of the previous ones have been drained:
+    // a page small enough to be received at once would not be held back by the suspended input.
+    synchronized void awaitCapacity() throws InterruptedException {
+        while (!suspended.isEmpty() && !stopped) wait();
+    }
+
+    void end() {
+        queue.add(END);
+    }
+
+    // The records already buffered are still consumed before the failure.
+    void fail(RuntimeException exception) {
+        synchronized (this) {
+            if (stopped) return;
+            stopped = true;
+            queue.add(exception);
+            resume();
+        }
+        abort();
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    // Returns null when all the records have been consumed.
+    @SuppressWarnings("unchecked")
+    Map<String, Object> take() throws InterruptedException {
+        Object item = queue.take();
+        if (item == END) return null;
+        if (item instanceof RuntimeException) throw (RuntimeException) item;
+        consumed();
+        return (Map<String, Object>) item;
+    }
+
+    void cancel() {
+        synchronized (this) {
+            stopped = true;
+            queue.clear();
+            // Wakes up the consumer waiting for a record, if any.
+            queue.add(END);
+            buffered = 0;
+            resume();
+        }
+        abort();
+    }
+
+    private synchronized void consumed() {
+        lastConsumed = System.nanoTime();
+        if (--buffered <= capacity / 2) resume();
+    }
+
+    // A consumer still taking records, however slowly, gets another max pause.
+    private void checkPause() {
+        synchronized (this) {
+            if (pauseCheck == null || stopped) return;
+            long pausedNanos = System.nanoTime() - lastConsumed;
+            if (pausedNanos < maxPauseNanos) {
+                pauseCheck = PAUSES.schedule(this::checkPause, maxPauseNanos - pausedNanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+            pauseCheck = null;
+        }
+        fail(pauseExceeded.get());
+    }
+
+    private void resume() {
+        if (pauseCheck != null) {
+            pauseCheck.cancel(false);
+            pauseCheck = null;
+        }
+        if (suspended.isEmpty()) return;
+        suspended.forEach((input, page) -> {
+            Deadline deadline = page.getDeadline();
+            if (deadline != null) deadline.resume();
+            input.resume();
+        });
+        suspended.clear();
+        notifyAll();
+    }
+
+    private void abort() {
+        exchanges.forEach(exchange -> exchange.cancel(true));
+    }
+}
@@ -0,0 +1,111 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.commons.Default;
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.reedelk.salesforce.internal.commons.Messages.SOQLQuery.STREAM_PAUSE_EXCEEDED;
+
+// The records of a query, one at a time: the pages of each cursor (the query and then each next
+// records URL) are requested one after the other by a background task, and their records streamed
+// through the sink while each response is being read. The cursors of a partitioned query are paged
+// through concurrently and their records merged as they arrive. The timeout applies to each page,
+// without the time spent waiting for its records to be consumed, which is bounded by the sink instead.
+public class HttpRecordStream {
+
+    private final List<String> queryPaths;
+    private final List<String> fields;
+    private final SalesforceConfiguration configuration;
+    private final ProcessorSync processorSync;
+    private final Function<String,? extends PlatformException> exceptionSupplier;
+    private final Integer timeout;
+    private final TrafficLane lane;
+    private final HttpRecordSink sink;
+    private final AtomicInteger activeCursors;
+
+    // One query path per cursor, each either a query or a next records URL.
+    public HttpRecordStream(List<String> queryPaths,
+                            List<String> fields,
+                            SalesforceConfiguration configuration,
+                            ProcessorSync processorSync,
+                            Function<String,? extends PlatformException> exceptionSupplier,
+                            Integer timeout,
+                            TrafficLane lane) {
+        this.queryPaths = queryPaths;
+        this.fields = fields;
+        this.configuration = configuration;
+        this.processorSync = processorSync;
+        this.exceptionSupplier = exceptionSupplier;
+        this.timeout = timeout;
+        this.lane = lane;
+        this.activeCursors = new AtomicInteger(queryPaths.size());
+        this.sink = new HttpRecordSink(Default.RECORD_STREAM_BUFFER,
+                TimeUnit.SECONDS.toMillis(Default.RECORD_STREAM_MAX_PAUSE_SECONDS),
+                () -> exceptionSupplier.apply(STREAM_PAUSE_EXCEEDED.format(Default.RECORD_STREAM_MAX_PAUSE_SECONDS)));
+    }
+
+    public void start() {
+        if (queryPaths.isEmpty()) {
+            sink.end();
+            return;
+        }
+        // One thread per cursor, ended with it: the cursors are bounded by the partitions.
+        ExecutorService cursors = Executors.newFixedThreadPool(queryPaths.size(), runnable -> {
+            Thread thread = new Thread(runnable, "salesforce-query-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String queryPath : queryPaths) {
+            cursors.execute(() -> requestPages(queryPath));
+        }
+        cursors.shutdown();
+    }
+
+    // Returns null after the last record.
+    public Map<String, Object> next() {
+        try {
+            return sink.take();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            sink.cancel();
+            throw exceptionSupplier.apply(exception.getMessage());
+        }
+    }
+
+    public void cancel() {
+        sink.cancel();
+    }
+
+    private void requestPages(String queryPath) {
+        try {
+            String path = queryPath;
+            while (path != null && !sink.isStopped()) {
+                sink.awaitCapacity();
+                Deadline deadline = Deadline.of(configuration, timeout);
+                HttpSOQLQueryStream request = new HttpSOQLQueryStream(path, sink, fields, deadline);
+                HttpResult result = HttpAuthAwareRequestExecutor.execute(request, configuration, processorSync,
+                        exceptionSupplier, deadline, lane);
+                JSONObject summary = new JSONObject(result.getBody());
+                path = summary.optBoolean("done", true) ? null : summary.optString("nextRecordsUrl", null);
+            }
+            if (activeCursors.decrementAndGet() == 0) sink.end();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            sink.fail(exceptionSupplier.apply(exception.getMessage()));
+        } catch (RuntimeException exception) {
+            sink.fail(exception);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.JsonRecordParser;
+import com.reedelk.salesforce.internal.commons.JsonWriter;
+import org.apache.http.Header;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.conn.ConnectionShutdownException;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.reedelk.salesforce.internal.http.HttpHeaders.HEADER_CONTENT_ENCODING;
+
+// Parses a successful query response while it is read from the connection (decompressing it
+// first if needed), streaming its records to the sink. The response body keeps only the other
+// top level fields, e.g. 'done' and 'nextRecordsUrl'. Unsuccessful responses are buffered as is.
+// While the input is suspended the connection has no socket timeout: a slow consumer must not
+// make the page fail, and be retried, with a read timeout.
+class HttpRecordStreamConsumer extends AbstractAsyncResponseConsumer<HttpBaseResponse> {
+
+    private final ByteBuffer chunk = ByteBuffer.allocate(8192);
+    private final HttpSOQLQueryStream request;
+
+    private volatile HttpResponse response;
+    private volatile ContentType contentType;
+    private volatile HttpContentInflater inflater;
+    private volatile JsonRecordParser parser;
+    private volatile HttpResponseContent buffered;
+    private volatile IOControl ioControl;
+    private volatile int socketTimeout;
+
+    private final HttpRecordSink.Input input = new HttpRecordSink.Input() {
+        @Override
+        public void suspend() {
+            ioControl.suspendInput();
+            if (ioControl instanceof HttpConnection) {
+                socketTimeout = ((HttpConnection) ioControl).getSocketTimeout();
+                setSocketTimeout(ioControl, 0);
+            }
+        }
+
+        @Override
+        public void resume() {
+            setSocketTimeout(ioControl, socketTimeout);
+            ioControl.requestInput();
+        }
+    };
+
+    HttpRecordStreamConsumer(HttpSOQLQueryStream request) {
+        this.request = request;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        this.contentType = contentType;
+        Header contentEncoding = response.getFirstHeader(HEADER_CONTENT_ENCODING);
+        this.inflater = HttpContentInflater.of(contentEncoding != null ? contentEncoding.getValue() : null);
+        int status = response.getStatusLine().getStatusCode();
+        if (status >= 200 && status < 300) {
+            HttpRecordSink sink = request.getSink();
+            this.parser = new JsonRecordParser(request.getFields(), record -> sink.accept(request, record, input));
+        } else {
+            this.buffered = HttpResponseContent.of(entity.getContentLength(), inflater != null);
+        }
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        this.ioControl = ioControl;
+        OutputStream content = parser != null ? parser : buffered;
+        HttpRecordSink sink = request.getSink();
+        int read;
+        // Stops reading as soon as the sink suspends the input: the rest stays in the connection buffers.
+        while (!sink.isSuspended(input) && (read = decoder.read(chunk)) > 0) {
+            if (inflater != null) {
+                inflater.update(chunk.array(), 0, read, content);
+            } else {
+                content.write(chunk.array(), 0, read);
+            }
+            chunk.clear();
+        }
+    }
+
+    @Override
+    protected HttpBaseResponse buildResult(HttpContext context) throws IOException {
+        HttpBaseResponse.Builder result = HttpAsyncClientTransport.responseOf(response);
+        if (inflater != null) {
+            inflater.finish();
+            result.inflated();
+        }
+        if (parser != null) {
+            byte[] summary = summaryOf(parser);
+            result.body(summary, summary.length, null);
+        } else if (buffered != null) {
+            result.body(buffered.bytes(), buffered.size(), contentType != null ? contentType.toString() : null);
+        }
+        return result.build();
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (inflater != null) inflater.end();
+        inflater = null;
+        parser = null;
+        buffered = null;
+    }
+
+    // The connection may have been shut down meanwhile, e.g. when the exchange has been aborted.
+    private static void setSocketTimeout(IOControl ioControl, int timeout) {
+        if (!(ioControl instanceof HttpConnection)) return;
+        try {
+            ((HttpConnection) ioControl).setSocketTimeout(timeout);
+        } catch (ConnectionShutdownException exception) {
+            // Nothing to restore.
+        }
+    }
+
+    static byte[] summaryOf(JsonRecordParser parser) throws IOException {
+        if (!parser.isComplete()) throw new IOException("The query response ended before its records were complete");
+        StringWriter summary = new StringWriter();
+        JsonWriter.write(parser.summary(), summary);
+        return summary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.spi.Operation;
+
+public class HttpRecordsDeleted extends HttpBaseRequest {
+
+    public HttpRecordsDeleted(String deletedPath) {
+        super(GET, deletedPath);
+    }
+
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.DELETED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.spi.Operation;
+
+public class HttpRecordsUpdated extends HttpBaseRequest {
+
+    public HttpRecordsUpdated(String updatedPath) {
+        super(GET, updatedPath);
+    }
+
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.UPDATED;
+    }
+}
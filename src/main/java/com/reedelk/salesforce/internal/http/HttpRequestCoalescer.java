@@ -0,0 +1,127 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.exception.RequestTimeoutException;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.internal.trace.Tracing;
+import com.reedelk.salesforce.spi.Phase;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Concurrent identical requests (same configuration and URI) share a single
+// network call: the first caller executes it, the others wait for its outcome
+// and get its response body, with a trace of their own and without the API usage of the call.
+// When the call fails, each of them throws an exception of its own, caused by the one of the call.
+class HttpRequestCoalescer {
+
+    private static final Map<String, CompletableFuture<HttpResult>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private HttpRequestCoalescer() {
+    }
+
+    static HttpResult execute(HttpBaseRequest request,
+                          SalesforceConfiguration configuration,
+                          Deadline deadline,
+                          TrafficLane lane,
+                          Function<String,? extends PlatformException> exceptionSupplier,
+                          Supplier<HttpResult> call) {
+        // Per lane: an interactive call never waits on a bulk call queued behind the bulk budget.
+        String key = configuration.getId() + " " + lane + " " + request.getURI();
+
+        CompletableFuture<HttpResult> shared = new CompletableFuture<>();
+        CompletableFuture<HttpResult> inFlight;
+        while ((inFlight = IN_FLIGHT.putIfAbsent(key, shared)) != null) {
+            try {
+                return follow(request, configuration, inFlight, deadline, exceptionSupplier);
+            } catch (LeaderTimeoutException exception) {
+                // The leader ran out of its own time: a waiter with time left makes (or joins) a new call.
+                if (deadline != null) deadline.check();
+                IN_FLIGHT.remove(key, inFlight);
+            }
+        }
+
+        try {
+            HttpResult result = call.get();
+            shared.complete(result);
+            return result;
+        } catch (Throwable exception) {
+            shared.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            IN_FLIGHT.remove(key, shared);
+        }
+    }
+
+    private static HttpResult follow(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     CompletableFuture<HttpResult> inFlight,
+                                     Deadline deadline,
+                                     Function<String,? extends PlatformException> exceptionSupplier) {
+        RequestTraceRecorder trace = RequestTraceRecorder.of(configuration);
+        long start = System.nanoTime();
+        try {
+            return join(inFlight, deadline, exceptionSupplier).coalesced(trace);
+        } catch (LeaderTimeoutException exception) {
+            // Not done yet: the caller makes, or joins, a new call traced on its own.
+            trace = null;
+            throw exception;
+        } finally {
+            if (trace != null) trace.addSince(Phase.COALESCED, start);
+            Tracing.publish(configuration, request.getOperation(), request.getURI(), trace);
+        }
+    }
+
+    // The shared call is never cancelled: a waiter running out of time only stops waiting.
+    private static HttpResult join(CompletableFuture<HttpResult> inFlight,
+                                   Deadline deadline,
+                                   Function<String,? extends PlatformException> exceptionSupplier) {
+        if (deadline == null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException exception) {
+                throw unwrap(exception, exception.getCause(), exceptionSupplier);
+            }
+        }
+        try {
+            return inFlight.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            throw deadline.exceeded();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw deadline.exceeded();
+        } catch (ExecutionException exception) {
+            throw unwrap(exception, exception.getCause(), exceptionSupplier);
+        }
+    }
+
+    // The exception of the call is shared by all its waiters, possibly on other threads: it is never
+    // rethrown as is, so that the stack trace and suppressed exceptions of each waiter are its own.
+    private static RuntimeException unwrap(Exception exception,
+                                           Throwable cause,
+                                           Function<String,? extends PlatformException> exceptionSupplier) {
+        if (cause instanceof RequestTimeoutException) return new LeaderTimeoutException((RequestTimeoutException) cause);
+        if (cause instanceof Error) throw (Error) cause;
+        if (cause == null) return new CompletionException(exception);
+        PlatformException followerException = exceptionSupplier.apply(cause.getMessage());
+        if (followerException.getCause() == null) followerException.initCause(cause);
+        return followerException;
+    }
+
+    private static class LeaderTimeoutException extends RuntimeException {
+
+        LeaderTimeoutException(RequestTimeoutException cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
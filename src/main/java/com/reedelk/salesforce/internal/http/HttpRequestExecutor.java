@@ -3,55 +3,210 @@ package com.reedelk.salesforce.internal.http;
 import com.reedelk.runtime.api.component.ProcessorSync;
 import com.reedelk.runtime.api.exception.PlatformException;
 import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
 import com.reedelk.salesforce.internal.commons.Default;
-import com.reedelk.salesforce.internal.commons.HttpEntityUtils;
 import com.reedelk.salesforce.internal.commons.HttpResponseStatus;
+import com.reedelk.salesforce.internal.commons.Messages;
+import com.reedelk.salesforce.internal.exception.ConcurrencyLimitExceeded;
+import com.reedelk.salesforce.internal.exception.RequestTimeoutException;
 import com.reedelk.salesforce.internal.exception.Unauthorized;
+import com.reedelk.salesforce.internal.metrics.ApiUsage;
+import com.reedelk.salesforce.internal.metrics.ApiUsageMetrics;
+import com.reedelk.salesforce.internal.metrics.Metrics;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.spi.Phase;
+import net.jodah.failsafe.CircuitBreaker;
+import net.jodah.failsafe.CircuitBreakerOpenException;
 import net.jodah.failsafe.Failsafe;
+import net.jodah.failsafe.Policy;
 import net.jodah.failsafe.RetryPolicy;
-import org.apache.http.HttpResponse;
-import org.apache.http.StatusLine;
-import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import static com.reedelk.salesforce.internal.commons.Default.ATTEMPT_DELAY_SECONDS;
 
 public class HttpRequestExecutor {
 
-    public static String execute(HttpBaseRequest request,
-                                 SalesforceConfiguration configuration,
-                                 ProcessorSync processorSync,
-                                 Function<String,? extends PlatformException> exceptionSupplier) {
+    private static final String HEADER_LIMIT_INFO = "Sforce-Limit-Info";
 
-        HttpResponse response = Failsafe.with(new RetryPolicy<>()
+    public static HttpResult execute(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     ProcessorSync processorSync,
+                                     Function<String,? extends PlatformException> exceptionSupplier) {
+        return execute(request, configuration, processorSync, exceptionSupplier, null);
+    }
+
+    public static HttpResult execute(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     ProcessorSync processorSync,
+                                     Function<String,? extends PlatformException> exceptionSupplier,
+                                     RequestTraceRecorder trace) {
+        return execute(request, configuration, processorSync, exceptionSupplier, trace, null, TrafficLane.INTERACTIVE);
+    }
+
+    public static HttpResult execute(HttpBaseRequest request,
+                                     SalesforceConfiguration configuration,
+                                     ProcessorSync processorSync,
+                                     Function<String,? extends PlatformException> exceptionSupplier,
+                                     RequestTraceRecorder trace,
+                                     Deadline deadline,
+                                     TrafficLane lane) {
+
+        RetryPolicy<HttpBaseResponse> retryPolicy = new RetryPolicy<HttpBaseResponse>()
                 .withDelay(Duration.of(ATTEMPT_DELAY_SECONDS, ChronoUnit.SECONDS))
                 .withMaxAttempts(Default.MAX_RETRY_ATTEMPTS)
-                .handle(Exception.class))
-                .onFailure(objectExecutionCompletedEvent -> {
-                    Throwable failure = objectExecutionCompletedEvent.getFailure();
-                    exceptionSupplier.apply(failure.getMessage());
-                })
-                .get(() -> executeRequest(request, configuration, processorSync));
-
-        StatusLine statusLine = response.getStatusLine();
-        String responseData = HttpEntityUtils.toString(response.getEntity(), exceptionSupplier);
-        if (HttpResponseStatus.isSuccessful(statusLine)) {
-            return responseData;
-        } else if (HttpResponseStatus.isUnAuthorized(statusLine)) {
+                .handle(Exception.class)
+                // An exchange aborted by the caller, e.g. a cancelled record stream, is not retried.
+                .abortOn(ConcurrencyLimitExceeded.class, CircuitBreakerOpenException.class, RequestTimeoutException.class,
+                        CancellationException.class)
+                .onRetry(event -> Metrics.recordRetry(configuration, request.getOperation()));
+        if (request instanceof HttpSOQLQueryStream) {
+            // The records already streamed can't be taken back, nor told apart from the ones of a retry.
+            HttpSOQLQueryStream page = (HttpSOQLQueryStream) request;
+            retryPolicy.abortIf((response, failure) -> page.getSink().hasDelivered(page));
+        }
+        if (deadline != null) {
+            // No retry when the deadline would expire during the delay before it.
+            long attemptDelayMillis = TimeUnit.SECONDS.toMillis(ATTEMPT_DELAY_SECONDS);
+            retryPolicy.abortIf((response, failure) -> deadline.remainingMillis() <= attemptDelayMillis);
+        }
+
+        List<Policy<HttpBaseResponse>> policies = new ArrayList<>();
+        policies.add(retryPolicy);
+        CircuitBreaker<HttpBaseResponse> circuitBreaker = HttpCircuitBreaker.of(configuration);
+        if (circuitBreaker != null) policies.add(circuitBreaker);
+
+        long start = System.nanoTime();
+        HttpBaseResponse response;
+        try {
+            response = Failsafe.with(policies)
+                    .onFailure(objectExecutionCompletedEvent -> {
+                        Throwable failure = objectExecutionCompletedEvent.getFailure();
+                        exceptionSupplier.apply(failure.getMessage());
+                    })
+                    .get(() -> executeRequest(request, configuration, processorSync, exceptionSupplier, trace, deadline, lane));
+        } catch (RequestTimeoutException exception) {
+            Metrics.recordLatency(configuration, request.getOperation(), System.nanoTime() - start, false);
+            throw exception;
+        } catch (ConcurrencyLimitExceeded exception) {
+            Metrics.recordLatency(configuration, request.getOperation(), System.nanoTime() - start, false);
+            throw exceptionSupplier.apply(exception.getMessage());
+        } catch (CircuitBreakerOpenException exception) {
+            Metrics.recordLatency(configuration, request.getOperation(), System.nanoTime() - start, false);
+            long retryIn = exception.getCircuitBreaker().getRemainingDelay().toMillis();
+            throw exceptionSupplier.apply(Messages.CircuitBreaker.OPEN.format(retryIn, configuration.getId()));
+        } catch (RuntimeException exception) {
+            Metrics.recordLatency(configuration, request.getOperation(), System.nanoTime() - start, false);
+            if (deadline != null && deadline.isExpired()) throw deadline.exceeded();
+            throw exception;
+        }
+
+        ApiUsage apiUsage = ApiUsage.from(response.getHeader(HEADER_LIMIT_INFO));
+        ApiUsageMetrics.update(configuration, apiUsage);
+
+        int statusCode = response.getStatusCode();
+        String responseData = response.getBody();
+
+        Metrics.recordLatency(configuration, request.getOperation(), System.nanoTime() - start, HttpResponseStatus.isSuccessful(statusCode));
+        Metrics.recordResponseSize(configuration, request.getOperation(), response.getBodyLength());
+        if (HttpResponseStatus.isSuccessful(statusCode)) {
+            return new HttpResult(responseData, apiUsage, trace);
+        } else if (HttpResponseStatus.isUnAuthorized(statusCode)) {
             throw new Unauthorized();
         } else {
             throw exceptionSupplier.apply(responseData);
         }
     }
 
-    private static HttpResponse executeRequest(HttpBaseRequest request,
-                                               SalesforceConfiguration configuration,
-                                               ProcessorSync processorSync) throws ExecutionException, InterruptedException {
-        CloseableHttpAsyncClient httpclient = HttpClientProvider.provide(configuration, processorSync);
-        return httpclient.execute(request, null).get();
+    // Each attempt takes a token and a concurrent request permit of the rate limiter, and gives the
+    // permit back before the delay to the next attempt: retries and the token requests are rate
+    // limited as any other request, and nobody waits for a permit held by a request sleeping.
+    private static HttpBaseResponse executeRequest(HttpBaseRequest request,
+                                                   SalesforceConfiguration configuration,
+                                                   ProcessorSync processorSync,
+                                                   Function<String,? extends PlatformException> exceptionSupplier,
+                                                   RequestTraceRecorder trace,
+                                                   Deadline deadline,
+                                                   TrafficLane lane) throws ExecutionException, InterruptedException {
+        if (deadline != null) deadline.check();
+        if (trace != null) trace.attemptStarted();
+        HttpRateLimiter rateLimiter = HttpRateLimiter.of(configuration);
+        try {
+            long permitStart = System.nanoTime();
+            rateLimiter.acquirePermit(exceptionSupplier, deadline, lane);
+            if (trace != null) trace.addSince(Phase.THROTTLE, permitStart);
+        } catch (RuntimeException exception) {
+            if (trace != null) trace.attemptCompleted();
+            throw exception;
+        }
+        try {
+            long clientStart = System.nanoTime();
+            HttpTransport transport = HttpClientProvider.provide(configuration, processorSync, lane);
+            if (trace != null) trace.addSince(Phase.CLIENT, clientStart);
+
+            HttpConcurrencyLimiter concurrencyLimiter = HttpConcurrencyLimiter.of(configuration, lane);
+            if (concurrencyLimiter == null) {
+                return send(transport, request, configuration, trace, deadline, lane);
+            }
+
+            long throttleStart = System.nanoTime();
+            concurrencyLimiter.acquire(deadline);
+            if (trace != null) trace.addSince(Phase.THROTTLE, throttleStart);
+
+            long start = System.nanoTime();
+            try {
+                HttpBaseResponse response = send(transport, request, configuration, trace, deadline, lane);
+                if (HttpResponseStatus.isOverloaded(response.getStatusCode())) {
+                    concurrencyLimiter.onError();
+                } else {
+                    concurrencyLimiter.onSuccess(System.nanoTime() - start);
+                }
+                return response;
+            } catch (ExecutionException | InterruptedException | RuntimeException exception) {
+                concurrencyLimiter.onError();
+                throw exception;
+            }
+        } finally {
+            rateLimiter.releasePermit(lane);
+            if (trace != null) trace.attemptCompleted();
+        }
+    }
+
+    private static HttpBaseResponse send(HttpTransport transport,
+                                         HttpBaseRequest request,
+                                         SalesforceConfiguration configuration,
+                                         RequestTraceRecorder trace,
+                                         Deadline deadline,
+                                         TrafficLane lane) throws ExecutionException, InterruptedException {
+        if (isResponseCompression(configuration)) {
+            HttpHeaders.setAcceptEncoding(request);
+        }
+        HttpHedging hedging = isHedgeable(request) ? HttpHedging.of(configuration) : null;
+        if (hedging != null) {
+            return hedging.send(transport, request, trace, deadline, lane);
+        }
+        CompletableFuture<HttpBaseResponse> exchange = transport.send(request, trace, deadline);
+        if (request instanceof HttpSOQLQueryStream) {
+            ((HttpSOQLQueryStream) request).getSink().exchange(exchange);
+        }
+        return Deadline.get(exchange, deadline);
+    }
+
+    // Two responses streaming records to the same sink would interleave them.
+    private static boolean isHedgeable(HttpBaseRequest request) {
+        return HttpBaseRequest.GET.equals(request.getMethod()) && !(request instanceof HttpSOQLQueryStream);
+    }
+
+    private static boolean isResponseCompression(SalesforceConfiguration configuration) {
+        return !Boolean.FALSE.equals(configuration.getResponseCompression());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.reedelk.salesforce.internal.http;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.reedelk.salesforce.internal.http.HttpHeaders.HEADER_CONTENT_ENCODING;
+
+// Buffers the response content in memory, decompressing gzip and deflate encoded
+// content chunk by chunk while it is read from the connection.
+class HttpResponseConsumer extends AbstractAsyncResponseConsumer<HttpBaseResponse> {
+
+    private final ByteBuffer chunk = ByteBuffer.allocate(8192);
+
+    private volatile HttpResponse response;
+    private volatile ContentType contentType;
+    private volatile HttpContentInflater inflater;
+    private volatile HttpResponseContent content;
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        this.contentType = contentType;
+        Header contentEncoding = response.getFirstHeader(HEADER_CONTENT_ENCODING);
+        this.inflater = HttpContentInflater.of(contentEncoding != null ? contentEncoding.getValue() : null);
+        this.content = HttpResponseContent.of(entity.getContentLength(), inflater != null);
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        int read;
+        while ((read = decoder.read(chunk)) > 0) {
+            if (inflater != null) {
+                inflater.update(chunk.array(), 0, read, content);
+            } else {
+                content.write(chunk.array(), 0, read);
+            }
+            chunk.clear();
+        }
+    }
+
+    @Override
+    protected HttpBaseResponse buildResult(HttpContext context) throws IOException {
+        HttpBaseResponse.Builder result = HttpAsyncClientTransport.responseOf(response);
+        if (content != null) {
+            if (inflater != null) {
+                inflater.finish();
+                result.inflated();
+            }
+            result.body(content.bytes(), content.size(), contentType != null ? contentType.toString() : null);
+        }
+        return result.build();
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (inflater != null) inflater.end();
+        inflater = null;
+        content = null;
+    }
+}
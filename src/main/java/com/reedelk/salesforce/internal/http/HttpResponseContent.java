@@ -0,0 +1,24 @@
+package com.reedelk.salesforce.internal.http;
+
+import java.io.ByteArrayOutputStream;
+
+// A response body received in memory, giving access to the written bytes without the copy made by toByteArray.
+class HttpResponseContent extends ByteArrayOutputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    private static final int MAX_INITIAL_BUFFER_SIZE = 1024 * 1024;
+
+    private HttpResponseContent(int size) {
+        super(size);
+    }
+
+    // Sized on the content length, if known. Compressed JSON usually inflates several times.
+    static HttpResponseContent of(long contentLength, boolean compressed) {
+        int initialSize = contentLength > 0 ? (int) Math.min(contentLength, MAX_INITIAL_BUFFER_SIZE) : DEFAULT_BUFFER_SIZE;
+        return new HttpResponseContent(compressed ? initialSize * 4 : initialSize);
+    }
+
+    byte[] bytes() {
+        return buf;
+    }
+}
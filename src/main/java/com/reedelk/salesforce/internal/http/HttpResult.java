@@ -0,0 +1,35 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.metrics.ApiUsage;
+import com.reedelk.salesforce.spi.RequestTrace;
+
+public class HttpResult {
+
+    private final String body;
+    private final ApiUsage apiUsage;
+    private final RequestTrace trace;
+
+    HttpResult(String body, ApiUsage apiUsage, RequestTrace trace) {
+        this.body = body;
+        this.apiUsage = apiUsage;
+        this.trace = trace;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public ApiUsage getApiUsage() {
+        return apiUsage;
+    }
+
+    public RequestTrace getTrace() {
+        return trace;
+    }
+
+    // The result of the call of another caller: its API usage and timings describe a request
+    // this one never made, the given trace (if any) records the wait for it instead.
+    HttpResult coalesced(RequestTrace trace) {
+        return new HttpResult(body, null, trace);
+    }
+}
@@ -1,17 +1,20 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpGet;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_QUERY;
+public class HttpSOQLQuery extends HttpBaseRequest {
 
-public class HttpSOQLQuery extends HttpGet implements HttpBaseRequest {
+    public HttpSOQLQuery(String queryPath) {
+        super(GET, queryPath);
+    }
 
-    public HttpSOQLQuery(String instanceName, String query) {
-        super(String.format(SALESFORCE_QUERY, instanceName, query));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.QUERY;
     }
 }
@@ -0,0 +1,47 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.spi.Operation;
+
+import java.util.List;
+
+// A query page (first query or next records URL) whose records are streamed to the
+// sink while the response is read, instead of being buffered in the response body.
+public class HttpSOQLQueryStream extends HttpBaseRequest {
+
+    private final HttpRecordSink sink;
+    private final List<String> fields;
+    private final Deadline deadline;
+
+    // Whether records of this page have been handed to the sink, guarded by the sink.
+    boolean delivered;
+
+    HttpSOQLQueryStream(String queryPath, HttpRecordSink sink, List<String> fields, Deadline deadline) {
+        super(GET, queryPath);
+        this.sink = sink;
+        this.fields = fields;
+        this.deadline = deadline;
+    }
+
+    HttpRecordSink getSink() {
+        return sink;
+    }
+
+    List<String> getFields() {
+        return fields;
+    }
+
+    Deadline getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.QUERY;
+    }
+}
@@ -1,18 +1,21 @@
 package com.reedelk.salesforce.internal.http;
 
-import org.apache.http.client.methods.HttpGet;
+import com.reedelk.salesforce.spi.Operation;
 
-import static com.reedelk.salesforce.internal.commons.Default.SALESFORCE_QUERY_WITH_NEXT_TOKEN;
+public class HttpSOQLQueryWithNextRecords extends HttpBaseRequest {
 
-public class HttpSOQLQueryWithNextRecords extends HttpGet implements HttpBaseRequest {
+    // The next records URL is relative to the instance URL, e.g. /services/data/v49.0/query/01gD0000002HU6KIAW-2000
+    public HttpSOQLQueryWithNextRecords(String nextRecords) {
+        super(GET, nextRecords);
+    }
 
-    public HttpSOQLQueryWithNextRecords(String instanceName, String nextRecords) {
-        super(String.format(SALESFORCE_QUERY_WITH_NEXT_TOKEN, instanceName, nextRecords));
+    @Override
+    public void setAccessToken(HttpAccessToken accessToken) {
+        HttpHeaders.setAuthorization(this, accessToken);
     }
 
     @Override
-    public void setAccessToken(String accessToken) {
-        HttpHeaders.addAuthorization(this, accessToken);
+    public Operation getOperation() {
+        return Operation.QUERY;
     }
 }
-
@@ -0,0 +1,159 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+import com.reedelk.salesforce.spi.Phase;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+
+import java.io.IOException;
+
+// Wraps the default request producer and response consumer of a single attempt
+// to record the connection, request, server and download phases on the trace.
+class HttpTracingExchange {
+
+    private final RequestTraceRecorder trace;
+    private final long attemptStart = System.nanoTime();
+
+    private volatile long connected;
+    private volatile long requestSent;
+    private volatile long responseReceived;
+
+    HttpTracingExchange(RequestTraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    HttpAsyncRequestProducer producer(HttpAsyncRequestProducer producer) {
+        return new TracingRequestProducer(producer);
+    }
+
+    <T> HttpAsyncResponseConsumer<T> consumer(HttpAsyncResponseConsumer<T> consumer) {
+        return new TracingResponseConsumer<>(consumer);
+    }
+
+    private class TracingRequestProducer implements HttpAsyncRequestProducer {
+
+        private final HttpAsyncRequestProducer delegate;
+
+        TracingRequestProducer(HttpAsyncRequestProducer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHost getTarget() {
+            return delegate.getTarget();
+        }
+
+        @Override
+        public HttpRequest generateRequest() throws IOException, HttpException {
+            // Called once a connection has been leased (and connected, if new).
+            connected = System.nanoTime();
+            trace.add(Phase.CONNECTION, connected - attemptStart);
+            return delegate.generateRequest();
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+            delegate.produceContent(encoder, ioControl);
+        }
+
+        @Override
+        public void requestCompleted(HttpContext context) {
+            requestSent = System.nanoTime();
+            if (connected > 0) trace.add(Phase.REQUEST, requestSent - connected);
+            Object connection = context.getAttribute(HttpCoreContext.HTTP_CONNECTION);
+            if (connection instanceof HttpConnection) {
+                HttpConnection httpConnection = (HttpConnection) connection;
+                trace.connectionReused(httpConnection.getMetrics().getRequestCount() > 1);
+            }
+            delegate.requestCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public void resetRequest() throws IOException {
+            delegate.resetRequest();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private class TracingResponseConsumer<T> implements HttpAsyncResponseConsumer<T> {
+
+        private final HttpAsyncResponseConsumer<T> delegate;
+
+        TracingResponseConsumer(HttpAsyncResponseConsumer<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void responseReceived(HttpResponse response) throws IOException, HttpException {
+            responseReceived = System.nanoTime();
+            long sent = requestSent > 0 ? requestSent : connected;
+            if (sent > 0) trace.add(Phase.SERVER, responseReceived - sent);
+            delegate.responseReceived(response);
+        }
+
+        @Override
+        public void consumeContent(ContentDecoder decoder, IOControl ioControl) throws IOException {
+            delegate.consumeContent(decoder, ioControl);
+        }
+
+        @Override
+        public void responseCompleted(HttpContext context) {
+            if (responseReceived > 0) trace.addSince(Phase.DOWNLOAD, responseReceived);
+            delegate.responseCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public Exception getException() {
+            return delegate.getException();
+        }
+
+        @Override
+        public T getResult() {
+            return delegate.getResult();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean cancel() {
+            return delegate.cancel();
+        }
+    }
+}
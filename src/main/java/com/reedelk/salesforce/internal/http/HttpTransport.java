@@ -0,0 +1,19 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.trace.RequestTraceRecorder;
+
+import java.util.concurrent.CompletableFuture;
+
+// Sends the requests of a configuration over the connections it owns, translating them into the
+// requests of its HTTP client library. The returned future completes with the response once its
+// body has been fully received (and decompressed, if the request accepted a compressed response),
+// or exceptionally on I/O errors. Cancelling the future aborts the exchange. Waits done before the
+// request is handed to the client are bounded by the deadline, if any.
+public interface HttpTransport {
+
+    CompletableFuture<HttpBaseResponse> send(HttpBaseRequest request, RequestTraceRecorder trace, Deadline deadline);
+
+    void close();
+
+}
@@ -0,0 +1,58 @@
+package com.reedelk.salesforce.internal.metrics;
+
+public class ApiUsage {
+
+    private static final String API_USAGE_ENTRY = "api-usage=";
+
+    private final long used;
+    private final long limit;
+
+    public ApiUsage(long used, long limit) {
+        this.used = used;
+        this.limit = limit;
+    }
+
+    public long getUsed() {
+        return used;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getRemaining() {
+        return Math.max(0, limit - used);
+    }
+
+    public double getUsagePercentage() {
+        return limit > 0 ? (used * 100.0d) / limit : 0.0d;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiUsage{" +
+                "used=" + used +
+                ", limit=" + limit +
+                '}';
+    }
+
+    // Sforce-Limit-Info: api-usage=25/5000, per-app-api-usage=17/250(appName=sample-app)
+    public static ApiUsage from(String limitInfo) {
+        if (limitInfo == null) return null;
+        for (String entry : limitInfo.split(",")) {
+            String trimmed = entry.trim();
+            if (!trimmed.startsWith(API_USAGE_ENTRY)) continue;
+            String usage = trimmed.substring(API_USAGE_ENTRY.length());
+            int separator = usage.indexOf('/');
+            if (separator < 0) return null;
+            try {
+                long used = Long.parseLong(usage.substring(0, separator).trim());
+                long limit = Long.parseLong(usage.substring(separator + 1).trim());
+                return new ApiUsage(used, limit);
+            } catch (NumberFormatException exception) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
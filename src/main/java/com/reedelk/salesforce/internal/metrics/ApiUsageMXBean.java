@@ -0,0 +1,15 @@
+package com.reedelk.salesforce.internal.metrics;
+
+public interface ApiUsageMXBean {
+
+    long getUsed();
+
+    long getLimit();
+
+    long getRemaining();
+
+    double getUsagePercentage();
+
+    long getLastUpdated();
+
+}
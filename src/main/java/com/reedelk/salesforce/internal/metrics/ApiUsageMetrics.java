@@ -0,0 +1,100 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ApiUsageMetrics implements ApiUsageMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiUsageMetrics.class);
+
+    private static final String OBJECT_NAME_TEMPLATE = "com.reedelk.salesforce:type=ApiUsage,configuration=%s";
+
+    private static final Map<String, ApiUsageMetrics> CONFIG_ID_METRICS_MAP = new ConcurrentHashMap<>();
+
+    private volatile ApiUsage usage = new ApiUsage(0, 0);
+    private volatile long lastUpdated;
+
+    private ApiUsageMetrics() {
+    }
+
+    public static void update(SalesforceConfiguration configuration, ApiUsage usage) {
+        if (usage == null) return;
+        ApiUsageMetrics metrics = CONFIG_ID_METRICS_MAP.computeIfAbsent(configuration.getId(), configId -> {
+            ApiUsageMetrics created = new ApiUsageMetrics();
+            register(configId, created);
+            return created;
+        });
+        metrics.usage = usage;
+        metrics.lastUpdated = System.currentTimeMillis();
+    }
+
+    public static ApiUsage get(SalesforceConfiguration configuration) {
+        ApiUsageMetrics metrics = CONFIG_ID_METRICS_MAP.get(configuration.getId());
+        return metrics != null ? metrics.usage : null;
+    }
+
+    public static void release(SalesforceConfiguration configuration) {
+        ApiUsageMetrics removed = CONFIG_ID_METRICS_MAP.remove(configuration.getId());
+        if (removed != null) unregister(configuration.getId());
+    }
+
+    @Override
+    public long getUsed() {
+        return usage.getUsed();
+    }
+
+    @Override
+    public long getLimit() {
+        return usage.getLimit();
+    }
+
+    @Override
+    public long getRemaining() {
+        return usage.getRemaining();
+    }
+
+    @Override
+    public double getUsagePercentage() {
+        return usage.getUsagePercentage();
+    }
+
+    @Override
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private static void register(String configId, ApiUsageMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectNameOf(configId);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (Exception exception) {
+            logger.warn("Could not register API usage MBean for configuration with id=[" + configId + "]", exception);
+        }
+    }
+
+    private static void unregister(String configId) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectNameOf(configId);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception exception) {
+            logger.warn("Could not unregister API usage MBean for configuration with id=[" + configId + "]", exception);
+        }
+    }
+
+    private static ObjectName objectNameOf(String configId) throws Exception {
+        return new ObjectName(String.format(OBJECT_NAME_TEMPLATE, ObjectName.quote(configId)));
+    }
+}
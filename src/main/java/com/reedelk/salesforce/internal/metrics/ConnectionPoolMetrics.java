@@ -0,0 +1,57 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.spi.ConnectionPoolStats;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+public class ConnectionPoolMetrics implements ConnectionPoolMetricsMXBean {
+
+    private final LongAdder tokenRefreshes = new LongAdder();
+    private final List<Supplier<ConnectionPoolStats>> pools = new CopyOnWriteArrayList<>();
+
+    // A configuration has one pool per traffic lane: their stats are summed.
+    void addPoolStats(Supplier<ConnectionPoolStats> poolStats) {
+        pools.add(poolStats);
+    }
+
+    void recordTokenRefresh() {
+        tokenRefreshes.increment();
+    }
+
+    @Override
+    public int getLeased() {
+        return sum(ConnectionPoolStats::getLeased);
+    }
+
+    @Override
+    public int getPending() {
+        return sum(ConnectionPoolStats::getPending);
+    }
+
+    @Override
+    public int getAvailable() {
+        return sum(ConnectionPoolStats::getAvailable);
+    }
+
+    @Override
+    public int getMax() {
+        return sum(ConnectionPoolStats::getMax);
+    }
+
+    @Override
+    public long getTokenRefreshes() {
+        return tokenRefreshes.sum();
+    }
+
+    private int sum(ToIntFunction<ConnectionPoolStats> stat) {
+        int total = 0;
+        for (Supplier<ConnectionPoolStats> pool : pools) {
+            total += stat.applyAsInt(pool.get());
+        }
+        return total;
+    }
+}
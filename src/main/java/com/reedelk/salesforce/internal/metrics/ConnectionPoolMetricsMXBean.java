@@ -0,0 +1,15 @@
+package com.reedelk.salesforce.internal.metrics;
+
+public interface ConnectionPoolMetricsMXBean {
+
+    int getLeased();
+
+    int getPending();
+
+    int getAvailable();
+
+    int getMax();
+
+    long getTokenRefreshes();
+
+}
@@ -0,0 +1,38 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.spi.ConnectionPoolStats;
+
+public class ConnectionPoolSnapshot implements ConnectionPoolStats {
+
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    public ConnectionPoolSnapshot(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    @Override
+    public int getLeased() {
+        return leased;
+    }
+
+    @Override
+    public int getPending() {
+        return pending;
+    }
+
+    @Override
+    public int getAvailable() {
+        return available;
+    }
+
+    @Override
+    public int getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,126 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.spi.ConnectionPoolStats;
+import com.reedelk.salesforce.spi.MetricsRegistry;
+import com.reedelk.salesforce.spi.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Default registry: keeps the metrics in memory and exposes them as MXBeans:
+// com.reedelk.salesforce:type=Operation,configuration=<id>,operation=<operation>
+// com.reedelk.salesforce:type=ConnectionPool,configuration=<id>
+public class JmxMetricsRegistry implements MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmxMetricsRegistry.class);
+
+    private static final String OPERATION_OBJECT_NAME = "com.reedelk.salesforce:type=Operation,configuration=%s,operation=%s";
+    private static final String POOL_OBJECT_NAME = "com.reedelk.salesforce:type=ConnectionPool,configuration=%s";
+
+    private final Map<String, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionPoolMetrics> poolMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordLatency(String configId, Operation operation, long latencyNanos, boolean success) {
+        operation(configId, operation).recordLatency(latencyNanos, success);
+    }
+
+    @Override
+    public void recordResponseSize(String configId, Operation operation, long bytes) {
+        operation(configId, operation).recordResponseSize(bytes);
+    }
+
+    @Override
+    public void recordRetry(String configId, Operation operation) {
+        operation(configId, operation).recordRetry();
+    }
+
+    @Override
+    public void recordHedge(String configId, Operation operation, boolean won) {
+        operation(configId, operation).recordHedge(won);
+    }
+
+    @Override
+    public void recordTokenRefresh(String configId) {
+        pool(configId).recordTokenRefresh();
+    }
+
+    @Override
+    public void registerPool(String configId, Supplier<ConnectionPoolStats> poolStats) {
+        pool(configId).addPoolStats(poolStats);
+    }
+
+    @Override
+    public void release(String configId) {
+        for (Operation operation : Operation.values()) {
+            if (operationMetrics.remove(operationKey(configId, operation)) != null) {
+                unregister(operationObjectName(configId, operation));
+            }
+        }
+        if (poolMetrics.remove(configId) != null) {
+            unregister(poolObjectName(configId));
+        }
+    }
+
+    public OperationMetrics get(String configId, Operation operation) {
+        return operationMetrics.get(operationKey(configId, operation));
+    }
+
+    private OperationMetrics operation(String configId, Operation operation) {
+        return operationMetrics.computeIfAbsent(operationKey(configId, operation), key -> {
+            OperationMetrics created = new OperationMetrics();
+            register(created, operationObjectName(configId, operation));
+            return created;
+        });
+    }
+
+    private ConnectionPoolMetrics pool(String configId) {
+        return poolMetrics.computeIfAbsent(configId, key -> {
+            ConnectionPoolMetrics created = new ConnectionPoolMetrics();
+            register(created, poolObjectName(configId));
+            return created;
+        });
+    }
+
+    private static String operationKey(String configId, Operation operation) {
+        return configId + "/" + operation.metricName();
+    }
+
+    private static String operationObjectName(String configId, Operation operation) {
+        return String.format(OPERATION_OBJECT_NAME, ObjectName.quote(configId), operation.metricName());
+    }
+
+    private static String poolObjectName(String configId) {
+        return String.format(POOL_OBJECT_NAME, ObjectName.quote(configId));
+    }
+
+    private static void register(Object mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (Exception exception) {
+            logger.warn("Could not register MBean with name=[" + name + "]", exception);
+        }
+    }
+
+    private static void unregister(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception exception) {
+            logger.warn("Could not unregister MBean with name=[" + name + "]", exception);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed bucket latency histogram: lock free recording, percentiles
+// are approximated with the upper bound of the matching bucket.
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MILLIS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 300, 500, 750,
+            1000, 1500, 2000, 3000, 5000, 10000, 20000, 30000, 60000, Long.MAX_VALUE
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_MILLIS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long latencyNanos) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        buckets[bucketOf(latencyMillis)].increment();
+        count.increment();
+        sumNanos.add(latencyNanos);
+        maxNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double meanMillis() {
+        long total = count.sum();
+        return total == 0 ? 0.0d : (sumNanos.sum() / (double) total) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long percentileMillis(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+        long threshold = (long) Math.ceil(total * percentile / 100.0d);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= threshold) {
+                long upperBound = BUCKET_UPPER_BOUNDS_MILLIS[i];
+                return upperBound == Long.MAX_VALUE ? (long) maxMillis() : upperBound;
+            }
+        }
+        return (long) maxMillis();
+    }
+
+    static int bucketCount() {
+        return BUCKET_UPPER_BOUNDS_MILLIS.length;
+    }
+
+    static long upperBoundMillis(int bucket) {
+        return BUCKET_UPPER_BOUNDS_MILLIS[bucket];
+    }
+
+    static int bucketOf(long latencyMillis) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            if (latencyMillis <= BUCKET_UPPER_BOUNDS_MILLIS[i]) return i;
+        }
+        return BUCKET_UPPER_BOUNDS_MILLIS.length - 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.spi.ConnectionPoolStats;
+import com.reedelk.salesforce.spi.MetricsRegistry;
+import com.reedelk.salesforce.spi.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Entry point used by the HTTP layer to publish measurements. The JMX registry is always
+// present; additional registries (e.g. bridges to an external metrics system) are plugged in
+// by registering a MetricsRegistry OSGi service.
+public class Metrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+
+    private static final JmxMetricsRegistry JMX = new JmxMetricsRegistry();
+
+    private static final List<MetricsRegistry> REGISTRIES = new CopyOnWriteArrayList<>();
+
+    // The pools of each configuration, replayed to the registries bound after they were created.
+    private static final Map<String, List<Supplier<ConnectionPoolStats>>> CONFIG_ID_POOLS_MAP = new ConcurrentHashMap<>();
+
+    static {
+        REGISTRIES.add(JMX);
+    }
+
+    private Metrics() {
+    }
+
+    public static synchronized void addRegistry(MetricsRegistry registry) {
+        REGISTRIES.add(registry);
+        CONFIG_ID_POOLS_MAP.forEach((configId, pools) -> {
+            for (Supplier<ConnectionPoolStats> poolStats : pools) {
+                publish(registry, added -> added.registerPool(configId, poolStats));
+            }
+        });
+    }
+
+    public static void removeRegistry(MetricsRegistry registry) {
+        if (registry != JMX) REGISTRIES.remove(registry);
+    }
+
+    public static JmxMetricsRegistry jmx() {
+        return JMX;
+    }
+
+    public static void recordLatency(SalesforceConfiguration configuration, Operation operation, long latencyNanos, boolean success) {
+        publish(registry -> registry.recordLatency(configuration.getId(), operation, latencyNanos, success));
+    }
+
+    public static void recordResponseSize(SalesforceConfiguration configuration, Operation operation, long bytes) {
+        publish(registry -> registry.recordResponseSize(configuration.getId(), operation, bytes));
+    }
+
+    public static void recordRetry(SalesforceConfiguration configuration, Operation operation) {
+        publish(registry -> registry.recordRetry(configuration.getId(), operation));
+    }
+
+    public static void recordHedge(SalesforceConfiguration configuration, Operation operation, boolean won) {
+        publish(registry -> registry.recordHedge(configuration.getId(), operation, won));
+    }
+
+    public static void recordTokenRefresh(SalesforceConfiguration configuration) {
+        publish(registry -> registry.recordTokenRefresh(configuration.getId()));
+    }
+
+    public static synchronized void registerPool(SalesforceConfiguration configuration, Supplier<ConnectionPoolStats> poolStats) {
+        CONFIG_ID_POOLS_MAP.computeIfAbsent(configuration.getId(), configId -> new CopyOnWriteArrayList<>()).add(poolStats);
+        publish(registry -> registry.registerPool(configuration.getId(), poolStats));
+    }
+
+    public static synchronized void release(SalesforceConfiguration configuration) {
+        CONFIG_ID_POOLS_MAP.remove(configuration.getId());
+        publish(registry -> registry.release(configuration.getId()));
+    }
+
+    private static void publish(Consumer<MetricsRegistry> action) {
+        for (MetricsRegistry registry : REGISTRIES) {
+            publish(registry, action);
+        }
+    }
+
+    private static void publish(MetricsRegistry registry, Consumer<MetricsRegistry> action) {
+        try {
+            action.accept(registry);
+        } catch (Exception exception) {
+            // A faulty registry must never fail a Salesforce call.
+            logger.warn("Metrics registry error: " + exception.getMessage(), exception);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import com.reedelk.salesforce.spi.MetricsRegistry;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import static org.osgi.service.component.annotations.ReferenceCardinality.MULTIPLE;
+import static org.osgi.service.component.annotations.ReferencePolicy.DYNAMIC;
+
+// Plugs in the metrics registries other bundles register as OSGi services.
+@Component(immediate = true)
+public class MetricsRegistryBinder {
+
+    @Reference(cardinality = MULTIPLE, policy = DYNAMIC)
+    void addRegistry(MetricsRegistry registry) {
+        Metrics.addRegistry(registry);
+    }
+
+    void removeRegistry(MetricsRegistry registry) {
+        Metrics.removeRegistry(registry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+
+    void recordLatency(long latencyNanos, boolean success) {
+        latency.record(latencyNanos);
+        if (!success) errors.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordHedge(boolean won) {
+        hedges.increment();
+        if (won) hedgesWon.increment();
+    }
+
+    void recordResponseSize(long bytes) {
+        responseBytes.add(bytes);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    @Override
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.meanMillis();
+    }
+
+    @Override
+    public long getP50Millis() {
+        return latency.percentileMillis(50);
+    }
+
+    @Override
+    public long getP95Millis() {
+        return latency.percentileMillis(95);
+    }
+
+    @Override
+    public long getP99Millis() {
+        return latency.percentileMillis(99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.maxMillis();
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+}
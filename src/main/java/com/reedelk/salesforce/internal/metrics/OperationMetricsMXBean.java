@@ -0,0 +1,27 @@
+package com.reedelk.salesforce.internal.metrics;
+
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getErrors();
+
+    long getRetries();
+
+    long getHedges();
+
+    long getHedgesWon();
+
+    double getMeanMillis();
+
+    long getP50Millis();
+
+    long getP95Millis();
+
+    long getP99Millis();
+
+    double getMaxMillis();
+
+    long getResponseBytes();
+
+}
@@ -0,0 +1,111 @@
+package com.reedelk.salesforce.internal.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram over a sliding time window: the window is split in slices, each one a fixed
+// bucket histogram, and the oldest slice is cleared and reused once the window has moved past it.
+// Percentiles only reflect the latencies of the last window, so that they follow the latency of
+// Salesforce as it changes. A latency recorded while its slice is being cleared may be lost.
+public class WindowedLatencyHistogram {
+
+    private final long origin = System.nanoTime();
+    private final long sliceNanos;
+    private final Slice[] slices;
+
+    public WindowedLatencyHistogram(long windowMillis, int sliceCount) {
+        this.sliceNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(windowMillis) / sliceCount);
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public void record(long latencyNanos) {
+        long epoch = epoch();
+        Slice slice = slices[(int) (epoch % slices.length)];
+        slice.rotate(epoch);
+        slice.record(latencyNanos);
+    }
+
+    public long count() {
+        long epoch = epoch();
+        long total = 0;
+        for (Slice slice : slices) {
+            if (slice.isLive(epoch, slices.length)) total += slice.count.sum();
+        }
+        return total;
+    }
+
+    public long percentileMillis(double percentile) {
+        long epoch = epoch();
+        long[] counts = new long[LatencyHistogram.bucketCount()];
+        long total = 0;
+        long maxNanos = 0;
+        for (Slice slice : slices) {
+            if (!slice.isLive(epoch, slices.length)) continue;
+            for (int i = 0; i < counts.length; i++) {
+                long bucketCount = slice.buckets[i].sum();
+                counts[i] += bucketCount;
+                total += bucketCount;
+            }
+            maxNanos = Math.max(maxNanos, slice.maxNanos.get());
+        }
+        if (total == 0) return 0;
+        long maxMillis = TimeUnit.NANOSECONDS.toMillis(maxNanos);
+        long threshold = (long) Math.ceil(total * percentile / 100.0d);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                long upperBound = LatencyHistogram.upperBoundMillis(i);
+                return upperBound == Long.MAX_VALUE ? maxMillis : upperBound;
+            }
+        }
+        return maxMillis;
+    }
+
+    private long epoch() {
+        return (System.nanoTime() - origin) / sliceNanos;
+    }
+
+    private static class Slice {
+
+        private final LongAdder[] buckets = new LongAdder[LatencyHistogram.bucketCount()];
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private volatile long epoch;
+
+        Slice() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        // The slices of the past window are cleared by the first latency recorded in their next turn.
+        void rotate(long currentEpoch) {
+            if (epoch == currentEpoch) return;
+            synchronized (this) {
+                if (epoch == currentEpoch) return;
+                for (LongAdder bucket : buckets) {
+                    bucket.reset();
+                }
+                count.reset();
+                maxNanos.set(0);
+                epoch = currentEpoch;
+            }
+        }
+
+        void record(long latencyNanos) {
+            buckets[LatencyHistogram.bucketOf(TimeUnit.NANOSECONDS.toMillis(latencyNanos))].increment();
+            count.increment();
+            maxNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+
+        boolean isLive(long currentEpoch, int sliceCount) {
+            return currentEpoch - epoch < sliceCount;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.internal.commons.Default;
+import com.reedelk.salesforce.internal.http.HttpApiPath;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// A start/end window of the updated and deleted resources. Long gaps are split in
+// consecutive chunks, so that each call stays within the number of IDs Salesforce
+// returns at once. Salesforce truncates both bounds to the minute and rejects windows
+// of one minute or less, hence the chunks are aligned to whole minutes and each of
+// them spans at least the minimum window.
+public class ChangeWindow {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx");
+
+    private static final Duration MIN_WINDOW = Duration.ofMinutes(Default.CHANGE_WINDOW_MIN_MINUTES);
+
+    private final OffsetDateTime start;
+    private final OffsetDateTime end;
+
+    private ChangeWindow(OffsetDateTime start, OffsetDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    // A window shorter than the minimum starts earlier instead, a tail shorter than
+    // the minimum is covered by the previous chunk.
+    public static List<ChangeWindow> split(OffsetDateTime start, OffsetDateTime end, Duration chunk) {
+        OffsetDateTime windowEnd = end.truncatedTo(ChronoUnit.MINUTES);
+        OffsetDateTime windowStart = start.truncatedTo(ChronoUnit.MINUTES);
+        if (windowStart.plus(MIN_WINDOW).isAfter(windowEnd)) windowStart = windowEnd.minus(MIN_WINDOW);
+        Duration chunkDuration = chunk.compareTo(MIN_WINDOW) < 0 ? MIN_WINDOW : Duration.ofMinutes(chunk.toMinutes());
+
+        List<ChangeWindow> windows = new ArrayList<>();
+        OffsetDateTime chunkStart = windowStart;
+        while (chunkStart.isBefore(windowEnd)) {
+            OffsetDateTime chunkEnd = chunkStart.plus(chunkDuration);
+            if (chunkEnd.plus(MIN_WINDOW).isAfter(windowEnd)) chunkEnd = windowEnd;
+            windows.add(new ChangeWindow(chunkStart, chunkEnd));
+            chunkStart = chunkEnd;
+        }
+        return windows;
+    }
+
+    // e.g. ?start=2020-10-01T00%3A00%3A00%2B00%3A00&end=2020-10-02T00%3A00%3A00%2B00%3A00
+    public String query() {
+        return "?start=" + format(start) + "&end=" + format(end);
+    }
+
+    private static String format(OffsetDateTime dateTime) {
+        return HttpApiPath.encode(dateTime.withOffsetSameInstant(ZoneOffset.UTC).format(FORMAT));
+    }
+}
@@ -0,0 +1,122 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.runtime.api.component.ProcessorSync;
+import com.reedelk.runtime.api.exception.PlatformException;
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.http.HttpAuthAwareRequestExecutor;
+import com.reedelk.salesforce.internal.http.HttpBaseRequest;
+import com.reedelk.salesforce.internal.http.HttpResult;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.reedelk.salesforce.internal.commons.Messages.ChangeWindow.DATE_INVALID;
+import static com.reedelk.salesforce.internal.commons.Messages.ChangeWindow.END_BEFORE_START;
+
+// The calls of the updated and deleted resources of an object over a window: one call per chunk,
+// with the records of all the chunks merged. A record changed on the boundary of two chunks may be
+// returned by both: it is kept once.
+public class ChangeWindowRequests {
+
+    private static final String EARLIEST_DATE_AVAILABLE = "earliestDateAvailable";
+    private static final String LATEST_DATE_COVERED = "latestDateCovered";
+
+    private final SalesforceConfiguration configuration;
+    private final ProcessorSync processorSync;
+    private final Function<String,? extends PlatformException> exceptionSupplier;
+    private final Duration chunk;
+    private final Integer timeout;
+    private final TrafficLane lane;
+
+    public ChangeWindowRequests(SalesforceConfiguration configuration,
+                                ProcessorSync processorSync,
+                                Function<String,? extends PlatformException> exceptionSupplier,
+                                Duration chunk,
+                                Integer timeout,
+                                TrafficLane lane) {
+        this.configuration = configuration;
+        this.processorSync = processorSync;
+        this.exceptionSupplier = exceptionSupplier;
+        this.chunk = chunk;
+        this.timeout = timeout;
+        this.lane = lane;
+    }
+
+    // The records of each chunk are in the array with the given name, identified by the given function.
+    // When no end is given, the window ends now.
+    public Merged execute(String start,
+                          String end,
+                          Function<ChangeWindow, HttpBaseRequest> requestOf,
+                          String recordsName,
+                          Function<Object, Object> idOf) {
+        OffsetDateTime windowStart = dateTimeOf(start);
+        OffsetDateTime windowEnd = end != null ? dateTimeOf(end) : OffsetDateTime.now();
+        if (!windowEnd.isAfter(windowStart)) {
+            throw exceptionSupplier.apply(END_BEFORE_START.format(windowStart, windowEnd));
+        }
+
+        Deadline deadline = Deadline.of(configuration, timeout);
+
+        Map<Object, Object> records = new LinkedHashMap<>();
+        String earliestDateAvailable = null;
+        String latestDateCovered = null;
+        HttpResult result = null;
+        for (ChangeWindow window : ChangeWindow.split(windowStart, windowEnd, chunk)) {
+            HttpBaseRequest request = requestOf.apply(window);
+            result = HttpAuthAwareRequestExecutor.execute(request, configuration, processorSync, exceptionSupplier, deadline, lane);
+            JSONObject chunkResult = new JSONObject(result.getBody());
+            JSONArray chunkRecords = chunkResult.getJSONArray(recordsName);
+            for (int i = 0; i < chunkRecords.length(); i++) {
+                Object record = chunkRecords.get(i);
+                records.put(idOf.apply(record), record);
+            }
+            if (earliestDateAvailable == null) earliestDateAvailable = chunkResult.optString(EARLIEST_DATE_AVAILABLE, null);
+            latestDateCovered = chunkResult.optString(LATEST_DATE_COVERED, latestDateCovered);
+        }
+
+        // Null dates, e.g. the earliest date available of the updated records, are left out.
+        JSONObject payload = new JSONObject();
+        payload.put(recordsName, new JSONArray(records.values()));
+        payload.put(EARLIEST_DATE_AVAILABLE, earliestDateAvailable);
+        payload.put(LATEST_DATE_COVERED, latestDateCovered);
+        return new Merged(payload, result);
+    }
+
+    private OffsetDateTime dateTimeOf(String value) {
+        try {
+            return OffsetDateTime.parse(value.trim());
+        } catch (DateTimeParseException exception) {
+            PlatformException invalid = exceptionSupplier.apply(DATE_INVALID.format(value));
+            invalid.initCause(exception);
+            throw invalid;
+        }
+    }
+
+    public static class Merged {
+
+        private final JSONObject payload;
+        private final HttpResult result;
+
+        private Merged(JSONObject payload, HttpResult result) {
+            this.payload = payload;
+            this.result = result;
+        }
+
+        public JSONObject getPayload() {
+            return payload;
+        }
+
+        // The result of the last call, with its API usage and trace.
+        public HttpResult getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.spi.Watermark;
+import org.json.JSONObject;
+
+import java.util.List;
+
+// Builds the query of the next window of a delta sync: the records modified after the watermark
+// (same SystemModstamp and greater Id included), up to the window end, in watermark order.
+public class DeltaSyncQuery {
+
+    private static final String SYSTEM_MODSTAMP = "SystemModstamp";
+    private static final String ID = "Id";
+
+    private final String select;
+    private final String condition;
+    private final int maxRecords;
+
+    public DeltaSyncQuery(String objectName, List<String> fields, String condition, int maxRecords) {
+        StringBuilder select = new StringBuilder("SELECT ").append(ID).append(", ").append(SYSTEM_MODSTAMP);
+        if (fields != null) {
+            for (String field : fields) {
+                if (!ID.equalsIgnoreCase(field) && !SYSTEM_MODSTAMP.equalsIgnoreCase(field)) {
+                    select.append(", ").append(field);
+                }
+            }
+        }
+        this.select = select.append(" FROM ").append(objectName).append(" WHERE ").toString();
+        this.condition = condition == null || condition.trim().isEmpty() ? null : condition.trim();
+        this.maxRecords = maxRecords;
+    }
+
+    public String of(Watermark watermark, String windowEnd) {
+        StringBuilder query = new StringBuilder(select);
+        String from = watermark.getSystemModstamp();
+        if (watermark.getId() == null) {
+            query.append(SYSTEM_MODSTAMP).append(" >= ").append(from);
+        } else {
+            query.append('(').append(SYSTEM_MODSTAMP).append(" > ").append(from)
+                    .append(" OR (").append(SYSTEM_MODSTAMP).append(" = ").append(from)
+                    .append(" AND ").append(ID).append(" > '").append(watermark.getId()).append("'))");
+        }
+        query.append(" AND ").append(SYSTEM_MODSTAMP).append(" <= ").append(windowEnd);
+        if (condition != null) {
+            query.append(" AND (").append(condition).append(')');
+        }
+        return query.append(" ORDER BY ").append(SYSTEM_MODSTAMP).append(", ").append(ID)
+                .append(" LIMIT ").append(maxRecords)
+                .toString();
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public static String systemModstampOf(JSONObject record) {
+        return record.getString(SYSTEM_MODSTAMP);
+    }
+
+    public static String idOf(JSONObject record) {
+        return record.getString(ID);
+    }
+}
@@ -0,0 +1,48 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.spi.Watermark;
+import com.reedelk.salesforce.spi.WatermarkStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// One file per key in the given directory. A watermark is written to a temporary
+// file first and then moved over the previous one.
+public class FileWatermarkStore implements WatermarkStore {
+
+    private static final String EXTENSION = ".watermark";
+
+    private final Path directory;
+
+    public FileWatermarkStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Watermark load(String key) throws IOException {
+        Path file = fileOf(key);
+        if (!Files.exists(file)) return null;
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        return content.trim().isEmpty() ? null : Watermark.parse(content);
+    }
+
+    @Override
+    public void save(String key, Watermark watermark) throws IOException {
+        Files.createDirectories(directory);
+        Path file = fileOf(key);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, watermark.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION);
+    }
+}
@@ -0,0 +1,22 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.spi.WatermarkStore;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import static org.osgi.service.component.annotations.ReferenceCardinality.OPTIONAL;
+import static org.osgi.service.component.annotations.ReferencePolicy.DYNAMIC;
+
+// Plugs in the watermark store another bundle registers as an OSGi service.
+@Component(immediate = true)
+public class WatermarkStoreBinder {
+
+    @Reference(cardinality = OPTIONAL, policy = DYNAMIC)
+    void setStore(WatermarkStore store) {
+        Watermarks.setStore(store);
+    }
+
+    void unsetStore(WatermarkStore store) {
+        Watermarks.unsetStore(store);
+    }
+}
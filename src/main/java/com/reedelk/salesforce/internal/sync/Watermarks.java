@@ -0,0 +1,104 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.internal.commons.SOQLDateTime;
+import com.reedelk.salesforce.internal.exception.DeltaSyncException;
+import com.reedelk.salesforce.spi.Watermark;
+import com.reedelk.salesforce.spi.WatermarkStore;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static com.reedelk.salesforce.internal.commons.Messages.DeltaSync.WATERMARK_INVALID;
+
+// Watermarks of the delta syncs, one per configuration and sync name. The watermark reached by a
+// sync travels with its flow execution; it replaces the saved one when the commit component runs,
+// i.e. after the records have been processed by the rest of the flow, unless a later watermark
+// has been saved meanwhile. Watermarks are saved in files by default; a different store (e.g. a
+// database table) is plugged in by registering a WatermarkStore OSGi service.
+public class Watermarks {
+
+    private static final Map<String, WatermarkStore> FILE_STORES = new ConcurrentHashMap<>();
+    private static final Map<String, Object> KEY_LOCKS = new ConcurrentHashMap<>();
+
+    // A record Id: 15 characters (case-sensitive) or 18 characters (case-insensitive).
+    private static final Pattern ID = Pattern.compile("[a-zA-Z0-9]{15}([a-zA-Z0-9]{3})?");
+
+    private static final Comparator<Watermark> ORDER = Comparator
+            .comparing((Watermark watermark) -> SOQLDateTime.parseLiteral(watermark.getSystemModstamp()))
+            .thenComparing(Watermark::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static volatile WatermarkStore store;
+
+    private Watermarks() {
+    }
+
+    public static synchronized void setStore(WatermarkStore watermarkStore) {
+        store = watermarkStore;
+    }
+
+    public static synchronized void unsetStore(WatermarkStore watermarkStore) {
+        if (store == watermarkStore) store = null;
+    }
+
+    public static String key(SalesforceConfiguration configuration, String syncName) {
+        return configuration.getId() + "." + syncName.trim();
+    }
+
+    // The watermark of a sync not started yet.
+    public static Watermark start(OffsetDateTime dateTime) {
+        return Watermark.of(SOQLDateTime.literal(dateTime), null);
+    }
+
+    // The watermark of a record, from its SystemModstamp as returned by the REST API.
+    public static Watermark of(String systemModstamp, String id) {
+        return Watermark.of(SOQLDateTime.literal(SOQLDateTime.parse(systemModstamp)), id);
+    }
+
+    // Checked before use: the watermark is pasted in the query of the next window.
+    public static Watermark load(String directory, String key) throws IOException {
+        Watermark watermark = storeOf(directory).load(key);
+        if (watermark != null && !isValid(watermark)) {
+            throw new DeltaSyncException(WATERMARK_INVALID.format(key, watermark));
+        }
+        return watermark;
+    }
+
+    // Never moves the saved watermark backwards, e.g. when the commits of two overlapping
+    // executions of the same sync run out of order.
+    public static void save(String directory, String key, Watermark watermark) throws IOException {
+        synchronized (KEY_LOCKS.computeIfAbsent(key, lock -> new Object())) {
+            Watermark saved = load(directory, key);
+            if (saved != null && ORDER.compare(watermark, saved) <= 0) return;
+            storeOf(directory).save(key, watermark);
+        }
+    }
+
+    // The flow context variable holding the watermark reached by the sync with the given key.
+    public static String contextVariable(String key) {
+        return "salesforceDeltaSync." + key;
+    }
+
+    private static boolean isValid(Watermark watermark) {
+        if (watermark.getSystemModstamp() == null) return false;
+        if (watermark.getId() != null && !ID.matcher(watermark.getId()).matches()) return false;
+        try {
+            SOQLDateTime.parseLiteral(watermark.getSystemModstamp());
+            return true;
+        } catch (DateTimeParseException exception) {
+            return false;
+        }
+    }
+
+    private static WatermarkStore storeOf(String directory) {
+        WatermarkStore custom = store;
+        if (custom != null) return custom;
+        return FILE_STORES.computeIfAbsent(directory, path -> new FileWatermarkStore(Paths.get(path)));
+    }
+}
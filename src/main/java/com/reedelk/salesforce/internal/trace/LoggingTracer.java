@@ -0,0 +1,21 @@
+package com.reedelk.salesforce.internal.trace;
+
+import com.reedelk.salesforce.spi.Operation;
+import com.reedelk.salesforce.spi.RequestTrace;
+import com.reedelk.salesforce.spi.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+
+public class LoggingTracer implements Tracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingTracer.class);
+
+    @Override
+    public void onTrace(String configId, Operation operation, URI uri, RequestTrace trace) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Salesforce " + operation.metricName() + " (configuration id=[" + configId + "], uri=[" + uri.getPath() + "]): " + trace);
+        }
+    }
+}
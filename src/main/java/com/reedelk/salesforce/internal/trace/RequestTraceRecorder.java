@@ -0,0 +1,106 @@
+package com.reedelk.salesforce.internal.trace;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.spi.Phase;
+import com.reedelk.salesforce.spi.RequestTrace;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Records the trace of a single component call. Phases are accumulated across attempts and
+// can be recorded both from the flow thread and from the IO reactor thread.
+public class RequestTraceRecorder implements RequestTrace {
+
+    private final long start = System.nanoTime();
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+
+    private volatile long totalNanos = -1;
+    private volatile boolean connectionReused;
+    private volatile int attempts;
+    private volatile long lastAttemptEnd;
+
+    private RequestTraceRecorder() {
+    }
+
+    public static RequestTraceRecorder of(SalesforceConfiguration configuration) {
+        return Boolean.TRUE.equals(configuration.getRequestTracing()) ? new RequestTraceRecorder() : null;
+    }
+
+    public void add(Phase phase, long nanos) {
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    public void addSince(Phase phase, long startNanos) {
+        add(phase, System.nanoTime() - startNanos);
+    }
+
+    // Work done between two attempts, e.g. the token refresh after a 401: it is not a retry delay.
+    public void addBetweenAttempts(Phase phase, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        add(phase, nanos);
+        if (lastAttemptEnd > 0) lastAttemptEnd += nanos;
+    }
+
+    public void attemptStarted() {
+        attempts++;
+        if (lastAttemptEnd > 0) addSince(Phase.RETRY_DELAY, lastAttemptEnd);
+    }
+
+    public void attemptCompleted() {
+        lastAttemptEnd = System.nanoTime();
+    }
+
+    public void connectionReused(boolean reused) {
+        this.connectionReused = reused;
+    }
+
+    public void finish() {
+        if (totalNanos < 0) totalNanos = System.nanoTime() - start;
+    }
+
+    @Override
+    public long get(Phase phase) {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    @Override
+    public long totalNanos() {
+        return totalNanos >= 0 ? totalNanos : System.nanoTime() - start;
+    }
+
+    @Override
+    public int attempts() {
+        return attempts;
+    }
+
+    @Override
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    @Override
+    public Map<String, Double> toMillis() {
+        Map<String, Double> spans = new HashMap<>();
+        for (Phase phase : Phase.values()) {
+            spans.put(phase.spanName(), millis(get(phase)));
+        }
+        spans.put(TOTAL, millis(totalNanos()));
+        return Collections.unmodifiableMap(spans);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestTrace{" +
+                "spans=" + toMillis() +
+                ", attempts=" + attempts +
+                ", connectionReused=" + connectionReused +
+                '}';
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.reedelk.salesforce.internal.trace;
+
+import com.reedelk.salesforce.spi.Tracer;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import static org.osgi.service.component.annotations.ReferenceCardinality.MULTIPLE;
+import static org.osgi.service.component.annotations.ReferencePolicy.DYNAMIC;
+
+// Plugs in the tracers other bundles register as OSGi services.
+@Component(immediate = true)
+public class TracerBinder {
+
+    @Reference(cardinality = MULTIPLE, policy = DYNAMIC)
+    void addTracer(Tracer tracer) {
+        Tracing.addTracer(tracer);
+    }
+
+    void removeTracer(Tracer tracer) {
+        Tracing.removeTracer(tracer);
+    }
+}
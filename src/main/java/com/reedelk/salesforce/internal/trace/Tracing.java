@@ -0,0 +1,47 @@
+package com.reedelk.salesforce.internal.trace;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.spi.Operation;
+import com.reedelk.salesforce.spi.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Publishes the request traces to the logging tracer and to the Tracer OSGi services.
+public class Tracing {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracing.class);
+
+    private static final List<Tracer> TRACERS = new CopyOnWriteArrayList<>();
+
+    static {
+        TRACERS.add(new LoggingTracer());
+    }
+
+    private Tracing() {
+    }
+
+    public static void addTracer(Tracer tracer) {
+        TRACERS.add(tracer);
+    }
+
+    public static void removeTracer(Tracer tracer) {
+        TRACERS.remove(tracer);
+    }
+
+    public static void publish(SalesforceConfiguration configuration, Operation operation, URI uri, RequestTraceRecorder trace) {
+        if (trace == null) return;
+        trace.finish();
+        for (Tracer tracer : TRACERS) {
+            try {
+                tracer.onTrace(configuration.getId(), operation, uri, trace);
+            } catch (Exception exception) {
+                // A faulty tracer must never fail a Salesforce call.
+                logger.warn("Tracer error: " + exception.getMessage(), exception);
+            }
+        }
+    }
+}
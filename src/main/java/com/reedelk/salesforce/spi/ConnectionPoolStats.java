@@ -0,0 +1,15 @@
+package com.reedelk.salesforce.spi;
+
+// Connections of one pool of a configuration at the time it was taken. With HTTP/2 the requests are
+// multiplexed over a single connection: leased are the requests in flight and max the most allowed.
+public interface ConnectionPoolStats {
+
+    int getLeased();
+
+    int getPending();
+
+    int getAvailable();
+
+    int getMax();
+
+}
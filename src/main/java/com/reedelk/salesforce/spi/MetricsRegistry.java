@@ -0,0 +1,23 @@
+package com.reedelk.salesforce.spi;
+
+import java.util.function.Supplier;
+
+// Receives the module measurements; registered as an OSGi service by any bundle. Implementations
+// must be thread safe and non blocking: they are invoked on the request path of every Salesforce call.
+public interface MetricsRegistry {
+
+    void recordLatency(String configId, Operation operation, long latencyNanos, boolean success);
+
+    void recordResponseSize(String configId, Operation operation, long bytes);
+
+    void recordRetry(String configId, Operation operation);
+
+    void recordHedge(String configId, Operation operation, boolean won);
+
+    void recordTokenRefresh(String configId);
+
+    void registerPool(String configId, Supplier<ConnectionPoolStats> poolStats);
+
+    void release(String configId);
+
+}
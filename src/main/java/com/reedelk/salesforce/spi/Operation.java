@@ -0,0 +1,24 @@
+package com.reedelk.salesforce.spi;
+
+public enum Operation {
+
+    GET("get"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete"),
+    QUERY("query"),
+    DESCRIBE("describe"),
+    UPDATED("updated"),
+    DELETED("deleted"),
+    TOKEN("token");
+
+    private final String metricName;
+
+    Operation(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+}
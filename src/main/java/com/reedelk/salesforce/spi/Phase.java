@@ -0,0 +1,33 @@
+package com.reedelk.salesforce.spi;
+
+public enum Phase {
+
+    // Waiting for the rate and adaptive concurrency limiters.
+    THROTTLE("throttle"),
+    // Access token lookup, fetch or refresh.
+    TOKEN("token"),
+    // HTTP client lookup or creation.
+    CLIENT("client"),
+    // Pool lease; includes connect and TLS handshake when no pooled connection could be reused.
+    CONNECTION("connection"),
+    // Writing the request line, headers and body.
+    REQUEST("request"),
+    // From request fully sent to response headers received (server time to first byte).
+    SERVER("server"),
+    // Reading the response body.
+    DOWNLOAD("download"),
+    // Time spent waiting between failed attempts.
+    RETRY_DELAY("retryDelay"),
+    // Waiting for the response of an identical request made by another call, instead of sending it.
+    COALESCED("coalesced");
+
+    private final String spanName;
+
+    Phase(String spanName) {
+        this.spanName = spanName;
+    }
+
+    public String spanName() {
+        return spanName;
+    }
+}
@@ -0,0 +1,21 @@
+package com.reedelk.salesforce.spi;
+
+import java.util.Map;
+
+// Timing breakdown of a single component call, as published to the tracers once the call completed.
+public interface RequestTrace {
+
+    String TOTAL = "total";
+
+    long get(Phase phase);
+
+    long totalNanos();
+
+    int attempts();
+
+    boolean isConnectionReused();
+
+    // Span name -> duration in milliseconds.
+    Map<String, Double> toMillis();
+
+}
@@ -0,0 +1,11 @@
+package com.reedelk.salesforce.spi;
+
+import java.net.URI;
+
+// Receives the timing breakdown of the component calls when request tracing is enabled;
+// registered as an OSGi service by any bundle.
+public interface Tracer {
+
+    void onTrace(String configId, Operation operation, URI uri, RequestTrace trace);
+
+}
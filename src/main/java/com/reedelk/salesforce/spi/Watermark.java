@@ -0,0 +1,40 @@
+package com.reedelk.salesforce.spi;
+
+// The position of a delta sync: the SystemModstamp of the last processed record as a SOQL
+// date time literal (e.g. 2020-10-06T11:23:49.000Z), with its Id to break ties between records
+// modified in the same millisecond. The Id is null before the first record has been processed.
+public class Watermark {
+
+    private static final String SEPARATOR = " ";
+
+    private final String systemModstamp;
+    private final String id;
+
+    private Watermark(String systemModstamp, String id) {
+        this.systemModstamp = systemModstamp;
+        this.id = id;
+    }
+
+    public static Watermark of(String systemModstamp, String id) {
+        return new Watermark(systemModstamp, id);
+    }
+
+    // The inverse of toString.
+    public static Watermark parse(String watermark) {
+        String[] parts = watermark.trim().split(SEPARATOR);
+        return new Watermark(parts[0], parts.length > 1 ? parts[1] : null);
+    }
+
+    public String getSystemModstamp() {
+        return systemModstamp;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id == null ? systemModstamp : systemModstamp + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,13 @@
+package com.reedelk.salesforce.spi;
+
+import java.io.IOException;
+
+// Saves the delta sync watermarks instead of the default files; registered as an OSGi service by any bundle.
+public interface WatermarkStore {
+
+    // Returns null when no watermark was saved for the given key.
+    Watermark load(String key) throws IOException;
+
+    // Must replace the saved watermark atomically: a failure leaves the previous one in place.
+    void save(String key, Watermark watermark) throws IOException;
+}
@@ -0,0 +1,165 @@
+package com.reedelk.salesforce.internal.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRecordParserTest {
+
+    private static final String PAGE = "{\"totalSize\":2,\"done\":false,\"nextRecordsUrl\":\"/services/data/v49.0/query/01gD-2000\"," +
+            "\"records\":[" +
+            "{\"attributes\":{\"type\":\"Account\",\"url\":\"/services/data/v49.0/sobjects/Account/001D000000IqhSLIAZ\"}," +
+            "\"Id\":\"001D000000IqhSLIAZ\",\"Name\":\"Caf\u00e9 \\\"Cr\u00e8me\\\" \\ud83d\\ude00 \uD83C\uDF70\",\"NumberOfEmployees\":120," +
+            "\"AnnualRevenue\":1.5E7,\"IsDeleted\":false,\"ParentId\":null," +
+            "\"Owner\":{\"attributes\":{\"type\":\"User\"},\"Name\":\"\u674e\u96f7\"},\"Tags\":[\"a\",{\"b\":1}]}," +
+            "{\"attributes\":{\"type\":\"Account\"},\"Id\":\"001D000000IqhSMIAZ\",\"Name\":\"Second\"," +
+            "\"NumberOfEmployees\":9999999999,\"AnnualRevenue\":0,\"IsDeleted\":true,\"ParentId\":\"001D000000IqhSLIAZ\"," +
+            "\"Owner\":null,\"Tags\":[]}" +
+            "]}";
+
+    @Test
+    void shouldParseRecordsWithoutAttributes() throws IOException {
+        Result result = parse(null, bytes(PAGE), Integer.MAX_VALUE);
+
+        assertEquals(2, result.records.size());
+        Map<String, Object> first = result.records.get(0);
+        assertEquals(Arrays.asList("Id", "Name", "NumberOfEmployees", "AnnualRevenue", "IsDeleted", "ParentId", "Owner", "Tags"),
+                new ArrayList<>(first.keySet()));
+        assertEquals("001D000000IqhSLIAZ", first.get("Id"));
+        assertEquals("Caf\u00e9 \"Cr\u00e8me\" \uD83D\uDE00 \uD83C\uDF70", first.get("Name"));
+        assertEquals(120, first.get("NumberOfEmployees"));
+        assertEquals(1.5E7, first.get("AnnualRevenue"));
+        assertEquals(Boolean.FALSE, first.get("IsDeleted"));
+        assertTrue(first.containsKey("ParentId"));
+        assertNull(first.get("ParentId"));
+        assertEquals(Collections.singletonMap("Name", "\u674e\u96f7"), first.get("Owner"));
+        assertEquals(Arrays.asList("a", Collections.singletonMap("b", 1)), first.get("Tags"));
+
+        Map<String, Object> second = result.records.get(1);
+        assertEquals(9999999999L, second.get("NumberOfEmployees"));
+        assertEquals(0, second.get("AnnualRevenue"));
+        assertNull(second.get("Owner"));
+        assertEquals(Collections.emptyList(), second.get("Tags"));
+    }
+
+    @Test
+    void shouldCollectSummary() throws IOException {
+        Result result = parse(null, bytes(PAGE), Integer.MAX_VALUE);
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("totalSize", 2);
+        expected.put("done", false);
+        expected.put("nextRecordsUrl", "/services/data/v49.0/query/01gD-2000");
+        assertEquals(expected, result.summary);
+        assertTrue(result.complete);
+    }
+
+    @Test
+    void shouldDecodeEscapes() throws IOException {
+        String json = "{\"records\":[{\"Text\":\"q\\\" b\\\\ s\\/ \\b\\f\\n\\r\\t u\\u00e9\\u20AC\"}]}";
+
+        Result result = parse(null, bytes(json), Integer.MAX_VALUE);
+
+        assertEquals("q\" b\\ s/ \b\f\n\r\t u\u00e9\u20ac", result.records.get(0).get("Text"));
+    }
+
+    @Test
+    void shouldDecodeSurrogatePairs() throws IOException {
+        // An escaped pair, then the same character as raw UTF-8 bytes.
+        String json = "{\"records\":[{\"Text\":\"\\ud83d\\ude00 \uD83D\uDE00\"}]}";
+
+        Result result = parse(null, bytes(json), Integer.MAX_VALUE);
+
+        assertEquals("\uD83D\uDE00 \uD83D\uDE00", result.records.get(0).get("Text"));
+    }
+
+    @Test
+    void shouldParseSameRecordsWhenSplitAtAnyByte() throws IOException {
+        byte[] page = bytes(PAGE);
+        Result expected = parse(null, page, Integer.MAX_VALUE);
+
+        for (int split = 0; split <= page.length; split++) {
+            List<Map<String, Object>> records = new ArrayList<>();
+            JsonRecordParser parser = new JsonRecordParser(null, records::add);
+            parser.write(page, 0, split);
+            parser.write(page, split, page.length - split);
+
+            assertEquals(expected.records, records, "split at " + split);
+            assertEquals(expected.summary, parser.summary(), "split at " + split);
+        }
+    }
+
+    @Test
+    void shouldParseSameRecordsWhenWrittenByteByByte() throws IOException {
+        byte[] page = bytes(PAGE);
+        Result expected = parse(null, page, Integer.MAX_VALUE);
+
+        Result result = parse(null, page, 1);
+
+        assertEquals(expected.records, result.records);
+        assertEquals(expected.summary, result.summary);
+        assertTrue(result.complete);
+    }
+
+    @Test
+    void shouldKeepSelectedFieldsOnly() throws IOException {
+        Result result = parse(Arrays.asList("id", "OWNER"), bytes(PAGE), 7);
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("Id", "001D000000IqhSLIAZ");
+        expected.put("Owner", Collections.singletonMap("Name", "\u674e\u96f7"));
+        assertEquals(expected, result.records.get(0));
+    }
+
+    @Test
+    void shouldHandRecordsOverAsSoonAsComplete() throws IOException {
+        byte[] page = bytes(PAGE);
+        int secondRecord = PAGE.indexOf("{\"attributes\":{\"type\":\"Account\"},\"Id\":\"001D000000IqhSMIAZ\"");
+        List<Map<String, Object>> records = new ArrayList<>();
+        JsonRecordParser parser = new JsonRecordParser(null, records::add);
+
+        parser.write(page, 0, bytes(PAGE.substring(0, secondRecord)).length);
+
+        assertEquals(1, records.size());
+        assertFalse(parser.isComplete());
+    }
+
+    @Test
+    void shouldRejectMalformedJson() {
+        assertThrows(IOException.class, () -> parse(null, bytes("{\"records\":[{\"Id\" \"x\"}]}"), Integer.MAX_VALUE));
+        assertThrows(IOException.class, () -> parse(null, bytes("{\"records\":[{\"Id\":\"\\x\"}]}"), Integer.MAX_VALUE));
+        assertThrows(IOException.class, () -> parse(null, bytes("{\"records\":[{\"Id\":\"\\u00zz\"}]}"), Integer.MAX_VALUE));
+        assertThrows(IOException.class, () -> parse(null, bytes("{\"records\":[{\"Id\":tru}]}"), Integer.MAX_VALUE));
+    }
+
+    private static Result parse(List<String> fields, byte[] json, int chunkSize) throws IOException {
+        Result result = new Result();
+        JsonRecordParser parser = new JsonRecordParser(fields, result.records::add);
+        for (int offset = 0; offset < json.length; offset += chunkSize) {
+            parser.write(json, offset, Math.min(chunkSize, json.length - offset));
+        }
+        result.summary = parser.summary();
+        result.complete = parser.isComplete();
+        return result;
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Result {
+
+        final List<Map<String, Object>> records = new ArrayList<>();
+        Map<String, Object> summary;
+        boolean complete;
+    }
+}
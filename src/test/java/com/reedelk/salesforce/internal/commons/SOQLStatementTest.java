@@ -0,0 +1,107 @@
+package com.reedelk.salesforce.internal.commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SOQLStatementTest {
+
+    @Test
+    void shouldRejectOrderBy() {
+        assertRejected("SELECT Id FROM Account ORDER BY Name");
+        assertRejected("SELECT Id FROM Account WHERE Industry = 'Energy' ORDER BY Name");
+    }
+
+    @Test
+    void shouldRejectGroupByAndHaving() {
+        assertRejected("SELECT Industry, COUNT(Id) FROM Account GROUP BY Industry");
+        assertRejected("SELECT Industry, COUNT(Id) FROM Account WHERE Name != null GROUP BY Industry HAVING COUNT(Id) > 1");
+    }
+
+    @Test
+    void shouldRejectLimitAndOffset() {
+        assertRejected("SELECT Id FROM Account LIMIT 10");
+        assertRejected("SELECT Id FROM Account WHERE Name != null LIMIT 10");
+        assertRejected("SELECT Id FROM Account WHERE Name != null OFFSET 10");
+    }
+
+    @Test
+    void shouldRejectWithAndForClauses() {
+        assertRejected("SELECT Id FROM Account WITH SECURITY_ENFORCED");
+        assertRejected("SELECT Id FROM Account WHERE Name != null WITH SECURITY_ENFORCED");
+        assertRejected("SELECT Id FROM Account WHERE Name != null FOR UPDATE");
+        assertRejected("SELECT Id FROM Account FOR VIEW");
+    }
+
+    @Test
+    void shouldRejectAliasAndScope() {
+        assertRejected("SELECT a.Id FROM Account a");
+        assertRejected("SELECT Id FROM Account USING SCOPE Mine");
+    }
+
+    @Test
+    void shouldRejectClausesInAnyCase() {
+        assertRejected("select Id from Account where Name != null order by Name");
+        assertRejected("Select Id From Account Limit 5");
+    }
+
+    @Test
+    void shouldRejectQueryWithoutObjectOrSelectList() {
+        assertRejected("SELECT Id");
+        assertRejected("FROM Account");
+        assertRejected("SELECT Id FROM ");
+        assertRejected("");
+    }
+
+    @Test
+    void shouldIgnoreClausesInStringLiterals() {
+        SOQLStatement statement = SOQLStatement.parse("SELECT Id FROM Account WHERE Name = 'ORDER BY Name LIMIT 1'");
+
+        assertNotNull(statement);
+        assertEquals("SELECT Id FROM Account WHERE (Name = 'ORDER BY Name LIMIT 1') AND CreatedDate >= 2020-10-01T00:00:00.000Z",
+                statement.and("CreatedDate >= 2020-10-01T00:00:00.000Z"));
+    }
+
+    @Test
+    void shouldIgnoreClausesAfterEscapedQuotes() {
+        SOQLStatement statement = SOQLStatement.parse("SELECT Id FROM Account WHERE Name = 'O\\'Brien LIMIT 1'");
+
+        assertNotNull(statement);
+        assertEquals("SELECT Id FROM Account WHERE (Name = 'O\\'Brien LIMIT 1') AND IsDeleted = false",
+                statement.and("IsDeleted = false"));
+    }
+
+    @Test
+    void shouldIgnoreClausesInSubqueries() {
+        SOQLStatement statement = SOQLStatement.parse(
+                "SELECT Id, (SELECT Id FROM Contacts ORDER BY Name LIMIT 5) FROM Account " +
+                        "WHERE Id IN (SELECT AccountId FROM Opportunity WHERE StageName = 'Closed Won' LIMIT 100)");
+
+        assertNotNull(statement);
+        assertEquals("Account", statement.getObjectName());
+    }
+
+    @Test
+    void shouldAddConditionToQueryWithoutWhere() {
+        SOQLStatement statement = SOQLStatement.parse("SELECT Id, Name FROM Account");
+
+        assertNotNull(statement);
+        assertEquals("SELECT Id, Name FROM Account WHERE CreatedDate < 2020-10-01T00:00:00.000Z",
+                statement.and("CreatedDate < 2020-10-01T00:00:00.000Z"));
+    }
+
+    @Test
+    void shouldBuildBoundaryQueryKeepingCondition() {
+        SOQLStatement statement = SOQLStatement.parse("SELECT Id FROM Account WHERE Industry = 'Energy'");
+
+        assertNotNull(statement);
+        assertEquals("SELECT CreatedDate FROM Account WHERE Industry = 'Energy' ORDER BY CreatedDate ASC LIMIT 1",
+                statement.first("CreatedDate", true));
+        assertEquals("SELECT CreatedDate FROM Account WHERE Industry = 'Energy' ORDER BY CreatedDate DESC LIMIT 1",
+                statement.first("CreatedDate", false));
+    }
+
+    private static void assertRejected(String query) {
+        assertNull(SOQLStatement.parse(query), query);
+    }
+}
@@ -0,0 +1,216 @@
+package com.reedelk.salesforce.internal.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpContentInflaterTest {
+
+    private static final byte[] CONTENT = content();
+
+    @Test
+    void shouldInflateGzipContentReceivedAtOnce() throws IOException {
+        assertArrayEquals(CONTENT, inflate("gzip", gzip(CONTENT), Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldInflateGzipContentSplitAtAnyByte() throws IOException {
+        byte[] compressed = gzip(CONTENT);
+        for (int split = 0; split <= compressed.length; split++) {
+            assertArrayEquals(CONTENT, inflateSplitAt("gzip", compressed, split), "split at " + split);
+        }
+    }
+
+    @Test
+    void shouldInflateGzipContentReceivedByteByByte() throws IOException {
+        assertArrayEquals(CONTENT, inflate("gzip", gzip(CONTENT), 1));
+    }
+
+    @Test
+    void shouldSkipOptionalGzipHeaderFieldsSplitAtAnyByte() throws IOException {
+        byte[] compressed = gzipWithHeaderFields(CONTENT);
+        // The header alone is 10 + 2 + 4 + 5 + 8 + 2 bytes: every split inside it is covered.
+        for (int split = 0; split <= 64; split++) {
+            assertArrayEquals(CONTENT, inflateSplitAt("gzip", compressed, split), "split at " + split);
+        }
+    }
+
+    @Test
+    void shouldCheckTrailerSplitAtAnyByte() throws IOException {
+        byte[] compressed = gzip(CONTENT);
+        for (int split = compressed.length - 8; split <= compressed.length; split++) {
+            assertArrayEquals(CONTENT, inflateSplitAt("gzip", compressed, split), "split at " + split);
+        }
+    }
+
+    @Test
+    void shouldInflateConcatenatedGzipMembers() throws IOException {
+        byte[] first = "first member, ".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = concat(gzip(first), gzip(CONTENT), gzipWithHeaderFields(first));
+        byte[] expected = concat(first, CONTENT, first);
+
+        assertArrayEquals(expected, inflate("gzip", compressed, Integer.MAX_VALUE));
+        assertArrayEquals(expected, inflate("gzip", compressed, 1));
+        for (int split = 0; split <= compressed.length; split += 7) {
+            assertArrayEquals(expected, inflateSplitAt("gzip", compressed, split), "split at " + split);
+        }
+    }
+
+    @Test
+    void shouldInflateZlibAndRawDeflateContent() throws IOException {
+        assertArrayEquals(CONTENT, inflate("deflate", deflate(CONTENT, false), 3));
+        assertArrayEquals(CONTENT, inflate("deflate", deflate(CONTENT, true), 3));
+    }
+
+    @Test
+    void shouldDrainOutputPendingOnceAllInputIsConsumed() throws IOException {
+        // Around the size of the inflater output buffer: the last input bytes are consumed by an
+        // inflate filling the buffer, and the rest of their output is still held by the inflater.
+        for (int size = 8190; size <= 8200; size++) {
+            byte[] repeated = new byte[size];
+            Arrays.fill(repeated, (byte) 'a');
+
+            assertArrayEquals(repeated, inflate("deflate", deflate(repeated, true), Integer.MAX_VALUE), "size " + size);
+            assertArrayEquals(repeated, inflate("deflate", deflate(repeated, false), Integer.MAX_VALUE), "size " + size);
+            assertArrayEquals(repeated, inflate("gzip", gzip(repeated), Integer.MAX_VALUE), "size " + size);
+        }
+    }
+
+    @Test
+    void shouldRejectCorruptTrailer() throws IOException {
+        byte[] compressed = gzip(CONTENT);
+        compressed[compressed.length - 8] ^= 1;
+
+        assertThrows(ZipException.class, () -> inflate("gzip", compressed, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldRejectTruncatedContent() throws IOException {
+        byte[] compressed = gzip(CONTENT);
+        byte[] truncated = new byte[compressed.length - 4];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+
+        assertThrows(ZipException.class, () -> inflate("gzip", truncated, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldRejectContentNotInGzipFormat() {
+        byte[] plain = "{\"done\":true,\"records\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(ZipException.class, () -> inflate("gzip", plain, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldNotInflateIdentityOrUnknownEncodings() {
+        assertNull(HttpContentInflater.of(null));
+        assertNull(HttpContentInflater.of("identity"));
+        assertNull(HttpContentInflater.of("br"));
+        assertNotNull(HttpContentInflater.of(" X-GZIP "));
+    }
+
+    private static byte[] inflate(String encoding, byte[] compressed, int chunkSize) throws IOException {
+        HttpContentInflater inflater = HttpContentInflater.of(encoding);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (int offset = 0; offset < compressed.length; offset += chunkSize) {
+                inflater.update(compressed, offset, Math.min(chunkSize, compressed.length - offset), out);
+            }
+            inflater.finish();
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflateSplitAt(String encoding, byte[] compressed, int split) throws IOException {
+        HttpContentInflater inflater = HttpContentInflater.of(encoding);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            // Chunks are read into a buffer reused by the connection: the inflater must not keep them.
+            byte[] buffer = new byte[compressed.length];
+            System.arraycopy(compressed, 0, buffer, 0, split);
+            inflater.update(buffer, 0, split, out);
+            Arrays.fill(buffer, (byte) 0);
+            System.arraycopy(compressed, split, buffer, 0, compressed.length - split);
+            inflater.update(buffer, 0, compressed.length - split, out);
+            inflater.finish();
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    // JSON records with random values: larger than the inflater output buffer once inflated.
+    private static byte[] content() {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder("{\"done\":true,\"records\":[");
+        for (int i = 0; i < 400; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"Id\":\"001D000000IqhSL").append(i).append("\",\"Amount\":").append(random.nextInt()).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    // A gzip member with all the optional header fields: FHCRC, FEXTRA, FNAME and FCOMMENT.
+    private static byte[] gzipWithHeaderFields(byte[] content) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        member.write(new byte[] {0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 255});
+        member.write(new byte[] {4, 0, 'a', 'b', 'c', 'd'});
+        member.write("name".getBytes(StandardCharsets.ISO_8859_1));
+        member.write(0);
+        member.write("comment".getBytes(StandardCharsets.ISO_8859_1));
+        member.write(0);
+        member.write(new byte[] {0x12, 0x34});
+        member.write(deflate(content, true));
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        writeInt(member, (int) crc.getValue());
+        writeInt(member, content.length);
+        return member.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] content, boolean raw) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+            deflate.write(content);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package com.reedelk.salesforce.internal.http;
+
+import com.reedelk.salesforce.component.SalesforceConfiguration;
+import com.reedelk.salesforce.component.TrafficLane;
+import com.reedelk.salesforce.internal.commons.Deadline;
+import com.reedelk.salesforce.internal.exception.RequestTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRateLimiterTest {
+
+    @Test
+    void shouldNotDelayNextCallerWhenRejectedByDeadline() {
+        // 4 requests per second: once the bucket is empty, the next token is 250 ms away.
+        SalesforceConfiguration configuration = configuration("rejected-by-deadline", 4);
+        HttpRateLimiter limiter = HttpRateLimiter.of(configuration);
+        try {
+            for (int i = 0; i < 4; i++) {
+                acquire(limiter, null);
+            }
+
+            assertThrows(RequestTimeoutException.class, () -> acquire(limiter, Deadline.of(configuration, 50)));
+
+            // Had the rejected caller kept its slot, this one would have to wait 500 ms.
+            assertDoesNotThrow(() -> acquire(limiter, Deadline.of(configuration, 400)));
+        } finally {
+            HttpRateLimiter.release(configuration);
+        }
+    }
+
+    @Test
+    void shouldNotWaitWhenTokensAreAvailable() {
+        SalesforceConfiguration configuration = configuration("tokens-available", 4);
+        HttpRateLimiter limiter = HttpRateLimiter.of(configuration);
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertDoesNotThrow(() -> acquire(limiter, Deadline.of(configuration, 50)));
+            }
+        } finally {
+            HttpRateLimiter.release(configuration);
+        }
+    }
+
+    private static void acquire(HttpRateLimiter limiter, Deadline deadline) {
+        limiter.acquirePermit(RequestTimeoutException::new, deadline, TrafficLane.INTERACTIVE);
+        limiter.releasePermit(TrafficLane.INTERACTIVE);
+    }
+
+    private static SalesforceConfiguration configuration(String id, int maxRequestsPerSecond) {
+        SalesforceConfiguration configuration = new SalesforceConfiguration();
+        configuration.setId(id);
+        configuration.setMaxRequestsPerSecond(maxRequestsPerSecond);
+        return configuration;
+    }
+}
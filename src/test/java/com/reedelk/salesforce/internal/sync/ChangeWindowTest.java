@@ -0,0 +1,129 @@
+package com.reedelk.salesforce.internal.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangeWindowTest {
+
+    private static final Duration ONE_DAY = Duration.ofHours(24);
+
+    @Test
+    void shouldKeepWindowShorterThanChunkWhole() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-01T06:00:00Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T00:00:00", "2020-10-01T06:00:00");
+    }
+
+    @Test
+    void shouldTruncateBothBoundsToTheMinute() {
+        List<ChangeWindow> windows = split("2020-10-01T10:00:45Z", "2020-10-01T10:05:30.999Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T10:00:00", "2020-10-01T10:05:00");
+    }
+
+    @Test
+    void shouldStartEarlierWhenWindowIsEmpty() {
+        List<ChangeWindow> windows = split("2020-10-01T10:05:10Z", "2020-10-01T10:05:50Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T10:03:00", "2020-10-01T10:05:00");
+    }
+
+    @Test
+    void shouldStartEarlierWhenWindowIsShorterThanMinimum() {
+        List<ChangeWindow> windows = split("2020-10-01T10:04:00Z", "2020-10-01T10:05:00Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T10:03:00", "2020-10-01T10:05:00");
+    }
+
+    @Test
+    void shouldKeepWindowOfExactlyMinimum() {
+        List<ChangeWindow> windows = split("2020-10-01T10:03:00Z", "2020-10-01T10:05:00Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T10:03:00", "2020-10-01T10:05:00");
+    }
+
+    @Test
+    void shouldSplitWindowInWholeChunks() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-03T00:00:00Z", ONE_DAY);
+
+        assertQueries(windows,
+                "2020-10-01T00:00:00", "2020-10-02T00:00:00",
+                "2020-10-02T00:00:00", "2020-10-03T00:00:00");
+    }
+
+    @Test
+    void shouldCoverTailShorterThanMinimumWithPreviousChunk() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-02T00:01:00Z", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T00:00:00", "2020-10-02T00:01:00");
+    }
+
+    @Test
+    void shouldKeepTailOfExactlyMinimumAsChunk() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-02T00:02:00Z", ONE_DAY);
+
+        assertQueries(windows,
+                "2020-10-01T00:00:00", "2020-10-02T00:00:00",
+                "2020-10-02T00:00:00", "2020-10-02T00:02:00");
+    }
+
+    @Test
+    void shouldUseMinimumWhenChunkIsShorter() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-01T00:06:00Z", Duration.ofSeconds(30));
+
+        assertQueries(windows,
+                "2020-10-01T00:00:00", "2020-10-01T00:02:00",
+                "2020-10-01T00:02:00", "2020-10-01T00:04:00",
+                "2020-10-01T00:04:00", "2020-10-01T00:06:00");
+    }
+
+    @Test
+    void shouldTruncateChunkToWholeMinutes() {
+        List<ChangeWindow> windows = split("2020-10-01T00:00:00Z", "2020-10-01T00:10:00Z", Duration.ofSeconds(330));
+
+        assertQueries(windows,
+                "2020-10-01T00:00:00", "2020-10-01T00:05:00",
+                "2020-10-01T00:05:00", "2020-10-01T00:10:00");
+    }
+
+    @Test
+    void shouldFormatBoundsInUtc() {
+        List<ChangeWindow> windows = split("2020-10-01T02:00:00+02:00", "2020-10-01T03:00:00+02:00", ONE_DAY);
+
+        assertQueries(windows, "2020-10-01T00:00:00", "2020-10-01T01:00:00");
+    }
+
+    private static List<ChangeWindow> split(String start, String end, Duration chunk) {
+        return ChangeWindow.split(OffsetDateTime.parse(start), OffsetDateTime.parse(end), chunk);
+    }
+
+    // Start and end UTC date times of each expected window, in order.
+    private static void assertQueries(List<ChangeWindow> windows, String... bounds) {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i += 2) {
+            expected.add("?start=" + encode(bounds[i] + "+00:00") + "&end=" + encode(bounds[i + 1] + "+00:00"));
+        }
+        List<String> actual = new ArrayList<>();
+        for (ChangeWindow window : windows) {
+            actual.add(window.query());
+        }
+        assertEquals(expected, actual, Arrays.toString(bounds));
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.reedelk.salesforce.internal.sync;
+
+import com.reedelk.salesforce.internal.exception.DeltaSyncException;
+import com.reedelk.salesforce.spi.Watermark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatermarksTest {
+
+    private static final String KEY = "config-id.accounts";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldSaveFirstWatermark() throws IOException {
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+
+        assertSaved("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+    }
+
+    @Test
+    void shouldMoveForwardToLaterSystemModstamp() throws IOException {
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+        save("2020-10-06T11:23:49.001Z", "001D000000IqhSAIAZ");
+
+        assertSaved("2020-10-06T11:23:49.001Z", "001D000000IqhSAIAZ");
+    }
+
+    @Test
+    void shouldNotMoveBackwardsToEarlierSystemModstamp() throws IOException {
+        save("2020-10-06T11:23:49.001Z", "001D000000IqhSAIAZ");
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSZIAZ");
+
+        assertSaved("2020-10-06T11:23:49.001Z", "001D000000IqhSAIAZ");
+    }
+
+    @Test
+    void shouldBreakSystemModstampTiesById() throws IOException {
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSBIAZ");
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSAIAZ");
+        assertSaved("2020-10-06T11:23:49.000Z", "001D000000IqhSBIAZ");
+
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSCIAZ");
+        assertSaved("2020-10-06T11:23:49.000Z", "001D000000IqhSCIAZ");
+    }
+
+    @Test
+    void shouldNotMoveBackwardsToStartOfSameSystemModstamp() throws IOException {
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+        save("2020-10-06T11:23:49.000Z", null);
+
+        assertSaved("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+    }
+
+    @Test
+    void shouldKeepLatestWatermarkWhenSavedConcurrentlyOutOfOrder() throws Exception {
+        List<Watermark> watermarks = new ArrayList<>();
+        for (int second = 10; second < 60; second++) {
+            watermarks.add(Watermark.of("2020-10-06T11:23:" + second + ".000Z", "001D000000IqhS" + second + "AZ"));
+        }
+        Collections.shuffle(watermarks, new Random(7));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (Watermark watermark : watermarks) {
+                saves.add(executor.submit(() -> {
+                    Watermarks.save(directory.toString(), KEY, watermark);
+                    return null;
+                }));
+            }
+            for (Future<?> save : saves) {
+                save.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertSaved("2020-10-06T11:23:59.000Z", "001D000000IqhS59AZ");
+    }
+
+    @Test
+    void shouldRejectInvalidSavedWatermark() throws IOException {
+        save("2020-10-06T11:23:49.000Z", "001D000000IqhSLIAZ");
+        Path file = directory.resolve(KEY + ".watermark");
+        Files.write(file, "2020-10-06 001D000000IqhSLIAZ".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(DeltaSyncException.class, () -> save("2020-10-06T11:23:50.000Z", "001D000000IqhSLIAZ"));
+    }
+
+    private void save(String systemModstamp, String id) throws IOException {
+        Watermarks.save(directory.toString(), KEY, Watermark.of(systemModstamp, id));
+    }
+
+    private void assertSaved(String systemModstamp, String id) throws IOException {
+        Watermark saved = Watermarks.load(directory.toString(), KEY);
+        assertNotNull(saved);
+        assertEquals(systemModstamp, saved.getSystemModstamp());
+        assertEquals(id, saved.getId());
+    }
+}